@@ -0,0 +1,20 @@
+package org.firstinspires.ftc.teamcode.benchmarks;
+
+import org.firstinspires.ftc.teamcode.components.subsystems.FireControlSystem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Turret target wrapping, as done every tick while auto-aiming.
+ */
+@State(Scope.Thread)
+public class AimBenchmark {
+    private int step;
+
+    @Benchmark
+    public double selectClosestEquivalentAngle() {
+        step = (step + 13) % 720;
+        return FireControlSystem.selectClosestEquivalentAngle(step - 360, 45, -90, 90);
+    }
+}
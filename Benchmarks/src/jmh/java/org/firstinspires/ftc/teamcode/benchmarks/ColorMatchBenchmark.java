@@ -0,0 +1,29 @@
+package org.firstinspires.ftc.teamcode.benchmarks;
+
+import org.firstinspires.ftc.teamcode.hardware.ColorMatchConfig;
+import org.firstinspires.ftc.teamcode.hardware.SmartColorSensor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Scoring element color matching against the front sensor profile, cycling through hues that match purple,
+ * green and nothing.
+ */
+@State(Scope.Thread)
+public class ColorMatchBenchmark {
+    private ColorMatchConfig.ColorMatchProfile profile;
+    private int step;
+
+    @Setup
+    public void setup() {
+        profile = ColorMatchConfig.frontProfile();
+    }
+
+    @Benchmark
+    public Object getColorMatchResult() {
+        step = (step + 7) % 360;
+        return SmartColorSensor.getColorMatchResult(profile, step, 0.6f, 0.5f);
+    }
+}
@@ -0,0 +1,84 @@
+package org.firstinspires.ftc.teamcode.benchmarks;
+
+import org.firstinspires.ftc.teamcode.hardware.controllers.BangBangController;
+import org.firstinspires.ftc.teamcode.hardware.controllers.HybridController;
+import org.firstinspires.ftc.teamcode.hardware.controllers.PID;
+import org.firstinspires.ftc.teamcode.hardware.controllers.VelocityPID;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * One controller update per invocation, with the measured value moving each call so no branch is always taken.
+ */
+@State(Scope.Thread)
+public class ControllerBenchmark {
+    private PID pid;
+    private VelocityPID velocityPid;
+    private BangBangController bangBang;
+    private HybridController hybrid;
+    private int step;
+
+    @Setup
+    public void setup() {
+        pid = PID.builder()
+                .setKP(0.02)
+                .setKI(0.0001)
+                .setKD(0.015)
+                .setKF(0.01)
+                .setTolerance(1)
+                .build();
+        velocityPid = VelocityPID.builder()
+                .setKP(0.002)
+                .setKD(0.0001)
+                .setKF(0.00025)
+                .setTolerance(30)
+                .build();
+        bangBang = BangBangController.builder()
+                .maxPower(1)
+                .maxDecel(2000)
+                .tolerance(2)
+                .velocityTolerance(10)
+                .brakeMargin(5)
+                .filterFraction(0.5)
+                .build();
+        hybrid = HybridController.builder()
+                .holdController(PID.builder().setKP(0.01).setTolerance(1).build())
+                .moveController(BangBangController.builder()
+                        .maxPower(1)
+                        .maxDecel(2000)
+                        .tolerance(2)
+                        .velocityTolerance(10)
+                        .brakeMargin(5)
+                        .filterFraction(0.5)
+                        .build())
+                .tolerance(10)
+                .build();
+    }
+
+    private double nextActual(double amplitude) {
+        step = (step + 1) & 1023;
+        return amplitude * (step - 512) / 512.0;
+    }
+
+    @Benchmark
+    public double pidCalcPosition() {
+        return pid.calcPosition(90, nextActual(120));
+    }
+
+    @Benchmark
+    public double velocityPidCalcVelocity() {
+        return velocityPid.calcVelocity(3500, 3500 + nextActual(400));
+    }
+
+    @Benchmark
+    public double bangBangCalcPosition() {
+        return bangBang.calcPosition(90, nextActual(120));
+    }
+
+    @Benchmark
+    public double hybridCalcPosition() {
+        return hybrid.calcPosition(90, nextActual(120));
+    }
+}
@@ -0,0 +1,66 @@
+package org.firstinspires.ftc.teamcode.benchmarks;
+
+import org.firstinspires.ftc.teamcode.hardware.filters.DataFilter;
+import org.firstinspires.ftc.teamcode.hardware.filters.ExponentialMovingAverage;
+import org.firstinspires.ftc.teamcode.hardware.filters.OutlierClamp;
+import org.firstinspires.ftc.teamcode.hardware.filters.RollingAverage;
+import org.firstinspires.ftc.teamcode.hardware.filters.RollingMedian;
+import org.firstinspires.ftc.teamcode.utilities.RollingPercentileWindow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Rolling filters at the window sizes used on the robot, fed a new sample every invocation.
+ */
+@State(Scope.Thread)
+public class FilterBenchmark {
+    private static final double[] PERCENTILES = {50, 90, 99};
+
+    @Param({"10", "100", "1000"})
+    public int windowSize;
+
+    private RollingAverage rollingAverage;
+    private RollingPercentileWindow percentileWindow;
+    private DataFilter filterChain;
+    private final double[] percentileResults = new double[PERCENTILES.length];
+    private int step;
+
+    @Setup
+    public void setup() {
+        rollingAverage = new RollingAverage(windowSize);
+        percentileWindow = new RollingPercentileWindow(windowSize);
+        filterChain = new OutlierClamp(0, 20, 1, 3)
+                .then(new RollingMedian(windowSize))
+                .then(new ExponentialMovingAverage(0.2));
+        for (int i = 0; i < windowSize; i++) {
+            double sample = nextSample();
+            rollingAverage.add(sample);
+            percentileWindow.add(sample);
+            filterChain.compute(sample);
+        }
+    }
+
+    private double nextSample() {
+        step = (step * 1103515245 + 12345) & 0x7fffffff;
+        return 12 + (step % 1000) / 1000.0;
+    }
+
+    @Benchmark
+    public double rollingAverageCompute() {
+        return rollingAverage.compute(nextSample());
+    }
+
+    @Benchmark
+    public double[] rollingPercentileWindowGetPercentiles() {
+        percentileWindow.add(nextSample());
+        return percentileWindow.getPercentiles(PERCENTILES, percentileResults);
+    }
+
+    @Benchmark
+    public double filterChainCompute() {
+        return filterChain.compute(nextSample());
+    }
+}
@@ -0,0 +1,143 @@
+package org.firstinspires.ftc.teamcode.benchmarks;
+
+import com.qualcomm.hardware.limelightvision.LLResult;
+import com.qualcomm.robotcore.hardware.CRServo;
+import org.firstinspires.ftc.teamcode.components.mechanisms.Collector;
+import org.firstinspires.ftc.teamcode.components.mechanisms.FeedRamp;
+import org.firstinspires.ftc.teamcode.components.mechanisms.FeedWheels;
+import org.firstinspires.ftc.teamcode.components.mechanisms.Hood;
+import org.firstinspires.ftc.teamcode.components.mechanisms.Indexer;
+import org.firstinspires.ftc.teamcode.components.mechanisms.Launcher;
+import org.firstinspires.ftc.teamcode.components.mechanisms.Turret;
+import org.firstinspires.ftc.teamcode.components.subsystems.FeedSystem;
+import org.firstinspires.ftc.teamcode.components.subsystems.FireControlSystem;
+import org.firstinspires.ftc.teamcode.components.subsystems.IndexerStorage;
+import org.firstinspires.ftc.teamcode.components.subsystems.LinearBallisticModel;
+import org.firstinspires.ftc.teamcode.components.subsystems.VolleyFireStorageManager;
+import org.firstinspires.ftc.teamcode.hardware.Hardware;
+import org.firstinspires.ftc.teamcode.hardware.SmartColorSensor;
+import org.firstinspires.ftc.teamcode.hardware.SmartLimelight3A;
+import org.firstinspires.ftc.teamcode.hardware.TickClock;
+import org.firstinspires.ftc.teamcode.hardware.sim.SimHardwareBackend;
+import org.firstinspires.ftc.teamcode.hardware.sim.SimLimelight3A;
+import org.firstinspires.ftc.teamcode.utilities.LiveMatchTuning;
+import org.firstinspires.ftc.teamcode.utilities.MatchStateStore;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Locale;
+
+/**
+ * One full robot loop per invocation: the turret, launcher, hood, indexer, collector, fire control system and volley
+ * storage manager, built the way MainTeleOp builds them, on {@link SimHardwareBackend#withRobotDevices()}.
+ * <p>
+ * Each loop advances a simulated clock by {@link #LOOP_PERIOD_NANOS}, which drives both the {@link TickClock} and the
+ * motor physics, so the controllers see the same time steps every run. With {@code depotInView} the Limelight reports
+ * the alliance depot tag at 30 frames a second, swinging across the view so the turret keeps tracking.
+ */
+@State(Scope.Thread)
+public class RobotLoopBenchmark {
+    private static final long LOOP_PERIOD_NANOS = 20_000_000L;
+    private static final double FRAME_RATE_HZ = 30;
+    private static final int FRAME_COUNT = 8;
+
+    @Param({"true", "false"})
+    public boolean depotInView;
+
+    private long simNanos;
+    private Hardware hardware;
+    private FireControlSystem fcs;
+    private VolleyFireStorageManager storage;
+
+    @Setup
+    public void setup() {
+        LiveMatchTuning.colorSensorAsyncPolling = false;
+
+        simNanos = 0;
+        SimHardwareBackend backend = SimHardwareBackend.withRobotDevices(() -> simNanos);
+        TickClock.setSource(() -> simNanos);
+        TickClock.reset();
+        hardware = new Hardware(backend);
+
+        if (depotInView) {
+            LLResult[] frames = new LLResult[FRAME_COUNT];
+            for (int i = 0; i < FRAME_COUNT; i++) {
+                frames[i] = depotFrame(0.4 * Math.sin(2 * Math.PI * i / FRAME_COUNT), 3.0);
+            }
+            backend.getSimulated(SimLimelight3A.class, "limelight")
+                    .setResultScript(time -> frames[(int) (time * FRAME_RATE_HZ) % FRAME_COUNT]);
+        }
+
+        FeedSystem feeder = new FeedSystem(
+                new FeedWheels(
+                        hardware.getRaw(CRServo.class, "leftFeedServo"),
+                        hardware.getRaw(CRServo.class, "rightFeedServo")
+                ),
+                new FeedRamp(
+                        hardware.getServo("leftFeedRampServo"),
+                        hardware.getServo("rightFeedRampServo")
+                )
+        );
+        feeder.stopFeeding();
+
+        Launcher launcher = new Launcher(hardware, hardware.getMotor("launcherMotor"));
+        Hood hood = new Hood(hardware.getServo("hoodServo"));
+        Turret turret = new Turret(hardware.getMotor("turretMotor"), hardware.getMotor("turretMotor").getEncoder());
+        SmartLimelight3A limelight = hardware.getLimelight("limelight");
+        limelight.setPipeline(0);
+        limelight.start();
+        // The shot table lives in the robot's data directory, which needs Android's storage API
+        fcs = new FireControlSystem(turret, hood, launcher, limelight, hardware.getLEDIndicator("launcherLED"),
+                new LinearBallisticModel());
+        fcs.setAllianceColor(MatchStateStore.AllianceColor.BLUE);
+        fcs.startLauncher();
+
+        Indexer indexer = new Indexer(hardware.getMotor("indexerMotor", true));
+        Collector collector = new Collector(hardware.getMotor("collectorMotor"));
+        SmartColorSensor frontColorSensor = hardware.getColorSensor("frontColorSensor");
+        hardware.addPrefetch(frontColorSensor.getDistanceCaching());
+        IndexerStorage indexerStorage = new IndexerStorage(
+                indexer,
+                frontColorSensor,
+                hardware.getLEDIndicator("leftLED"),
+                hardware.getLEDIndicator("rightLED"),
+                hardware.getLEDIndicator("frontLED")
+        );
+        storage = new VolleyFireStorageManager(feeder, indexer, collector, indexerStorage, fcs);
+        storage.readyForCollection();
+    }
+
+    /**
+     * A frame with the blue depot tag {@code lateralMeters} to the side of the camera and {@code forwardMeters} ahead,
+     * in the JSON the Limelight serves.
+     */
+    private static LLResult depotFrame(double lateralMeters, double forwardMeters) {
+        String pose = String.format(Locale.US, "[%.4f,0,%.4f,0,0,0]", lateralMeters, forwardMeters);
+        String zeros = "[0,0,0,0,0,0]";
+        String json = "{\"v\":1,\"pID\":0,\"cl\":12,\"tl\":18,\"ts\":0,\"Fiducial\":[{"
+                + "\"fID\":20,\"fam\":\"36H11C\",\"ta\":0.01,\"tx\":0,\"ty\":0,\"txp\":0,\"typ\":0,\"pts\":[],"
+                + "\"t6c_ts\":" + zeros + ",\"t6r_fs\":" + zeros + ",\"t6r_ts\":" + zeros + ","
+                + "\"t6t_cs\":" + pose + ",\"t6t_rs\":" + pose + "}]}";
+        LLResult result = LLResult.parse(new JSONObject(json));
+        if (result == null || !result.isValid()) {
+            throw new IllegalStateException("Scripted Limelight frame did not parse as a valid result");
+        }
+        return result;
+    }
+
+    @Benchmark
+    public boolean loop() {
+        simNanos += LOOP_PERIOD_NANOS;
+        TickClock.sample();
+        hardware.invalidateCaches();
+        storage.tickControl();
+        fcs.tick();
+        storage.updateIndicators();
+        hardware.flushOutputs();
+        return fcs.isTurretAligned();
+    }
+}
@@ -1,5 +1,6 @@
 package org.firstinspires.ftc.teamcode.components;
 
+import org.firstinspires.ftc.teamcode.hardware.TickClock;
 import org.firstinspires.ftc.teamcode.hardware.controllers.ControlAlgorithm;
 import org.firstinspires.ftc.teamcode.utilities.Notifier;
 
@@ -9,6 +10,10 @@ import org.firstinspires.ftc.teamcode.utilities.Notifier;
 public abstract class AxisComponent extends ActuatorComponent {
     protected final ControlAlgorithm controller;
     public final Notifier noLongerBusyNotifier;
+    private double moveTarget = Double.NaN;
+    private double moveStartSec;
+    private boolean moveSettling = false;
+    private double lastSettleTimeSec = Double.NaN;
 
     protected AxisComponent(ControlAlgorithm controller) {
         this.controller = controller;
@@ -21,6 +26,35 @@ public abstract class AxisComponent extends ActuatorComponent {
         double current = getCurrentValue();
         double output = calculateOutput(target, current);
         applyOutput(output, target, current);
+        trackSettling(target);
+    }
+
+    /**
+     * Times each move from the tick its target changed to the first tick the axis is no longer busy.
+     * Target changes smaller than the busy tolerance, like a tracked target drifting, do not start a new move.
+     */
+    private void trackSettling(double target) {
+        double timestampSec = TickClock.getTimestampSeconds();
+        if (Double.isNaN(moveTarget) || Math.abs(target - moveTarget) > getBusyTolerance()) {
+            moveTarget = target;
+            moveStartSec = timestampSec;
+            moveSettling = true;
+        }
+        if (moveSettling && !isBusy()) {
+            lastSettleTimeSec = timestampSec - moveStartSec;
+            moveSettling = false;
+        }
+    }
+
+    /**
+     * @return how long the last finished move took to settle, in seconds, or NaN before the first one.
+     */
+    public double getLastSettleTimeSeconds() {
+        return lastSettleTimeSec;
+    }
+
+    public boolean isSettling() {
+        return moveSettling;
     }
 
     public final double getTargetValue() {
@@ -19,6 +19,14 @@ public abstract class MotorVelocityAxisComponent extends VelocityAxisComponent {
         motor.setPower(shapeMotorPower(output, target, current));
     }
 
+    /**
+     * Sets the motor power directly, bypassing the controller until the next {@link #tick()}.
+     * For tools such as auto-tuners that drive the axis themselves.
+     */
+    public void setOpenLoopPower(double power) {
+        motor.setPower(power);
+    }
+
     protected double shapeMotorPower(double output, double target, double current) {
         return output;
     }
@@ -1,12 +1,25 @@
 package org.firstinspires.ftc.teamcode.components;
 
+import org.firstinspires.ftc.teamcode.hardware.TickClock;
+import org.firstinspires.ftc.teamcode.hardware.controllers.MotionProfile;
+import org.firstinspires.ftc.teamcode.hardware.controllers.MotionState;
 import org.firstinspires.ftc.teamcode.hardware.controllers.PositionControlAlgorithm;
 
 /**
  * Closed-loop axis whose controlled value is position.
+ * <p>
+ * Subclasses can opt into a {@link MotionProfile} with {@link #setMotionProfile(MotionProfile)}. The controller then
+ * follows the profile's setpoint for the current tick instead of jumping straight to the target, and
+ * {@link #calculateFeedforward(MotionState)} adds the power the setpoint's velocity and acceleration need.
  */
 public abstract class PositionAxisComponent extends AxisComponent {
     private double targetPosition;
+    private MotionProfile motionProfile;
+    private final MotionState profileSetpoint = new MotionState();
+    private boolean profilePlanned = false;
+    private double profileGoal;
+    private double profileStartSec;
+    private long lastProfiledTick = Long.MIN_VALUE;
 
     protected PositionAxisComponent(PositionControlAlgorithm controller) {
         super(controller);
@@ -22,6 +35,11 @@ public abstract class PositionAxisComponent extends AxisComponent {
 
     public abstract double getCurrentPosition();
 
+    /**
+     * @return the measured velocity, in position units per second.
+     */
+    public abstract double getCurrentVelocity();
+
     public double getPositionError() {
         return getTargetPosition() - getCurrentPosition();
     }
@@ -38,7 +56,86 @@ public abstract class PositionAxisComponent extends AxisComponent {
 
     @Override
     protected double calculateOutput(double target, double current) {
-        return ((PositionControlAlgorithm) controller).calcPosition(target, current);
+        PositionControlAlgorithm positionController = (PositionControlAlgorithm) controller;
+        double timestampSec = TickClock.getTimestampSeconds();
+        if (!useMotionProfile()) {
+            profilePlanned = false;
+            return positionController.calcPosition(target, current, timestampSec);
+        }
+
+        long tick = TickClock.getTickCount();
+        if (profilePlanned && tick - lastProfiledTick > 1) {
+            // The last tick skipped the profile, so the axis has moved on its own since the plan was made
+            profilePlanned = false;
+        }
+        if (!profilePlanned) {
+            replanFromMeasured(current, target, timestampSec);
+        } else if (target != profileGoal) {
+            // Replan from where the current plan puts the setpoint at this moment, or from its end once it is done, so
+            // a new target does not make the setpoint jump. A target that moves a little every tick, like a tracked
+            // one, then still advances the setpoint by one tick of motion per replan instead of holding it in place.
+            // A setpoint the axis has fallen behind is not worth keeping, so that case starts from the measured state.
+            motionProfile.sample(timestampSec - profileStartSec, profileSetpoint);
+            if (Math.abs(profileSetpoint.position - current) > getBusyTolerance()) {
+                replanFromMeasured(current, target, timestampSec);
+            } else {
+                motionProfile.plan(profileSetpoint.position, profileSetpoint.velocity, target);
+                profileGoal = target;
+                profileStartSec = timestampSec;
+            }
+        }
+        lastProfiledTick = tick;
+        motionProfile.sample(timestampSec - profileStartSec, profileSetpoint);
+        return positionController.calcPosition(profileSetpoint.position, current, timestampSec)
+                + calculateFeedforward(profileSetpoint);
+    }
+
+    private void replanFromMeasured(double current, double target, double timestampSec) {
+        motionProfile.plan(current, getCurrentVelocity(), target);
+        profileGoal = target;
+        profileStartSec = timestampSec;
+        profilePlanned = true;
+    }
+
+    /**
+     * Drops the current plan, for a subclass that drives the axis itself this tick, so the profile starts again from
+     * the measured state once it is followed again.
+     */
+    protected void clearMotionProfile() {
+        profilePlanned = false;
+    }
+
+    /**
+     * Makes the axis follow {@code profile} on the way to each new target, or go straight to it when null.
+     */
+    protected void setMotionProfile(MotionProfile profile) {
+        this.motionProfile = profile;
+        this.profilePlanned = false;
+    }
+
+    /**
+     * Whether this tick follows the motion profile. Subclasses can override this to switch it with a setting.
+     */
+    protected boolean useMotionProfile() {
+        return motionProfile != null;
+    }
+
+    public boolean isMotionProfiled() {
+        return profilePlanned;
+    }
+
+    /**
+     * @return the setpoint the controller followed in the latest profiled tick.
+     */
+    public MotionState getProfileSetpoint() {
+        return profileSetpoint;
+    }
+
+    /**
+     * Power added to the controller's output while following a profile, for the setpoint's velocity and acceleration.
+     */
+    protected double calculateFeedforward(MotionState setpoint) {
+        return 0;
     }
 
     protected double normalizeTargetPosition(double targetPosition) {
@@ -1,5 +1,6 @@
 package org.firstinspires.ftc.teamcode.components;
 
+import org.firstinspires.ftc.teamcode.hardware.TickClock;
 import org.firstinspires.ftc.teamcode.hardware.controllers.VelocityControlAlgorithm;
 
 /**
@@ -47,7 +48,7 @@ public abstract class VelocityAxisComponent extends AxisComponent {
 
     @Override
     protected double calculateOutput(double target, double current) {
-        return ((VelocityControlAlgorithm) controller).calcVelocity(target, current);
+        return ((VelocityControlAlgorithm) controller).calcVelocity(target, current, TickClock.getTimestampSeconds());
     }
 
     protected double normalizeTargetVelocity(double targetVelocity) {
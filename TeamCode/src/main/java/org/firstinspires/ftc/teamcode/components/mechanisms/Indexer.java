@@ -1,10 +1,15 @@
 package org.firstinspires.ftc.teamcode.components.mechanisms;
 
 import org.firstinspires.ftc.teamcode.components.MotorPositionAxisComponent;
+import org.firstinspires.ftc.teamcode.core.OpModeCore;
 import org.firstinspires.ftc.teamcode.hardware.SmartMotor;
-import org.firstinspires.ftc.teamcode.hardware.controllers.PID;
+import org.firstinspires.ftc.teamcode.hardware.controllers.MotionState;
+import org.firstinspires.ftc.teamcode.hardware.controllers.GainTable;
+import org.firstinspires.ftc.teamcode.hardware.controllers.SCurveProfile;
+import org.firstinspires.ftc.teamcode.hardware.controllers.ScheduledPID;
 import org.firstinspires.ftc.teamcode.utilities.Direction;
 import org.firstinspires.ftc.teamcode.utilities.LiveMatchTuning;
+import org.firstinspires.ftc.teamcode.utilities.TunedGainsStore;
 
 public class Indexer extends MotorPositionAxisComponent {
 
@@ -15,19 +20,41 @@ public class Indexer extends MotorPositionAxisComponent {
     public Indexer(SmartMotor motor) {
         super(
                 motor,
-                PID.builder()
+                ScheduledPID.scheduledBuilder()
                 .setKP(() -> LiveMatchTuning.indexerKp)
                 .setKI(() -> LiveMatchTuning.indexerKi)
                 .setKD(() -> LiveMatchTuning.indexerKd)
                 .setKF(() -> LiveMatchTuning.indexerKf)
                 .setTolerance(LiveMatchTuning.indexerToleranceDeg)
                 .setDirectionalKF(true)
+                .setErrorSchedule(createErrorSchedule())
+                .setScheduleEnabled(() -> LiveMatchTuning.indexerGainScheduleEnabled)
                 .build()
         );
 
         motor.getEncoder().setDirection(Direction.REVERSE);
 
         motor.getEncoder().reset();
+
+        TunedGainsStore.applySaved(TunedGainsStore.Axis.INDEXER);
+
+        setMotionProfile(new SCurveProfile(
+                () -> LiveMatchTuning.indexerProfileMaxVelocityDegPerSec,
+                () -> LiveMatchTuning.indexerProfileMaxAccelerationDegPerSec2,
+                () -> LiveMatchTuning.indexerProfileMaxJerkDegPerSec3
+        ));
+    }
+
+    @Override
+    protected boolean useMotionProfile() {
+        return LiveMatchTuning.indexerMotionProfileEnabled && super.useMotionProfile();
+    }
+
+    @Override
+    protected double calculateFeedforward(MotionState setpoint) {
+        return LiveMatchTuning.indexerProfileKs * Math.signum(setpoint.velocity)
+                + LiveMatchTuning.indexerProfileKv * setpoint.velocity
+                + LiveMatchTuning.indexerProfileKa * setpoint.acceleration;
     }
 
     @Override
@@ -51,6 +78,11 @@ public class Indexer extends MotorPositionAxisComponent {
         return motor.getCurrentPosition() / LiveMatchTuning.indexerTicksPerDegree;
     }
 
+    @Override
+    public double getCurrentVelocity() {
+        return motor.getVelocity() / LiveMatchTuning.indexerTicksPerDegree;
+    }
+
     public long getCurrentIndex(){
         return degreesToIndex(getCurrentPosition());
     }
@@ -139,6 +171,7 @@ public class Indexer extends MotorPositionAxisComponent {
         if (poweredApproachActive) {
             double error = target - current;
             if (poweredApproachDirection != 0 && Math.signum(error) == poweredApproachDirection) {
+                clearMotionProfile();
                 return poweredApproachDirection * poweredApproachPower;
             }
             poweredApproachActive = false;
@@ -146,4 +179,23 @@ public class Indexer extends MotorPositionAxisComponent {
         }
         return super.calculateOutput(target, current);
     }
+
+    /**
+     * Multipliers on the indexer gains by distance to the slot: a full kP push between slots, a gentle settle into one.
+     * Only the breakpoints are fixed at construction.
+     */
+    private static GainTable createErrorSchedule() {
+        try {
+            return GainTable.builder()
+                    .row(LiveMatchTuning.indexerScheduleNearErrorDeg, LiveMatchTuning.indexerScheduleNearKpScale, 1, 1, 1)
+                    .row(LiveMatchTuning.indexerScheduleFarErrorDeg, LiveMatchTuning.indexerScheduleFarKpScale, LiveMatchTuning.indexerScheduleFarKiScale, 1, 1)
+                    .build();
+        } catch (IllegalArgumentException e) {
+            // Breakpoints set to the same error from Panels must not stop the op mode from initializing
+            if (OpModeCore.getInstance() != null) {
+                OpModeCore.getTelemetry().warning("Indexer gain schedule is invalid, running unscheduled: " + e.getMessage());
+            }
+            return GainTable.unity();
+        }
+    }
 }
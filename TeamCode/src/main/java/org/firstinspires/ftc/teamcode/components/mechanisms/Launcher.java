@@ -1,22 +1,52 @@
 package org.firstinspires.ftc.teamcode.components.mechanisms;
 
 import com.qualcomm.robotcore.hardware.DcMotor;
-import org.firstinspires.ftc.robotcore.external.navigation.VoltageUnit;
 import org.firstinspires.ftc.teamcode.components.MotorVelocityAxisComponent;
 import org.firstinspires.ftc.teamcode.hardware.Hardware;
 import org.firstinspires.ftc.teamcode.hardware.SmartMotor;
+import org.firstinspires.ftc.teamcode.hardware.TickClock;
+import org.firstinspires.ftc.teamcode.hardware.controllers.MotorFeedforward;
+import org.firstinspires.ftc.teamcode.hardware.controllers.ShotDipModel;
 import org.firstinspires.ftc.teamcode.hardware.controllers.VelocityPID;
 import org.firstinspires.ftc.teamcode.hardware.filters.DataFilter;
 import org.firstinspires.ftc.teamcode.hardware.filters.RollingAverage;
 import org.firstinspires.ftc.teamcode.utilities.LiveMatchTuning;
+import org.firstinspires.ftc.teamcode.utilities.PersistentStorage;
+import org.firstinspires.ftc.teamcode.utilities.TunedGainsStore;
 
 public class Launcher extends MotorVelocityAxisComponent {
+    public static final String FEEDFORWARD_KEY = "launcher_feedforward_v1";
+    public static final String SHOT_MODEL_KEY = "launcher_shot_model_v1";
+
     private final Hardware hardware;
 
     private final DataFilter voltageFilter = new RollingAverage(100);
 
+    private final MotorFeedforward feedforward = new MotorFeedforward(
+            () -> LiveMatchTuning.launcherFeedforwardKs,
+            () -> LiveMatchTuning.launcherFeedforwardKv,
+            () -> LiveMatchTuning.launcherFeedforwardKa
+    );
+    private double referenceVelocity = 0;
+
     private boolean runMaxPower = false;
 
+    private final ShotDipModel shotModel = new ShotDipModel(
+            () -> LiveMatchTuning.launcherShotLearningRate,
+            () -> LiveMatchTuning.launcherShotMinDropDegPerSec,
+            () -> LiveMatchTuning.launcherTolerance,
+            () -> LiveMatchTuning.launcherShotObserveWindowSec,
+            () -> LiveMatchTuning.launcherShotBoostLeadSec,
+            () -> LiveMatchTuning.launcherExitVelocityRatio
+    );
+    private double lastShotBoost = 0;
+
+    private double recoveryTarget = Double.NaN;
+    private boolean recoveryInTolerance = false;
+    private boolean recovering = false;
+    private double recoveryStartSec;
+    private double lastRecoveryTimeSec = Double.NaN;
+
     public Launcher(Hardware hardware, SmartMotor motor) {
         super(
                 motor,
@@ -24,25 +54,132 @@ public class Launcher extends MotorVelocityAxisComponent {
                         .setKP(() -> LiveMatchTuning.launcherKp)
                         .setKI(() -> LiveMatchTuning.launcherKi)
                         .setKD(() -> LiveMatchTuning.launcherKd)
-                        .setKF(() -> LiveMatchTuning.launcherKf)
+                        // the feedforward model replaces kF when it is on
+                        .setKF(() -> LiveMatchTuning.launcherFeedforwardEnabled ? 0 : LiveMatchTuning.launcherKf)
                         .setTolerance(LiveMatchTuning.launcherTolerance)
                         .build()
         );
         this.hardware = hardware;
         this.motor.setZeroPowerBehavior(DcMotor.ZeroPowerBehavior.FLOAT);
+        TunedGainsStore.applySaved(TunedGainsStore.Axis.LAUNCHER);
+        loadPersistedFeedforward();
+        loadPersistedShotModel();
     }
 
     @Override
     protected double shapeMotorPower(double output, double target, double current) {
         if(runMaxPower && (target + LiveMatchTuning.launcherTolerance * 2) - current > LiveMatchTuning.launcherTolerance ) {
+            lastShotBoost = 0;
             return 1;
         }
+        output += shotBoostPower();
+        if (LiveMatchTuning.launcherFeedforwardEnabled) {
+            double referenceAcceleration = advanceReference(target, current);
+            return output + feedforward.calculatePower(referenceVelocity, referenceAcceleration, hardware.getBatteryVoltage());
+        }
         double voltageCompensation = target != 0
-                ? (LiveMatchTuning.launcherMaxVoltage - voltageFilter.compute(hardware.getControlHub().getInputVoltage(VoltageUnit.VOLTS))) * LiveMatchTuning.launcherKv
+                ? (LiveMatchTuning.launcherMaxVoltage - voltageFilter.compute(hardware.getBatteryVoltage())) * LiveMatchTuning.launcherKv
                 : 0;
         return output + voltageCompensation;
     }
 
+    /**
+     * Moves the feedforward's reference velocity toward the target at the acceleration limit, so kA asks for the
+     * acceleration the flywheel can actually reach. Slowing down is left to friction, so it has no acceleration term.
+     *
+     * @return the reference acceleration this tick.
+     */
+    private double advanceReference(double target, double current) {
+        double previous = referenceVelocity;
+        // Start from the flywheel's real speed when it is still spinning
+        referenceVelocity = Math.max(referenceVelocity, Math.min(current, target));
+        double dt = TickClock.getDtSeconds();
+        double maxStep = LiveMatchTuning.launcherFeedforwardMaxAccelDegPerSec2 * dt;
+        if (target <= referenceVelocity || !(maxStep > 0)) {
+            referenceVelocity = target;
+            return 0;
+        }
+        referenceVelocity = Math.min(target, referenceVelocity + maxStep);
+        return (referenceVelocity - previous) / dt;
+    }
+
+    @Override
+    protected void applyOutput(double output, double target, double current) {
+        // Before the power is shaped, so the boost sees a feed reported this tick
+        shotModel.update(TickClock.getTimestampSeconds(), current);
+        super.applyOutput(output, target, current);
+        trackRecovery(target, current);
+    }
+
+    private double shotBoostPower() {
+        lastShotBoost = LiveMatchTuning.launcherShotBoostEnabled
+                ? shotModel.getBoostVelocity(TickClock.getTimestampSeconds()) * LiveMatchTuning.launcherShotBoostPowerPerDegPerSec
+                : 0;
+        return lastShotBoost;
+    }
+
+    /**
+     * Starts a volley. With the shot boost on and at least one shot learned, the flywheel is held by the controller
+     * plus the predicted boost instead of running at full power.
+     *
+     * @param expectedShots how many artifacts are about to be fired.
+     */
+    public void startVolley(int expectedShots) {
+        shotModel.startVolley(TickClock.getTimestampSeconds(), expectedShots);
+        setRunMaxPower(!LiveMatchTuning.launcherShotBoostEnabled || shotModel.getLearnedShots() == 0);
+    }
+
+    /**
+     * Call when an artifact is pushed into the flywheel.
+     */
+    public void onArtifactFed() {
+        shotModel.onFeed(TickClock.getTimestampSeconds());
+    }
+
+    public void endVolley() {
+        shotModel.endVolley();
+        setRunMaxPower(false);
+        savePersistedShotModel();
+    }
+
+    public ShotDipModel getShotModel() {
+        return shotModel;
+    }
+
+    /**
+     * @return the power added for the predicted shot dip in the last tick.
+     */
+    public double getLastShotBoost() {
+        return lastShotBoost;
+    }
+
+    /**
+     * Times how long the flywheel takes to get back within tolerance after dropping out of it at a steady target,
+     * which is what a shot does.
+     */
+    private void trackRecovery(double target, double current) {
+        boolean inTolerance = target != 0 && Math.abs(target - current) < LiveMatchTuning.launcherTolerance;
+        double timestampSec = TickClock.getTimestampSeconds();
+        if (target != recoveryTarget) {
+            recoveryTarget = target;
+            recovering = false;
+        } else if (recoveryInTolerance && !inTolerance && target != 0) {
+            recovering = true;
+            recoveryStartSec = timestampSec;
+        } else if (recovering && inTolerance) {
+            recovering = false;
+            lastRecoveryTimeSec = timestampSec - recoveryStartSec;
+        }
+        recoveryInTolerance = inTolerance;
+    }
+
+    /**
+     * @return how long the last recovery back into tolerance took, in seconds, or NaN before the first one.
+     */
+    public double getLastRecoveryTimeSeconds() {
+        return lastRecoveryTimeSec;
+    }
+
     public void setRunMaxPower(boolean runMaxPower) {
         this.runMaxPower = runMaxPower;
     }
@@ -69,4 +206,105 @@ public class Launcher extends MotorVelocityAxisComponent {
     public double getPidResult() {
         return controller.result();
     }
+
+    /**
+     * Replaces the feedforward tunings with the ones saved by the characterization op mode, if there are any,
+     * and turns the feedforward on.
+     *
+     * @return whether saved values were found.
+     */
+    public static boolean loadPersistedFeedforward() {
+        if (!LiveMatchTuning.launcherLoadPersistedFeedforward || !PersistentStorage.isInitialized()) {
+            return false;
+        }
+        PersistedFeedforward persisted;
+        try {
+            persisted = PersistentStorage.getObject(FEEDFORWARD_KEY, PersistedFeedforward.class);
+        } catch (Exception ignored) {
+            // Keep the tuned defaults if the saved values cannot be read
+            return false;
+        }
+        if (persisted == null) {
+            return false;
+        }
+        LiveMatchTuning.launcherFeedforwardKs = persisted.kS;
+        LiveMatchTuning.launcherFeedforwardKv = persisted.kV;
+        LiveMatchTuning.launcherFeedforwardKa = persisted.kA;
+        LiveMatchTuning.launcherFeedforwardEnabled = true;
+        return true;
+    }
+
+    public static boolean savePersistedFeedforward(double kS, double kV, double kA) {
+        if (!PersistentStorage.isInitialized()) {
+            return false;
+        }
+        PersistedFeedforward persisted = new PersistedFeedforward();
+        persisted.kS = kS;
+        persisted.kV = kV;
+        persisted.kA = kA;
+        PersistentStorage.saveObject(FEEDFORWARD_KEY, persisted);
+        return true;
+    }
+
+    private void loadPersistedShotModel() {
+        if (!LiveMatchTuning.launcherLoadPersistedShotModel || !PersistentStorage.isInitialized()) {
+            return;
+        }
+        PersistedShotModel persisted;
+        try {
+            persisted = PersistentStorage.getObject(SHOT_MODEL_KEY, PersistedShotModel.class);
+        } catch (Exception ignored) {
+            // Learn from scratch if the saved model cannot be read
+            return;
+        }
+        if (persisted != null && persisted.learnedShots > 0) {
+            shotModel.restore(orNaN(persisted.drop), orNaN(persisted.dipDelaySec), orNaN(persisted.recoverySec),
+                    orNaN(persisted.feedIntervalSec), orNaN(persisted.firstFeedDelaySec), persisted.learnedShots);
+        }
+    }
+
+    private void savePersistedShotModel() {
+        if (!PersistentStorage.isInitialized() || shotModel.getLearnedShots() == 0) {
+            return;
+        }
+        PersistedShotModel persisted = new PersistedShotModel();
+        persisted.drop = finiteOrNull(shotModel.getDrop());
+        persisted.dipDelaySec = finiteOrNull(shotModel.getDipDelaySeconds());
+        persisted.recoverySec = finiteOrNull(shotModel.getRecoverySeconds());
+        persisted.feedIntervalSec = finiteOrNull(shotModel.getFeedIntervalSeconds());
+        persisted.firstFeedDelaySec = finiteOrNull(shotModel.getFirstFeedDelaySeconds());
+        persisted.learnedShots = shotModel.getLearnedShots();
+        try {
+            PersistentStorage.saveObject(SHOT_MODEL_KEY, persisted);
+        } catch (Exception ignored) {
+            // This runs when a volley ends, mid-match, so a failed save only loses what this volley taught
+        }
+    }
+
+    /**
+     * Values the model has not learned yet are NaN, which JSON cannot hold, so they are saved as absent.
+     */
+    private static Double finiteOrNull(double value) {
+        return Double.isNaN(value) || Double.isInfinite(value) ? null : value;
+    }
+
+    private static double orNaN(Double value) {
+        return value != null ? value : Double.NaN;
+    }
+
+    public static final class PersistedShotModel {
+        // Null until learned
+        public Double drop;
+        public Double dipDelaySec;
+        public Double recoverySec;
+        public Double feedIntervalSec;
+        public Double firstFeedDelaySec;
+        public int learnedShots;
+    }
+
+    public static final class PersistedFeedforward {
+        public double kS;
+        public double kV;
+        public double kA;
+    }
 }
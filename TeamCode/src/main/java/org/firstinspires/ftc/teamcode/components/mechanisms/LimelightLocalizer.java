@@ -18,7 +18,17 @@ public class LimelightLocalizer {
     }
 
     public boolean hasDetection() {
-        return limelight.getAprilTags().stream().anyMatch(tag -> !tag.isObelisk() && hasUsableRelativeTagPose(tag));
+        return findUsableDepotTag() != null;
+    }
+
+    private SmartLimelight3A.AprilTag findUsableDepotTag() {
+        for (int i = 0; i < limelight.getAprilTagCount(); i++) {
+            SmartLimelight3A.AprilTag tag = limelight.getAprilTag(i);
+            if (!tag.isObelisk() && hasUsableRelativeTagPose(tag)) {
+                return tag;
+            }
+        }
+        return null;
     }
 
     /**
@@ -28,11 +38,7 @@ public class LimelightLocalizer {
      * @return the latest computed pose of the launcher in field coordinates.
      */
     public Pose getLatestPose() {
-        SmartLimelight3A.AprilTag tag = limelight.getAprilTags()
-                .stream()
-                .filter(tag1 -> !tag1.isObelisk() && hasUsableRelativeTagPose(tag1))
-                .findFirst()
-                .orElse(null);
+        SmartLimelight3A.AprilTag tag = findUsableDepotTag();
 
         if (tag == null) {
             lastSolveStatus = "No depot tag with usable pose";
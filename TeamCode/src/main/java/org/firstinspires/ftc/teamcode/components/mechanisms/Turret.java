@@ -1,11 +1,16 @@
 package org.firstinspires.ftc.teamcode.components.mechanisms;
 
 import org.firstinspires.ftc.teamcode.components.MotorPositionAxisComponent;
+import org.firstinspires.ftc.teamcode.core.OpModeCore;
 import org.firstinspires.ftc.teamcode.hardware.SmartEncoder;
 import org.firstinspires.ftc.teamcode.hardware.SmartMotor;
-import org.firstinspires.ftc.teamcode.hardware.controllers.PID;
+import org.firstinspires.ftc.teamcode.hardware.controllers.GainTable;
+import org.firstinspires.ftc.teamcode.hardware.controllers.MotionState;
+import org.firstinspires.ftc.teamcode.hardware.controllers.ScheduledPID;
+import org.firstinspires.ftc.teamcode.hardware.controllers.TrapezoidalProfile;
 import org.firstinspires.ftc.teamcode.utilities.Direction;
 import org.firstinspires.ftc.teamcode.utilities.LiveMatchTuning;
+import org.firstinspires.ftc.teamcode.utilities.TunedGainsStore;
 
 public class Turret extends MotorPositionAxisComponent {
     private final SmartEncoder encoder;
@@ -14,23 +19,47 @@ public class Turret extends MotorPositionAxisComponent {
     public Turret(SmartMotor motor, SmartEncoder encoder) {
         super(
                 motor,
-                PID.builder()
+                ScheduledPID.scheduledBuilder()
                         .setKP(() -> LiveMatchTuning.turretKp)
                         .setKI(() -> LiveMatchTuning.turretKi)
                         .setKD(() -> LiveMatchTuning.turretKd)
                         .setKF(() -> LiveMatchTuning.turretKf)
                         .setTolerance(LiveMatchTuning.turretToleranceDeg)
                         .setDirectionalKF(true)
+                        .setErrorSchedule(createErrorSchedule())
+                        .setScheduleEnabled(() -> LiveMatchTuning.turretGainScheduleEnabled)
                         .build()
         );
         this.encoder = encoder;
         this.encoder.setDirection(Direction.REVERSE);
         this.encoder.reset();
         this.desiredTarget = 0;
+        TunedGainsStore.applySaved(TunedGainsStore.Axis.TURRET);
+        // A trapezoid, because the tracked target moves every tick and it can be replanned while moving
+        setMotionProfile(new TrapezoidalProfile(
+                () -> LiveMatchTuning.turretProfileMaxVelocityDegPerSec,
+                () -> LiveMatchTuning.turretProfileMaxAccelerationDegPerSec2
+        ));
+    }
+
+    @Override
+    protected boolean useMotionProfile() {
+        return LiveMatchTuning.turretMotionProfileEnabled && super.useMotionProfile();
+    }
+
+    @Override
+    protected double calculateFeedforward(MotionState setpoint) {
+        return LiveMatchTuning.turretProfileKs * Math.signum(setpoint.velocity)
+                + LiveMatchTuning.turretProfileKv * setpoint.velocity
+                + LiveMatchTuning.turretProfileKa * setpoint.acceleration;
     }
 
     @Override
     protected double shapeMotorPower(double output, double target, double current) {
+        if (isMotionProfiled()) {
+            // Following a profile needs braking power on the way in, so keep the output's sign
+            return output;
+        }
         return target > current ? Math.abs(output) : -Math.abs(output);
     }
 
@@ -39,6 +68,11 @@ public class Turret extends MotorPositionAxisComponent {
         return encoder.getPosition() / LiveMatchTuning.turretTicksPerDegree;
     }
 
+    @Override
+    public double getCurrentVelocity() {
+        return encoder.getVelocity() / LiveMatchTuning.turretTicksPerDegree;
+    }
+
     @Override
     public void setTargetPosition(double position) {
         desiredTarget = position;
@@ -67,4 +101,23 @@ public class Turret extends MotorPositionAxisComponent {
         if (value > max) return max;
         return value;
     }
+
+    /**
+     * Softer near the target and stronger far from it, with no integral on long moves so it cannot wind up.
+     * The breakpoints are read when the turret is created; the base gains stay live.
+     */
+    private static GainTable createErrorSchedule() {
+        try {
+            return GainTable.builder()
+                    .row(LiveMatchTuning.turretScheduleNearErrorDeg, LiveMatchTuning.turretScheduleNearKpScale, 1, 1, 1)
+                    .row(LiveMatchTuning.turretScheduleFarErrorDeg, LiveMatchTuning.turretScheduleFarKpScale, LiveMatchTuning.turretScheduleFarKiScale, 1, 1)
+                    .build();
+        } catch (IllegalArgumentException e) {
+            // Breakpoints set to the same error from Panels must not stop the op mode from initializing
+            if (OpModeCore.getInstance() != null) {
+                OpModeCore.getTelemetry().warning("Turret gain schedule is invalid, running unscheduled: " + e.getMessage());
+            }
+            return GainTable.unity();
+        }
+    }
 }
@@ -0,0 +1,21 @@
+package org.firstinspires.ftc.teamcode.components.subsystems;
+
+/**
+ * What the launcher needs to land an artifact in the depot from a given distance, and how long the artifact flies.
+ */
+public interface BallisticModel {
+    /**
+     * @return the launcher velocity for a shot of {@code distanceMeters}, in the launcher's units.
+     */
+    double launcherVelocity(double distanceMeters);
+
+    /**
+     * @return the hood servo position for a shot of {@code distanceMeters}.
+     */
+    double hoodPosition(double distanceMeters);
+
+    /**
+     * @return how long an artifact takes to reach the depot from {@code distanceMeters}, in seconds.
+     */
+    double timeOfFlightSeconds(double distanceMeters);
+}
@@ -1,5 +1,7 @@
 package org.firstinspires.ftc.teamcode.components.subsystems;
 
+import com.pedropathing.follower.Follower;
+import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
 import org.firstinspires.ftc.teamcode.components.mechanisms.DriveBase;
 import org.firstinspires.ftc.teamcode.components.mechanisms.Hood;
 import org.firstinspires.ftc.teamcode.components.mechanisms.Launcher;
@@ -8,9 +10,13 @@ import org.firstinspires.ftc.teamcode.core.OpModeCore;
 import org.firstinspires.ftc.teamcode.core.implementations.AutonomousConfiguration;
 import org.firstinspires.ftc.teamcode.hardware.SmartLEDIndicator;
 import org.firstinspires.ftc.teamcode.hardware.SmartLimelight3A;
+import org.firstinspires.ftc.teamcode.hardware.TickClock;
 import org.firstinspires.ftc.teamcode.utilities.LiveMatchTuning;
 import org.firstinspires.ftc.teamcode.utilities.MatchStateStore;
 import org.firstinspires.ftc.teamcode.utilities.Pose;
+import org.firstinspires.ftc.teamcode.utilities.TimestampedHistory;
+
+import java.io.File;
 
 public class FireControlSystem {
     private final Turret turret;
@@ -28,12 +34,35 @@ public class FireControlSystem {
     private boolean runLauncher = false;
     public static double bearingToDepot = 0;
     private boolean firing = false;
+    private final MovingShotSolver movingShotSolver = new MovingShotSolver();
+    private BallisticModel ballisticModel;
+    private boolean movingShotActive = false;
+    // Turret angle and robot heading at every tick, to look up where they were when a frame was captured
+    private final TimestampedHistory turretHistory =
+            new TimestampedHistory(Math.max(2, LiveMatchTuning.fcsAimHistorySize));
+    private final TimestampedHistory headingHistory =
+            new TimestampedHistory(Math.max(2, LiveMatchTuning.fcsAimHistorySize), true);
+    private double aimLatencyCorrectionDeg = 0;
 
 
     public FireControlSystem(Turret turret, Hood hood, Launcher launcher, SmartLimelight3A limelight, SmartLEDIndicator led) {
         this(turret, hood, launcher, limelight, led, null, null);
     }
 
+    /**
+     * Aims with {@code ballisticModel} instead of loading the shot table, for running off the robot.
+     */
+    public FireControlSystem(
+            Turret turret,
+            Hood hood,
+            Launcher launcher,
+            SmartLimelight3A limelight,
+            SmartLEDIndicator led,
+            BallisticModel ballisticModel
+    ) {
+        this(turret, hood, launcher, limelight, led, null, null, ballisticModel);
+    }
+
     public FireControlSystem(
             Turret turret,
             Hood hood,
@@ -42,6 +71,19 @@ public class FireControlSystem {
             SmartLEDIndicator led,
             DriveBase driveBase,
             Pose depotPose
+    ) {
+        this(turret, hood, launcher, limelight, led, driveBase, depotPose, loadBallisticModel());
+    }
+
+    public FireControlSystem(
+            Turret turret,
+            Hood hood,
+            Launcher launcher,
+            SmartLimelight3A limelight,
+            SmartLEDIndicator led,
+            DriveBase driveBase,
+            Pose depotPose,
+            BallisticModel ballisticModel
     ) {
         this.turret = turret;
         this.hood = hood;
@@ -50,19 +92,29 @@ public class FireControlSystem {
         this.led = led;
         this.driveBase = driveBase;
         this.depotPose = depotPose;
+        this.ballisticModel = ballisticModel;
     }
 
     public void tick(){
+        tickControl();
+        updateIndicators();
+    }
+
+    /**
+     * Runs the turret and launcher loops and updates the aim, without touching the LED.
+     */
+    public void tickControl(){
         if (turret == null || launcher == null || limelight == null) {
             setState(State.SEEKING);
             return;
         }
         turret.tick();
         launcher.tick();
+        recordAimHistory();
 
         boolean turretAligned = isTurretAligned();
         boolean launcherSpun = isLauncherSpun();
-        boolean seesAnyDepotTag = limelight.getAprilTags().stream().anyMatch(tag -> !tag.isObelisk());
+        boolean seesAnyDepotTag = limelight.getFirstDepot() != null;
         if (turretAligned && launcherSpun) {
             setState(State.READY);
         } else {
@@ -70,6 +122,7 @@ public class FireControlSystem {
         }
 
 
+        movingShotActive = false;
         SmartLimelight3A.AprilTag depot = depotAutoAimEnabled ? getAllianceDepotTag() : null;
         if (depot == null) {
             setState(State.SEEKING);
@@ -79,15 +132,17 @@ public class FireControlSystem {
         } else {
             try {
                 bearingToDepot = -depot.bearingDegToTag();
-                if (turretAutoAimEnabled) {
-                    setTurretTargetClosestFacing(turret.getCurrentPosition() + bearingToDepot);
-                }
-                hood.setTargetPosition(LiveMatchTuning.fcsHoodBasePosition + LiveMatchTuning.fcsHoodPositionPerMeter * depot.distanceXYToTagMeters());
-                if (runLauncher) {
-                    launcher.setTargetVelocity(Math.min(Math.max(
-                            LiveMatchTuning.fcsBaseVelocity + depot.distanceXYToTagMeters() * LiveMatchTuning.fcsVelocityPerMeter,
-                            LiveMatchTuning.fcsMinVelocity
-                    ), LiveMatchTuning.fcsMaxVelocity));
+                double turretBearingDeg = getTurretBearingToDepot();
+                if (solveMovingShotFromBearing(turretBearingDeg, depot.distanceXYToTagMeters())) {
+                    applyMovingShot(runLauncher);
+                } else {
+                    if (turretAutoAimEnabled) {
+                        setTurretTargetClosestFacing(turretBearingDeg);
+                    }
+                    hood.setTargetPosition(ballisticModel.hoodPosition(depot.distanceXYToTagMeters()));
+                    if (runLauncher) {
+                        launcher.setTargetVelocity(ballisticModel.launcherVelocity(depot.distanceXYToTagMeters()));
+                    }
                 }
             } catch (IllegalStateException e) {
                 OpModeCore.getTelemetry().warning("Getting April Tag Bearing failed: " + e.getMessage());
@@ -96,20 +151,54 @@ public class FireControlSystem {
         if(!runLauncher){
             launcher.stop();
         }
+    }
 
-        if (led != null) {
-            if (ledOverrideColor != null) {
-                led.setColor(ledOverrideColor);
-            } else if (firing) {
-                led.setPulseWidthMicros(1350);
-            } else if (!runLauncher && turretAligned) {
-                led.setHue(LiveMatchTuning.fcsAlignedButLauncherOffHueDeg);
-            } else if(state != null) {
-                led.setColor(state.color);
-            } else {
-                led.setColor(SmartLEDIndicator.IndicatorColor.ORANGE);
+    private void recordAimHistory() {
+        double now = TickClock.getTimestampSeconds();
+        turretHistory.add(now, turret.getCurrentPosition());
+        Follower follower = driveBase != null ? driveBase.getFollower() : null;
+        if (follower != null) {
+            headingHistory.add(now, Math.toDegrees(follower.getPose().getHeading()));
+        }
+    }
+
+    /**
+     * The depot on the turret's scale. The tag bearing was measured when the frame was captured, tens of milliseconds
+     * ago, so it is added to the turret angle at that moment rather than the current one, which would have the turret
+     * chase its own motion and oscillate while tracking. The robot's turn since the capture is added too, as the depot
+     * has moved the other way across the robot by that much.
+     */
+    private double getTurretBearingToDepot() {
+        double turretAngleDeg = turret.getCurrentPosition();
+        aimLatencyCorrectionDeg = 0;
+        double captureSec = limelight.getFrameCaptureTimestampSeconds();
+        if (LiveMatchTuning.fcsLatencyCompensationEnabled && !Double.isNaN(captureSec) && turretHistory.size() > 0) {
+            aimLatencyCorrectionDeg = turretHistory.getAt(captureSec) - turretAngleDeg;
+            if (headingHistory.size() > 0) {
+                aimLatencyCorrectionDeg += headingHistory.getLatest() - headingHistory.getAt(captureSec);
             }
         }
+        return turretAngleDeg + aimLatencyCorrectionDeg + bearingToDepot;
+    }
+
+    /**
+     * Shows the fire control state on the LED. Only needs to run a few times a second.
+     */
+    public void updateIndicators(){
+        if (led == null || turret == null || launcher == null || limelight == null) {
+            return;
+        }
+        if (ledOverrideColor != null) {
+            led.setColor(ledOverrideColor);
+        } else if (firing) {
+            led.setPulseWidthMicros(1350);
+        } else if (!runLauncher && isTurretAligned()) {
+            led.setHue(LiveMatchTuning.fcsAlignedButLauncherOffHueDeg);
+        } else if(state != null) {
+            led.setColor(state.color);
+        } else {
+            led.setColor(SmartLEDIndicator.IndicatorColor.ORANGE);
+        }
     }
 
     private void setState(State state) {
@@ -149,10 +238,28 @@ public class FireControlSystem {
     }
 
     public void setFiring(boolean firing) {
-        launcher.setRunMaxPower(firing);
+        setFiring(firing, 0);
+    }
+
+    /**
+     * @param expectedShots how many artifacts the volley will fire, so the launcher knows when to stop boosting.
+     */
+    public void setFiring(boolean firing, int expectedShots) {
+        if (firing && !this.firing) {
+            launcher.startVolley(expectedShots);
+        } else if (!firing && this.firing) {
+            launcher.endVolley();
+        }
         this.firing = firing;
     }
 
+    /**
+     * Call when the indexer pushes an artifact into the launcher.
+     */
+    public void onArtifactFed() {
+        launcher.onArtifactFed();
+    }
+
     public void setAllianceColor(MatchStateStore.AllianceColor allianceColor) {
         if (allianceColor != null) {
             this.allianceColor = allianceColor;
@@ -176,6 +283,10 @@ public class FireControlSystem {
         if (!LiveMatchTuning.fcsUseDepotPoseFallbackWhenTagNotVisible || driveBase == null || targetDepotPose == null) {
             return;
         }
+        if (solveMovingShot(targetDepotPose.x(), targetDepotPose.y())) {
+            applyMovingShot(true);
+            return;
+        }
 
         Pose currentPose = driveBase.getPoseSimple();
         double deltaX = targetDepotPose.x() - currentPose.x();
@@ -189,11 +300,123 @@ public class FireControlSystem {
         if (turretAutoAimEnabled) {
             setTurretTargetClosestFacing(relativeBearingDeg);
         }
-        hood.setTargetPosition(LiveMatchTuning.fcsHoodBasePosition + LiveMatchTuning.fcsHoodPositionPerMeter * (Math.hypot(deltaX, deltaY)) / 39.37);
-        launcher.setTargetVelocity(Math.max(
-                LiveMatchTuning.fcsMinVelocity,
-                LiveMatchTuning.fcsBaseVelocity + LiveMatchTuning.fcsVelocityPerMeter * Math.hypot(deltaX, deltaY) / 39.37
-        ));
+        double distanceMeters = Math.hypot(deltaX, deltaY) / 39.37;
+        hood.setTargetPosition(ballisticModel.hoodPosition(distanceMeters));
+        launcher.setTargetVelocity(ballisticModel.launcherVelocity(distanceMeters));
+    }
+
+    /**
+     * Uses the calibrated shot table when there is one, and the linear fits otherwise.
+     */
+    private static BallisticModel loadBallisticModel() {
+        BallisticModel linear = new LinearBallisticModel();
+        if (!LiveMatchTuning.fcsUseShotTable) {
+            return linear;
+        }
+        try {
+            // Inside the try, since the data directory needs Android's storage API
+            File file = new File(AppUtil.ROBOT_DATA_DIR, ShotTable.DEFAULT_FILE_NAME);
+            return file.exists() ? ShotTable.load(file, linear) : linear;
+        } catch (Exception | LinkageError e) {
+            if (OpModeCore.getInstance() != null) {
+                OpModeCore.getTelemetry().warning("Shot table could not be loaded, using the linear fits: " + e.getMessage());
+            }
+            return linear;
+        }
+    }
+
+    /**
+     * Aims at a target seen at {@code relativeBearingDeg} on the turret's scale, {@code distanceMeters} away.
+     */
+    private boolean solveMovingShotFromBearing(double relativeBearingDeg, double distanceMeters) {
+        Follower follower = getMovingShotFollower();
+        if (follower == null) {
+            return false;
+        }
+        com.pedropathing.geometry.Pose pose = follower.getPose();
+        double fieldHeadingToTarget = Math.toRadians(Math.toDegrees(pose.getHeading()) - relativeBearingDeg);
+        double distanceIn = distanceMeters * 39.37;
+        return solveMovingShot(
+                pose.getX() + distanceIn * Math.cos(fieldHeadingToTarget),
+                pose.getY() + distanceIn * Math.sin(fieldHeadingToTarget)
+        );
+    }
+
+    private boolean solveMovingShot(double targetXIn, double targetYIn) {
+        Follower follower = getMovingShotFollower();
+        if (follower == null) {
+            return false;
+        }
+        com.pedropathing.geometry.Pose pose = follower.getPose();
+        movingShotActive = movingShotSolver.solve(
+                pose.getX(),
+                pose.getY(),
+                Math.toDegrees(pose.getHeading()),
+                follower.getVelocity().getXComponent(),
+                follower.getVelocity().getYComponent(),
+                Math.toDegrees(follower.getAngularVelocity()),
+                targetXIn,
+                targetYIn,
+                LiveMatchTuning.fcsTurretLeadSec,
+                ballisticModel
+        );
+        return movingShotActive;
+    }
+
+    private Follower getMovingShotFollower() {
+        if (!LiveMatchTuning.fcsShootOnTheMoveEnabled || driveBase == null) {
+            return null;
+        }
+        return driveBase.getFollower();
+    }
+
+    private void applyMovingShot(boolean setLauncher) {
+        if (turretAutoAimEnabled) {
+            setTurretTargetClosestFacing(movingShotSolver.getTurretAngleDeg());
+        }
+        hood.setTargetPosition(movingShotSolver.getHoodPosition());
+        if (setLauncher) {
+            launcher.setTargetVelocity(movingShotSolver.getLauncherVelocity());
+        }
+    }
+
+    /**
+     * @return whether the last aim was led for the robot's motion.
+     */
+    public boolean isMovingShotActive() {
+        return movingShotActive;
+    }
+
+    /**
+     * @return whether the turret and launcher are ready and the robot is slow enough for a moving shot to be trusted.
+     */
+    public boolean isReadyToFireOnTheMove() {
+        return movingShotActive
+                && movingShotSolver.getRobotSpeedInPerSec() <= LiveMatchTuning.fcsShootOnTheMoveMaxSpeedInPerSec
+                && isTurretAligned()
+                && isLauncherSpun();
+    }
+
+    /**
+     * @return how far the last tag aim was moved to make up for the turret and robot turning since the frame was
+     * captured, in degrees.
+     */
+    public double getAimLatencyCorrectionDeg() {
+        return aimLatencyCorrectionDeg;
+    }
+
+    public MovingShotSolver getMovingShotSolver() {
+        return movingShotSolver;
+    }
+
+    public void setBallisticModel(BallisticModel ballisticModel) {
+        if (ballisticModel != null) {
+            this.ballisticModel = ballisticModel;
+        }
+    }
+
+    public BallisticModel getBallisticModel() {
+        return ballisticModel;
     }
 
     private Pose getTargetDepotPose() {
@@ -210,11 +433,7 @@ public class FireControlSystem {
         SmartLimelight3A.AprilTag.Type expectedDepotType = allianceColor == MatchStateStore.AllianceColor.RED
                 ? SmartLimelight3A.AprilTag.Type.RED_DEPOT
                 : SmartLimelight3A.AprilTag.Type.BLUE_DEPOT;
-        return limelight.getAprilTags()
-                .stream()
-                .filter(tag -> tag.type() == expectedDepotType)
-                .findFirst()
-                .orElse(null);
+        return limelight.getAprilTag(expectedDepotType);
     }
 
     private void setTurretTargetClosestFacing(double nominalFacingAngleDeg) {
@@ -228,7 +447,11 @@ public class FireControlSystem {
         turret.setTargetPosition(nearestFacing);
     }
 
-    private static double selectClosestEquivalentAngle(
+    /**
+     * Picks the angle equivalent to {@code nominalAngleDeg} (differing by whole turns) that is closest to
+     * {@code currentAngleDeg} while staying within the given limits.
+     */
+    public static double selectClosestEquivalentAngle(
             double nominalAngleDeg,
             double currentAngleDeg,
             double minAngleDeg,
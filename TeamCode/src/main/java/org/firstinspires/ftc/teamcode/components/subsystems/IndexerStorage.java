@@ -59,23 +59,18 @@ public class IndexerStorage {
             return ScoringElementColor.NONE;
         }
 
-        if (getFrontClosestColorMatch().equals("ARTIFACT_PURPLE")) {
-            return ScoringElementColor.PURPLE;
-        } else {
-            return ScoringElementColor.GREEN;
-        }
+        return isFrontClosestToGreen() ? ScoringElementColor.GREEN : ScoringElementColor.PURPLE;
     }
 
     public String getFrontClosestColorMatch() {
+        return isFrontClosestToGreen() ? "ARTIFACT_GREEN" : "ARTIFACT_PURPLE";
+    }
+
+    private boolean isFrontClosestToGreen() {
         double frontHue = getFrontSensorHue();
         double greenDist = Math.abs(frontHue - LiveMatchTuning.greenHue);
         double purpleDist = Math.abs(frontHue - LiveMatchTuning.purpleHue);
-
-        if (greenDist < purpleDist) {
-            return "ARTIFACT_GREEN";
-        } else {
-            return "ARTIFACT_PURPLE";
-        }
+        return greenDist < purpleDist;
     }
 
     public String getFrontSensorColorName() {
@@ -84,15 +79,15 @@ public class IndexerStorage {
     }
 
     public float getFrontSensorHue() {
-        return frontColorSensor.getHSV()[0];
+        return frontColorSensor.getHue();
     }
 
     public float getFrontSensorSaturation() {
-        return frontColorSensor.getHSV()[1];
+        return frontColorSensor.getSaturation();
     }
 
     public float getFrontSensorValue() {
-        return frontColorSensor.getHSV()[2];
+        return frontColorSensor.getValue();
     }
 
     public boolean isFrontFresh() {
@@ -114,6 +109,10 @@ public class IndexerStorage {
     }
 
     public void updateIndexerContent() {
+        // a sample older than this could describe an artifact that has already moved past the sensor
+        if (frontColorSensor.isReadingStale(LiveMatchTuning.colorSensorMaxReadingAgeMs)) {
+            return;
+        }
         ScoringElementColor detectedColor = getFrontDetection();
         if (detectedColor == null) {
             detectedColor = ScoringElementColor.NONE;
@@ -0,0 +1,26 @@
+package org.firstinspires.ftc.teamcode.components.subsystems;
+
+import org.firstinspires.ftc.teamcode.utilities.LiveMatchTuning;
+
+/**
+ * The straight-line fits the fire control system has always used, read live from {@link LiveMatchTuning}.
+ */
+public class LinearBallisticModel implements BallisticModel {
+    @Override
+    public double launcherVelocity(double distanceMeters) {
+        return Math.min(Math.max(
+                LiveMatchTuning.fcsBaseVelocity + distanceMeters * LiveMatchTuning.fcsVelocityPerMeter,
+                LiveMatchTuning.fcsMinVelocity
+        ), LiveMatchTuning.fcsMaxVelocity);
+    }
+
+    @Override
+    public double hoodPosition(double distanceMeters) {
+        return LiveMatchTuning.fcsHoodBasePosition + LiveMatchTuning.fcsHoodPositionPerMeter * distanceMeters;
+    }
+
+    @Override
+    public double timeOfFlightSeconds(double distanceMeters) {
+        return LiveMatchTuning.fcsTimeOfFlightBaseSec + LiveMatchTuning.fcsTimeOfFlightPerMeterSec * distanceMeters;
+    }
+}
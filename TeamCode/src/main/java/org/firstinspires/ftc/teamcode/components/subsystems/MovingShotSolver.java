@@ -0,0 +1,129 @@
+package org.firstinspires.ftc.teamcode.components.subsystems;
+
+/**
+ * Aims a shot taken while the robot is driving.
+ * <p>
+ * An artifact leaves with the robot's velocity added to it, so it lands where the depot would be if the depot had moved
+ * by the opposite of that velocity for the time of flight. The solver aims at that virtual depot instead. The time of
+ * flight depends on the distance to the virtual depot, so the two are iterated until the time of flight settles, which
+ * takes two or three rounds at driving speeds.
+ * <p>
+ * The turret angle is also led by the rate it has to turn at, from the robot's rotation and the depot sweeping across
+ * its view, to make up for the turret lagging a moving target. Positions are in inches, headings and the turret angle
+ * in degrees, with the turret angle measured the same way as {@link FireControlSystem} does: robot heading minus the
+ * field heading to the target. Nothing is allocated, so it can run every tick.
+ */
+public class MovingShotSolver {
+    private static final double INCHES_PER_METER = 39.37;
+    private static final int MAX_ITERATIONS = 5;
+    private static final double CONVERGED_SEC = 1e-3;
+
+    private double turretAngleDeg;
+    private double turretRateDegPerSec;
+    private double hoodPosition;
+    private double launcherVelocity;
+    private double timeOfFlightSec;
+    private double aimDistanceMeters;
+    private double robotSpeedInPerSec;
+    private int iterations;
+    private boolean valid = false;
+
+    /**
+     * @param turretLeadSec how far ahead to lead the turret angle by its turn rate.
+     * @return whether a solution was found. It is not when the robot is on top of the target.
+     */
+    public boolean solve(
+            double robotXIn,
+            double robotYIn,
+            double robotHeadingDeg,
+            double velocityXInPerSec,
+            double velocityYInPerSec,
+            double angularVelocityDegPerSec,
+            double targetXIn,
+            double targetYIn,
+            double turretLeadSec,
+            BallisticModel model
+    ) {
+        robotSpeedInPerSec = Math.hypot(velocityXInPerSec, velocityYInPerSec);
+        double relativeXIn = targetXIn - robotXIn;
+        double relativeYIn = targetYIn - robotYIn;
+        double distanceIn = Math.hypot(relativeXIn, relativeYIn);
+        if (distanceIn < 1e-6) {
+            valid = false;
+            return false;
+        }
+
+        double tofSec = model.timeOfFlightSeconds(distanceIn / INCHES_PER_METER);
+        iterations = 0;
+        while (iterations < MAX_ITERATIONS) {
+            iterations++;
+            relativeXIn = targetXIn - velocityXInPerSec * tofSec - robotXIn;
+            relativeYIn = targetYIn - velocityYInPerSec * tofSec - robotYIn;
+            distanceIn = Math.hypot(relativeXIn, relativeYIn);
+            double nextTofSec = model.timeOfFlightSeconds(distanceIn / INCHES_PER_METER);
+            boolean converged = Math.abs(nextTofSec - tofSec) < CONVERGED_SEC;
+            tofSec = nextTofSec;
+            if (converged) {
+                break;
+            }
+        }
+        if (distanceIn < 1e-6) {
+            valid = false;
+            return false;
+        }
+
+        double distanceSquared = distanceIn * distanceIn;
+        // The virtual depot stays put in the field while the robot moves, so it sweeps across at this rate
+        double bearingRateDegPerSec = Math.toDegrees(
+                (relativeYIn * velocityXInPerSec - relativeXIn * velocityYInPerSec) / distanceSquared);
+        turretRateDegPerSec = angularVelocityDegPerSec - bearingRateDegPerSec;
+        turretAngleDeg = robotHeadingDeg - Math.toDegrees(Math.atan2(relativeYIn, relativeXIn))
+                + turretRateDegPerSec * turretLeadSec;
+
+        aimDistanceMeters = distanceIn / INCHES_PER_METER;
+        timeOfFlightSec = tofSec;
+        hoodPosition = model.hoodPosition(aimDistanceMeters);
+        launcherVelocity = model.launcherVelocity(aimDistanceMeters);
+        valid = true;
+        return true;
+    }
+
+    public boolean isValid() {
+        return valid;
+    }
+
+    public double getTurretAngleDeg() {
+        return turretAngleDeg;
+    }
+
+    public double getTurretRateDegPerSec() {
+        return turretRateDegPerSec;
+    }
+
+    public double getHoodPosition() {
+        return hoodPosition;
+    }
+
+    public double getLauncherVelocity() {
+        return launcherVelocity;
+    }
+
+    public double getTimeOfFlightSeconds() {
+        return timeOfFlightSec;
+    }
+
+    /**
+     * @return the distance to the virtual depot the shot is aimed at.
+     */
+    public double getAimDistanceMeters() {
+        return aimDistanceMeters;
+    }
+
+    public double getRobotSpeedInPerSec() {
+        return robotSpeedInPerSec;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+}
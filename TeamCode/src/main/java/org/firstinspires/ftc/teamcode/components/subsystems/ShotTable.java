@@ -0,0 +1,262 @@
+package org.firstinspires.ftc.teamcode.components.subsystems;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Launcher velocity, hood position and time of flight measured at a set of distances.
+ * <p>
+ * Between rows each value follows a monotone cubic (Fritsch-Carlson), which is smooth through the measured points but
+ * never overshoots between them, so a table that only rises with distance gives values that only rise too. Distances
+ * outside the table use the nearest row. Rows are kept in primitive arrays sorted by distance and found with a binary
+ * search, so a lookup does not allocate.
+ * <p>
+ * Tables are stored as CSV, one row per line: {@code distance_m,velocity,hood,time_of_flight_s}. The time of flight
+ * column can be left out, in which case the fallback model gives it.
+ */
+public final class ShotTable implements BallisticModel {
+    public static final String DEFAULT_FILE_NAME = "shot_table.csv";
+    private static final String HEADER = "distance_m,velocity,hood,time_of_flight_s";
+    private static final String HEADER_WITHOUT_TIME_OF_FLIGHT = "distance_m,velocity,hood";
+
+    private final double[] distances;
+    private final double[] velocities, hoods, timesOfFlight;
+    // Tangents at each row for the cubic, one array per column
+    private final double[] velocitySlopes, hoodSlopes, timeOfFlightSlopes;
+    private final BallisticModel fallback;
+
+    private ShotTable(double[] distances, double[] velocities, double[] hoods, double[] timesOfFlight,
+                      BallisticModel fallback) {
+        this.distances = distances;
+        this.velocities = velocities;
+        this.hoods = hoods;
+        this.timesOfFlight = timesOfFlight;
+        this.fallback = fallback;
+        this.velocitySlopes = monotoneSlopes(distances, velocities);
+        this.hoodSlopes = monotoneSlopes(distances, hoods);
+        this.timeOfFlightSlopes = timesOfFlight == null ? null : monotoneSlopes(distances, timesOfFlight);
+    }
+
+    @Override
+    public double launcherVelocity(double distanceMeters) {
+        return interpolate(velocities, velocitySlopes, distanceMeters);
+    }
+
+    @Override
+    public double hoodPosition(double distanceMeters) {
+        return interpolate(hoods, hoodSlopes, distanceMeters);
+    }
+
+    @Override
+    public double timeOfFlightSeconds(double distanceMeters) {
+        if (timesOfFlight == null) {
+            return fallback.timeOfFlightSeconds(distanceMeters);
+        }
+        return interpolate(timesOfFlight, timeOfFlightSlopes, distanceMeters);
+    }
+
+    public int size() {
+        return distances.length;
+    }
+
+    public double getMinDistanceMeters() {
+        return distances[0];
+    }
+
+    public double getMaxDistanceMeters() {
+        return distances[distances.length - 1];
+    }
+
+    private double interpolate(double[] values, double[] slopes, double distance) {
+        int last = distances.length - 1;
+        if (Double.isNaN(distance) || distance <= distances[0]) {
+            return values[0];
+        }
+        if (distance >= distances[last]) {
+            return values[last];
+        }
+
+        // Largest row whose distance is at or below the lookup distance
+        int low = 0, high = last;
+        while (high - low > 1) {
+            int mid = (low + high) >>> 1;
+            if (distances[mid] <= distance) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+
+        double h = distances[high] - distances[low];
+        double t = (distance - distances[low]) / h;
+        double t2 = t * t;
+        double t3 = t2 * t;
+        return (2 * t3 - 3 * t2 + 1) * values[low]
+                + (t3 - 2 * t2 + t) * h * slopes[low]
+                + (-2 * t3 + 3 * t2) * values[high]
+                + (t3 - t2) * h * slopes[high];
+    }
+
+    /**
+     * Fritsch-Carlson tangents: the average of the neighbouring secants, limited so the curve stays monotone wherever
+     * the data is, and flat at any local peak or dip.
+     */
+    private static double[] monotoneSlopes(double[] x, double[] y) {
+        int n = x.length;
+        double[] slopes = new double[n];
+        if (n < 2) {
+            return slopes;
+        }
+        double[] secants = new double[n - 1];
+        for (int i = 0; i < n - 1; i++) {
+            secants[i] = (y[i + 1] - y[i]) / (x[i + 1] - x[i]);
+        }
+        slopes[0] = secants[0];
+        slopes[n - 1] = secants[n - 2];
+        for (int i = 1; i < n - 1; i++) {
+            slopes[i] = secants[i - 1] * secants[i] <= 0 ? 0 : (secants[i - 1] + secants[i]) / 2;
+        }
+        for (int i = 0; i < n - 1; i++) {
+            if (secants[i] == 0) {
+                slopes[i] = 0;
+                slopes[i + 1] = 0;
+                continue;
+            }
+            double a = slopes[i] / secants[i];
+            double b = slopes[i + 1] / secants[i];
+            double sum = a * a + b * b;
+            if (sum > 9) {
+                double scale = 3 / Math.sqrt(sum);
+                slopes[i] = scale * a * secants[i];
+                slopes[i + 1] = scale * b * secants[i];
+            }
+        }
+        return slopes;
+    }
+
+    /**
+     * Reads a table from CSV. Blank lines, lines starting with {@code #} and a header line are skipped.
+     *
+     * @param fallback gives the time of flight when the file has no column for it.
+     * @throws IOException if the file cannot be read.
+     * @throws IllegalArgumentException if a row cannot be parsed or the table is empty.
+     */
+    public static ShotTable load(File file, BallisticModel fallback) throws IOException {
+        Builder builder = builder().fallback(fallback);
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")
+                        || line.equals(HEADER) || line.equals(HEADER_WITHOUT_TIME_OF_FLIGHT)) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                if (fields.length != 3 && fields.length != 4) {
+                    throw new IllegalArgumentException(file.getName() + ":" + lineNumber + " needs 3 or 4 columns");
+                }
+                try {
+                    double distance = Double.parseDouble(fields[0].trim());
+                    double velocity = Double.parseDouble(fields[1].trim());
+                    double hood = Double.parseDouble(fields[2].trim());
+                    double timeOfFlight = fields.length == 4 ? Double.parseDouble(fields[3].trim()) : Double.NaN;
+                    builder.row(distance, velocity, hood, timeOfFlight);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException(file.getName() + ":" + lineNumber + " is not a number", e);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Writes the table as CSV in the format {@link #load(File, BallisticModel)} reads. A table without a time of flight
+     * column is written without one, so the fallback model keeps giving it after the file is loaded again.
+     *
+     * @throws IOException if the file cannot be written.
+     */
+    public void write(File file) throws IOException {
+        try (PrintWriter writer = new PrintWriter(file)) {
+            writer.println(timesOfFlight != null ? HEADER : HEADER_WITHOUT_TIME_OF_FLIGHT);
+            for (int i = 0; i < distances.length; i++) {
+                if (timesOfFlight != null) {
+                    writer.printf(Locale.US, "%.3f,%.1f,%.4f,%.3f%n",
+                            distances[i], velocities[i], hoods[i], timesOfFlight[i]);
+                } else {
+                    writer.printf(Locale.US, "%.3f,%.1f,%.4f%n", distances[i], velocities[i], hoods[i]);
+                }
+            }
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private double[][] rows = new double[8][];
+        private int count = 0;
+        private BallisticModel fallback = new LinearBallisticModel();
+
+        /**
+         * @param timeOfFlightSec NaN to leave it to the fallback model. Either every row has one or none do.
+         */
+        public Builder row(double distanceMeters, double velocity, double hood, double timeOfFlightSec) {
+            if (Double.isNaN(distanceMeters) || Double.isNaN(velocity) || Double.isNaN(hood)) {
+                throw new IllegalArgumentException("distance, velocity and hood must be numbers");
+            }
+            if (count == rows.length) {
+                rows = Arrays.copyOf(rows, count * 2);
+            }
+            rows[count++] = new double[]{ distanceMeters, velocity, hood, timeOfFlightSec };
+            return this;
+        }
+
+        public Builder row(double distanceMeters, double velocity, double hood) {
+            return row(distanceMeters, velocity, hood, Double.NaN);
+        }
+
+        public Builder fallback(BallisticModel fallback) {
+            if (fallback != null) {
+                this.fallback = fallback;
+            }
+            return this;
+        }
+
+        public int size() {
+            return count;
+        }
+
+        public ShotTable build() {
+            if (count == 0) {
+                throw new IllegalArgumentException("a shot table needs at least one row");
+            }
+            double[][] sorted = Arrays.copyOf(rows, count);
+            Arrays.sort(sorted, (a, b) -> Double.compare(a[0], b[0]));
+
+            double[] distances = new double[count];
+            double[] velocities = new double[count], hoods = new double[count], timesOfFlight = new double[count];
+            boolean hasTimeOfFlight = !Double.isNaN(sorted[0][3]);
+            for (int i = 0; i < count; i++) {
+                if (i > 0 && sorted[i][0] == sorted[i - 1][0]) {
+                    throw new IllegalArgumentException("duplicate shot table distance " + sorted[i][0]);
+                }
+                if (Double.isNaN(sorted[i][3]) == hasTimeOfFlight) {
+                    throw new IllegalArgumentException("either every shot table row has a time of flight or none do");
+                }
+                distances[i] = sorted[i][0];
+                velocities[i] = sorted[i][1];
+                hoods[i] = sorted[i][2];
+                timesOfFlight[i] = sorted[i][3];
+            }
+            return new ShotTable(distances, velocities, hoods, hasTimeOfFlight ? timesOfFlight : null, fallback);
+        }
+    }
+}
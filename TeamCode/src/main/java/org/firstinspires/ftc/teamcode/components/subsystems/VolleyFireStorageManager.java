@@ -47,8 +47,22 @@ public class VolleyFireStorageManager {
     }
 
     public void tick(){
-        indexer.tick();
+        tickControl();
+        updateIndicators();
+    }
+
+    /**
+     * Shows the slot contents on the LEDs. Only needs to run a few times a second.
+     */
+    public void updateIndicators(){
         indexerStorage.tick();
+    }
+
+    /**
+     * Runs the indexer loop and the storage state machine, without touching the LEDs.
+     */
+    public void tickControl(){
+        indexer.tick();
 
         if(LiveMatchTuning.volleyJamCorrectingEnabled){
             checkForIndexerJam();
@@ -104,12 +118,15 @@ public class VolleyFireStorageManager {
                     state = State.FIRING;
                     lastFireIndex = indexer.getCurrentIndex();
                     indexer.advanceIndexCounterclockwiseWithPower(4, 1);
-                    fcs.setFiring(true);
+                    fcs.setFiring(true, 3 - indexerStorage.countOpen());
                 }
             } break;
 
             case FIRING:{
                 if(lastFireIndex != indexer.getCurrentIndex()){
+                    if (indexerStorage.getRightContent() != IndexerStorage.SlotContent.OPEN) {
+                        fcs.onArtifactFed();
+                    }
                     indexerStorage.setRightContent(IndexerStorage.SlotContent.OPEN);
                 }
 
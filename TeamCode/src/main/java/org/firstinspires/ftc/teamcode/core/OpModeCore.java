@@ -3,13 +3,22 @@ package org.firstinspires.ftc.teamcode.core;
 import com.bylazar.telemetry.PanelsTelemetry;
 import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
 import org.firstinspires.ftc.teamcode.hardware.Hardware;
+import org.firstinspires.ftc.teamcode.hardware.ReadProfiler;
+import org.firstinspires.ftc.teamcode.hardware.TickClock;
+import org.firstinspires.ftc.teamcode.utilities.LiveMatchTuning;
 import org.firstinspires.ftc.teamcode.utilities.PersistentStorage;
 import org.firstinspires.ftc.teamcode.utilities.PrettyTelemetry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
 
 /**
  * The most core features of any OpMode without any robot-specific code, usable on any control hub to start an opmode with all the custom components initialized properly.
  */
 public abstract class OpModeCore extends LinearOpMode {
+	private static final Logger log = LoggerFactory.getLogger(OpModeCore.class);
 	private static OpModeCore instance;
 	protected Hardware hardware;
 	protected PrettyTelemetry prettyTelem;
@@ -38,11 +47,28 @@ public abstract class OpModeCore extends LinearOpMode {
 	@Override
 	public void runOpMode(){
 		instance = this;
-		initialize();
-		waitForStart();
-		run();
-		while(opModeIsActive()){
-			tick();
+		try {
+			initialize();
+			waitForStart();
+			run();
+			while(opModeIsActive()){
+				tick();
+			}
+		} finally {
+			onStop();
+			dumpReadProfile();
+		}
+	}
+
+	private void dumpReadProfile(){
+		if(!ReadProfiler.isEnabled()){
+			return;
+		}
+		try {
+			File file = ReadProfiler.dump("read-profile-" + getClass().getSimpleName() + ".csv");
+			log.info("Hardware read profile written to {}", file);
+		} catch (IOException e) {
+			log.warn("Hardware read profile could not be written", e);
 		}
 	}
 
@@ -50,10 +76,14 @@ public abstract class OpModeCore extends LinearOpMode {
 	 * Performs one-time framework initialization and then invokes {@link #onInitialize()} for subclass setup.
 	 */
 	protected final void initialize(){
+		TickClock.sample();
 		this.hardware = new Hardware(hardwareMap);
 		PersistentStorage.init(hardwareMap);
 		this.prettyTelem = new PrettyTelemetry(telemetry, PanelsTelemetry.INSTANCE.getFtcTelemetry());
+		prettyTelem.addLine("Hardware Reads")
+				.addData("Slowest Devices", () -> ReadProfiler.formatTopDevices(LiveMatchTuning.hardwareProfilerTopN));
 		onInitialize();
+		hardware.flushOutputs();
 	}
 
 	/**
@@ -66,7 +96,9 @@ public abstract class OpModeCore extends LinearOpMode {
 	 * Runs the subclass start hook once after {@link #waitForStart()} completes.
 	 */
 	protected final void run(){
+		TickClock.sample();
 		onRun();
+		hardware.flushOutputs();
 	}
 
 	/**
@@ -78,13 +110,17 @@ public abstract class OpModeCore extends LinearOpMode {
 	/**
 	 * Runs one full tick in this order:
 	 * {@link #beforeTick()}, {@link #frameworkTick()}, then {@link #onTick()}.
+	 * The {@link TickClock} is sampled first, so everything in the tick shares one timestamp.
+	 * Motor powers and servo positions set during the tick are sent to the hardware once, after {@link #onTick()}.
 	 * <p>
 	 * If you want to invoke a tick, this is the standard method to call.
 	 */
 	public final void tick(){
+		TickClock.sample();
 		beforeTick();
 		frameworkTick();
 		onTick();
+		hardware.flushOutputs();
 	}
 
 	/**
@@ -109,4 +145,10 @@ public abstract class OpModeCore extends LinearOpMode {
 	 * If you want to run something every tick, this is the standard method to override.
 	 */
 	protected void onTick(){}
+
+	/**
+	 * Hook for subclass cleanup when the op mode ends, whether it was stopped normally or failed.
+	 * Runs once after the last tick, and also if initialization was interrupted.
+	 */
+	protected void onStop(){}
 }
@@ -0,0 +1,282 @@
+package org.firstinspires.ftc.teamcode.core;
+
+import org.firstinspires.ftc.teamcode.hardware.TickClock;
+import org.firstinspires.ftc.teamcode.utilities.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Runs registered work at its own rate within the op mode tick, so slow work does not land on every tick.
+ * <p>
+ * Every task has a rate, a priority and a time budget. {@link Priority#CRITICAL} and {@link Priority#NORMAL} tasks run
+ * whenever they are due, critical ones first, in the order they were registered. {@link Priority#BACKGROUND} tasks
+ * share a per-tick budget: the most overdue one always runs, and others only run in the same tick while the budget
+ * has room for their last run time. The rest wait for a later tick, which spreads them out.
+ * <p>
+ * Any run longer than its task's budget is counted as an overrun. Call {@link #run()} once per tick from
+ * {@link OpModeCore#onTick()}.
+ */
+public final class TickScheduler {
+    /**
+     * Pass as the rate to run a task on every tick.
+     */
+    public static final double EVERY_TICK = 0;
+
+    public enum Priority {
+        CRITICAL,
+        NORMAL,
+        BACKGROUND
+    }
+
+    public static final class Task {
+        private final String name;
+        private final Priority priority;
+        private final double periodSec;
+        private final double budgetMs;
+        private final Runnable work;
+        private double nextDueSec = Double.NaN;
+        private long lastRunTick = -1;
+
+        private long runs;
+        private long overruns;
+        private long deferrals;
+        private double lastMs;
+        private double maxMs;
+        private double totalMs;
+        private final LatencyHistogram runTimes = new LatencyHistogram();
+
+        private Task(String name, Priority priority, double rateHz, double budgetMs, Runnable work) {
+            this.name = name;
+            this.priority = priority;
+            this.periodSec = rateHz > 0 ? 1 / rateHz : 0;
+            this.budgetMs = budgetMs;
+            this.work = work;
+        }
+
+        private boolean isDue(double nowSec) {
+            if (lastRunTick == TickClock.getTickCount()) {
+                return false;
+            }
+            return periodSec == 0 || Double.isNaN(nextDueSec) || nowSec >= nextDueSec;
+        }
+
+        private double overdueSec(double nowSec) {
+            return Double.isNaN(nextDueSec) ? Double.POSITIVE_INFINITY : nowSec - nextDueSec;
+        }
+
+        private void execute(double nowSec) {
+            lastRunTick = TickClock.getTickCount();
+            long start = System.nanoTime();
+            try {
+                work.run();
+            } finally {
+                record((System.nanoTime() - start) / 1e6);
+                // Keep to the rate without drifting, but do not try to catch up on missed runs
+                nextDueSec = Double.isNaN(nextDueSec) || nowSec - nextDueSec >= periodSec
+                        ? nowSec + periodSec
+                        : nextDueSec + periodSec;
+            }
+        }
+
+        private void record(double durationMs) {
+            runs++;
+            lastMs = durationMs;
+            runTimes.record(durationMs);
+            totalMs += durationMs;
+            if (durationMs > maxMs) {
+                maxMs = durationMs;
+            }
+            if (budgetMs > 0 && durationMs > budgetMs) {
+                overruns++;
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Priority getPriority() {
+            return priority;
+        }
+
+        public long getRuns() {
+            return runs;
+        }
+
+        public long getOverruns() {
+            return overruns;
+        }
+
+        /**
+         * @return how many times a due background run was put off because the tick's budget was spent.
+         */
+        public long getDeferrals() {
+            return deferrals;
+        }
+
+        public double getLastMs() {
+            return lastMs;
+        }
+
+        public double getMaxMs() {
+            return maxMs;
+        }
+
+        public double getAverageMs() {
+            return runs == 0 ? 0 : totalMs / runs;
+        }
+
+        /**
+         * @return the time of every run since the stats were last reset, in milliseconds.
+         */
+        public LatencyHistogram getRunTimes() {
+            return runTimes;
+        }
+    }
+
+    private final List<Task> tasks = new ArrayList<>();
+    private double backgroundBudgetMs;
+
+    /**
+     * @param backgroundBudgetMs how long background tasks may take together in one tick.
+     */
+    public TickScheduler(double backgroundBudgetMs) {
+        this.backgroundBudgetMs = backgroundBudgetMs;
+    }
+
+    /**
+     * @param rateHz   how often to run, or {@link #EVERY_TICK}.
+     * @param budgetMs a run longer than this counts as an overrun; zero or less never overruns.
+     */
+    public Task register(String name, Priority priority, double rateHz, double budgetMs, Runnable work) {
+        Task task = new Task(name, priority, rateHz, budgetMs, work);
+        // Keep the list ordered by priority, and by registration within a priority
+        int index = tasks.size();
+        while (index > 0 && tasks.get(index - 1).priority.compareTo(priority) > 0) {
+            index--;
+        }
+        tasks.add(index, task);
+        return task;
+    }
+
+    public void clear() {
+        tasks.clear();
+    }
+
+    public void setBackgroundBudgetMs(double backgroundBudgetMs) {
+        this.backgroundBudgetMs = backgroundBudgetMs;
+    }
+
+    /**
+     * Runs every task that is due this tick.
+     */
+    public void run() {
+        double nowSec = TickClock.getTimestampSeconds();
+        int firstBackground = tasks.size();
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            if (task.priority == Priority.BACKGROUND) {
+                firstBackground = i;
+                break;
+            }
+            if (task.isDue(nowSec)) {
+                task.execute(nowSec);
+            }
+        }
+        runBackground(firstBackground, nowSec);
+    }
+
+    private void runBackground(int first, double nowSec) {
+        double spentMs = 0;
+        boolean ranAny = false;
+        while (true) {
+            Task next = null;
+            for (int i = first; i < tasks.size(); i++) {
+                Task task = tasks.get(i);
+                if (task.isDue(nowSec) && (next == null || task.overdueSec(nowSec) > next.overdueSec(nowSec))) {
+                    next = task;
+                }
+            }
+            if (next == null) {
+                return;
+            }
+            if (ranAny && spentMs + next.lastMs > backgroundBudgetMs) {
+                for (int i = first; i < tasks.size(); i++) {
+                    if (tasks.get(i).isDue(nowSec)) {
+                        tasks.get(i).deferrals++;
+                    }
+                }
+                return;
+            }
+            long start = System.nanoTime();
+            next.execute(nowSec);
+            spentMs += (System.nanoTime() - start) / 1e6;
+            ranAny = true;
+        }
+    }
+
+    public List<Task> getTasks() {
+        return Collections.unmodifiableList(tasks);
+    }
+
+    public void resetStats() {
+        for (Task task : tasks) {
+            task.runs = task.overruns = task.deferrals = 0;
+            task.lastMs = task.maxMs = task.totalMs = 0;
+            task.runTimes.reset();
+        }
+    }
+
+    /**
+     * @return the tasks with the most overruns, formatted for telemetry.
+     */
+    public String formatTopOverruns(int count) {
+        if (tasks.isEmpty()) {
+            return "No tasks registered";
+        }
+        List<Task> ranked = new ArrayList<>(tasks);
+        ranked.sort((a, b) -> a.overruns != b.overruns
+                ? Long.compare(b.overruns, a.overruns)
+                : Double.compare(b.maxMs, a.maxMs));
+        StringBuilder builder = new StringBuilder();
+        int shown = Math.min(Math.max(0, count), ranked.size());
+        for (int i = 0; i < shown; i++) {
+            Task task = ranked.get(i);
+            builder.append(String.format(Locale.US,
+                    "<br>&nbsp;&nbsp;%d. %s: %d/%d over %.2fms, last %.2fms, avg %.2fms, max %.2fms, deferred %d",
+                    i + 1,
+                    task.name,
+                    task.overruns,
+                    task.runs,
+                    task.budgetMs,
+                    task.lastMs,
+                    task.getAverageMs(),
+                    task.maxMs,
+                    task.deferrals));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @return the P50, P99 and P99.9 run time of every task since the stats were last reset, formatted for telemetry.
+     */
+    public String formatRunTimePercentiles() {
+        if (tasks.isEmpty()) {
+            return "No tasks registered";
+        }
+        StringBuilder builder = new StringBuilder();
+        for (Task task : tasks) {
+            builder.append(String.format(Locale.US,
+                    "<br>&nbsp;&nbsp;%s: P50 %.2fms, P99 %.2fms, P99.9 %.2fms (%d runs)",
+                    task.name,
+                    task.runTimes.getPercentile(50),
+                    task.runTimes.getPercentile(99),
+                    task.runTimes.getPercentile(99.9),
+                    task.runTimes.getCount()));
+        }
+        return builder.toString();
+    }
+}
@@ -15,6 +15,7 @@ import org.firstinspires.ftc.teamcode.hardware.SmartColorSensor;
 import org.firstinspires.ftc.teamcode.hardware.SmartLEDIndicator;
 import org.firstinspires.ftc.teamcode.hardware.SmartLimelight3A;
 import org.firstinspires.ftc.teamcode.utilities.Direction;
+import org.firstinspires.ftc.teamcode.utilities.LiveMatchTuning;
 import org.firstinspires.ftc.teamcode.utilities.MatchStateStore;
 import org.firstinspires.ftc.teamcode.utilities.Pose;
 
@@ -206,8 +207,8 @@ public abstract class AutoOpBase extends OpModeCore {
 
         try {
             feedWheels = new FeedWheels(
-                    hardwareMap.get(CRServo.class, "leftFeedServo"),
-                    hardwareMap.get(CRServo.class, "rightFeedServo")
+                    hardware.getRaw(CRServo.class, "leftFeedServo"),
+                    hardware.getRaw(CRServo.class, "rightFeedServo")
             );
             feedRamp = new FeedRamp(
                     hardware.getServo("leftFeedRampServo"),
@@ -222,11 +223,21 @@ public abstract class AutoOpBase extends OpModeCore {
         try {
             indexer = new Indexer(hardware.getMotor("indexerMotor", true));
             collector = new Collector(hardware.getMotor("collectorMotor"));
+            if (frontColorSensor != null) {
+                frontColorSensor.stopAsyncPolling();
+            }
             frontColorSensor = hardware.getColorSensor("frontColorSensor");
             if(frontColorSensor != null) {
                 if(!frontColorSensor.hasDistanceSensing()){
                     prettyTelem.error("Front color sensor must have distance sensing, but does not.");
                 }
+                if (LiveMatchTuning.colorSensorAsyncPolling) {
+                    hardware.removePrefetch(frontColorSensor.getDistanceCaching());
+                    frontColorSensor.startAsyncPolling(LiveMatchTuning.colorSensorPollRateHz);
+                } else if (frontColorSensor.hasDistanceSensing()) {
+                    // The distance gates collection, so it is read every loop even on ticks that do not look at it
+                    hardware.addPrefetch(frontColorSensor.getDistanceCaching());
+                }
             } {
                 prettyTelem.error("Color sensor failed to initialize.");
             }
@@ -386,6 +397,9 @@ public abstract class AutoOpBase extends OpModeCore {
                     status = StepStatus.FAILED;
                     stepError = error;
                     break;
+                } finally {
+                    // The step runs after tick() has flushed, so send what it staged in this same loop
+                    hardware.flushOutputs();
                 }
 
                 if (status != StepStatus.RUNNING) {
@@ -398,6 +412,7 @@ public abstract class AutoOpBase extends OpModeCore {
             } catch (Throwable error) {
                 prettyTelem.warning("Step stop threw: " + step.name() + ": " + error.getMessage());
             }
+            hardware.flushOutputs();
 
             activeStepStatus = status.name();
             if (status == StepStatus.COMPLETE) {
@@ -467,6 +482,13 @@ public abstract class AutoOpBase extends OpModeCore {
         onPlanFinished(lastPlanResult);
     }
 
+    @Override
+    protected void onStop() {
+        if (frontColorSensor != null) {
+            frontColorSensor.stopAsyncPolling();
+        }
+    }
+
     @Override
     protected void onTick() {
         runObeliskAcquisitionAssist();
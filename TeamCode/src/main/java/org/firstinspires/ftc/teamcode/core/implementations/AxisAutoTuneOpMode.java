@@ -0,0 +1,286 @@
+package org.firstinspires.ftc.teamcode.core.implementations;
+
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+import org.firstinspires.ftc.teamcode.components.AxisComponent;
+import org.firstinspires.ftc.teamcode.components.MotorPositionAxisComponent;
+import org.firstinspires.ftc.teamcode.components.MotorVelocityAxisComponent;
+import org.firstinspires.ftc.teamcode.components.mechanisms.Indexer;
+import org.firstinspires.ftc.teamcode.components.mechanisms.Launcher;
+import org.firstinspires.ftc.teamcode.components.mechanisms.Turret;
+import org.firstinspires.ftc.teamcode.core.SmartGamepad;
+import org.firstinspires.ftc.teamcode.core.TeleOpCore;
+import org.firstinspires.ftc.teamcode.hardware.TickClock;
+import org.firstinspires.ftc.teamcode.hardware.controllers.Gains;
+import org.firstinspires.ftc.teamcode.hardware.controllers.RelayAutoTuner;
+import org.firstinspires.ftc.teamcode.hardware.controllers.TuningRule;
+import org.firstinspires.ftc.teamcode.utilities.LiveMatchTuning;
+import org.firstinspires.ftc.teamcode.utilities.TunedGainsStore;
+
+import java.util.EnumMap;
+
+/**
+ * Tunes the PID gains of the turret, indexer or launcher with relay feedback.
+ * <p>
+ * Gamepad 1: dpad up/down picks the axis and dpad left/right picks the {@link TuningRule}. A runs the relay around the
+ * axis' current position, or around {@link #velocitySetpoint} for the launcher, then holds there. X tries the proposed
+ * gains with a step and reports the settle time and overshoot. Y saves the proposed gains so every op mode loads
+ * them at init, and B stops the axis and puts the gains back to what they were.
+ * <p>
+ * The relay drives the turret open loop, past the clamp its targets go through, so the relay is stopped as soon as the
+ * turret leaves {@link LiveMatchTuning#turretMinAngleDeg} to {@link LiveMatchTuning#turretMaxAngleDeg}.
+ */
+@TeleOp(name = "6 - Axis Auto Tuner")
+public class AxisAutoTuneOpMode extends TeleOpCore {
+    public static TunedGainsStore.Axis axis = TunedGainsStore.Axis.TURRET;
+    public static TuningRule rule = TuningRule.TYREUS_LUYBEN;
+    public static double relayAmplitude = 0.3;
+    public static double positionHysteresis = 0.5;
+    public static double velocityHysteresis = 20;
+    public static double velocitySetpoint = 3000;
+    public static int cyclesToMeasure = 4;
+    public static double relayTimeoutSec = 20;
+    public static double positionStep = 30;
+    public static double velocityStep = 500;
+    public static double stepTimeoutSec = 3;
+
+    private enum Phase { IDLE, RELAY, HOLD, STEP }
+
+    private Phase phase = Phase.IDLE;
+    private AxisComponent component;
+    private TunedGainsStore.Axis componentAxis;
+    // Built once per axis, since building one resets its encoder
+    private final EnumMap<TunedGainsStore.Axis, AxisComponent> components = new EnumMap<>(TunedGainsStore.Axis.class);
+    private String stopReason = "n/a";
+    private double[] originalGains;
+    private RelayAutoTuner tuner;
+    private double relaySetpoint;
+    private double relayDtSum;
+    private int relayTicks;
+    private Gains proposed;
+
+    private double stepStart, stepTarget, stepStartSec;
+    private double stepPeak;
+    private double stepSettleSec = Double.NaN;
+    private double stepOvershootPercent = Double.NaN;
+    private boolean saved = false;
+
+    @Override
+    protected void onInitialize() {
+        super.onInitialize();
+        components.clear();
+        component = null;
+        componentAxis = null;
+        phase = Phase.IDLE;
+        prettyTelem.addLine("Auto Tuner")
+                .addData("Axis", () -> axis)
+                .addData("Rule", () -> rule)
+                .addData("Phase", () -> phase)
+                .addData("Cycles", () -> tuner == null ? 0 : tuner.getCyclesCompleted())
+                .addData("Result", () -> tuner == null ? "n/a" : tuner.getState())
+                .addData("Stopped", () -> stopReason)
+                .addData("Ku", () -> tuner == null ? "n/a" : tuner.getUltimateGain())
+                .addData("Tu (s)", () -> tuner == null ? "n/a" : tuner.getUltimatePeriodSeconds());
+        prettyTelem.addLine("Proposed Gains")
+                .addData("kP", () -> proposed == null ? "n/a" : proposed.kP)
+                .addData("kI", () -> proposed == null ? "n/a" : proposed.kI)
+                .addData("kD", () -> proposed == null ? "n/a" : proposed.kD)
+                .addData("Saved", () -> saved);
+        prettyTelem.addLine("Step Test")
+                .addData("Settle Time (s)", () -> stepSettleSec)
+                .addData("Overshoot (%)", () -> stepOvershootPercent);
+    }
+
+    @Override
+    protected void checkGamepads(SmartGamepad gamepad1, SmartGamepad gamepad2) {
+        if (phase == Phase.IDLE) {
+            if (gamepad1.dpadUpPressed()) {
+                axis = cycle(TunedGainsStore.Axis.values(), axis, 1);
+                proposed = null;
+            } else if (gamepad1.dpadDownPressed()) {
+                axis = cycle(TunedGainsStore.Axis.values(), axis, -1);
+                proposed = null;
+            }
+        }
+        // Only a proposal that is still standing follows the rule, so a run that was stopped or left stays dropped
+        if (gamepad1.dpadRightPressed()) {
+            rule = cycle(TuningRule.values(), rule, 1);
+            if (proposed != null) {
+                proposeGains();
+            }
+        } else if (gamepad1.dpadLeftPressed()) {
+            rule = cycle(TuningRule.values(), rule, -1);
+            if (proposed != null) {
+                proposeGains();
+            }
+        }
+
+        if (gamepad1.aPressed() && phase != Phase.RELAY) {
+            startRelay();
+        }
+        if (gamepad1.xPressed() && proposed != null && phase == Phase.HOLD) {
+            startStep();
+        }
+        if (gamepad1.yPressed() && proposed != null) {
+            saved = TunedGainsStore.save(componentAxis, proposed.kP, proposed.kI, proposed.kD, proposed.kF, rule.name());
+        }
+        if (gamepad1.bPressed()) {
+            abort();
+        }
+    }
+
+    @Override
+    protected void onTick() {
+        if (component == null) {
+            return;
+        }
+        switch (phase) {
+            case RELAY:
+                if (isOutsideSoftLimits()) {
+                    tuner.fail();
+                    abort();
+                    stopReason = "Left the turret's soft limits";
+                    break;
+                }
+                double power = tuner.update(component.getCurrentValue(), TickClock.getTimestampSeconds());
+                relayDtSum += TickClock.getDtSeconds();
+                relayTicks++;
+                if (tuner.getState() == RelayAutoTuner.State.RUNNING) {
+                    setOpenLoopPower(power);
+                } else {
+                    proposeGains();
+                    setTarget(relaySetpoint);
+                    phase = Phase.HOLD;
+                    component.tick();
+                }
+                break;
+            case STEP:
+                component.tick();
+                trackStep();
+                break;
+            case HOLD:
+                component.tick();
+                break;
+            case IDLE:
+                break;
+        }
+    }
+
+    private void startRelay() {
+        ensureComponent();
+        boolean velocityAxis = component instanceof MotorVelocityAxisComponent;
+        relaySetpoint = velocityAxis ? velocitySetpoint : component.getCurrentValue();
+        double bias = velocityAxis ? originalGains[3] * velocitySetpoint : 0;
+        tuner = new RelayAutoTuner(relayAmplitude, velocityAxis ? velocityHysteresis : positionHysteresis, bias,
+                cyclesToMeasure, relayTimeoutSec);
+        tuner.start(relaySetpoint, TickClock.getTimestampSeconds());
+        relayDtSum = 0;
+        relayTicks = 0;
+        proposed = null;
+        saved = false;
+        stopReason = "n/a";
+        phase = Phase.RELAY;
+    }
+
+    private boolean isOutsideSoftLimits() {
+        if (!(component instanceof Turret)) {
+            return false;
+        }
+        double position = component.getCurrentValue();
+        return position < LiveMatchTuning.turretMinAngleDeg || position > LiveMatchTuning.turretMaxAngleDeg;
+    }
+
+    private void proposeGains() {
+        if (tuner == null || relayTicks == 0) {
+            return;
+        }
+        proposed = tuner.proposeGains(rule, originalGains[3], relayDtSum / relayTicks);
+    }
+
+    private void startStep() {
+        TunedGainsStore.setLiveGains(componentAxis, proposed.kP, proposed.kI, proposed.kD, proposed.kF);
+        stepStart = component.getCurrentValue();
+        stepTarget = relaySetpoint + (component instanceof MotorVelocityAxisComponent ? velocityStep : positionStep);
+        stepPeak = stepStart;
+        stepStartSec = TickClock.getTimestampSeconds();
+        stepSettleSec = Double.NaN;
+        stepOvershootPercent = Double.NaN;
+        setTarget(stepTarget);
+        phase = Phase.STEP;
+    }
+
+    private void trackStep() {
+        double direction = Math.signum(stepTarget - stepStart);
+        double current = component.getCurrentValue();
+        if ((current - stepPeak) * direction > 0) {
+            stepPeak = current;
+        }
+        double elapsedSec = TickClock.getTimestampSeconds() - stepStartSec;
+        if (!component.isSettling() || elapsedSec >= stepTimeoutSec) {
+            stepSettleSec = component.isSettling() ? Double.POSITIVE_INFINITY : component.getLastSettleTimeSeconds();
+            double stepSize = Math.abs(stepTarget - stepStart);
+            stepOvershootPercent = stepSize > 0 ? Math.max(0, (stepPeak - stepTarget) * direction) / stepSize * 100 : 0;
+            phase = Phase.HOLD;
+        }
+    }
+
+    private void abort() {
+        if (component != null) {
+            component.stop();
+            TunedGainsStore.setLiveGains(componentAxis, originalGains[0], originalGains[1], originalGains[2], originalGains[3]);
+        }
+        proposed = null;
+        phase = Phase.IDLE;
+    }
+
+    private void ensureComponent() {
+        if (component != null && componentAxis == axis) {
+            return;
+        }
+        abort();
+        component = components.get(axis);
+        if (component == null) {
+            switch (axis) {
+                case TURRET:
+                    component = new Turret(hardware.getMotor("turretMotor"), hardware.getMotor("turretMotor").getEncoder());
+                    break;
+                case INDEXER:
+                    component = new Indexer(hardware.getMotor("indexerMotor", true));
+                    break;
+                case LAUNCHER:
+                    component = new Launcher(hardware, hardware.getMotor("launcherMotor"));
+                    break;
+            }
+            components.put(axis, component);
+        }
+        componentAxis = axis;
+        // Read after construction, so gains saved by an earlier run are what B goes back to. Leaving an axis puts
+        // its gains back, so an axis built earlier reads the same gains again.
+        originalGains = TunedGainsStore.getLiveGains(axis);
+    }
+
+    private void setTarget(double target) {
+        if (component instanceof MotorPositionAxisComponent) {
+            ((MotorPositionAxisComponent) component).setTargetPosition(target);
+        } else if (component instanceof MotorVelocityAxisComponent) {
+            ((MotorVelocityAxisComponent) component).setTargetVelocity(target);
+        }
+    }
+
+    private void setOpenLoopPower(double power) {
+        double clamped = Math.max(-1, Math.min(1, power));
+        if (component instanceof MotorPositionAxisComponent) {
+            ((MotorPositionAxisComponent) component).setOpenLoopPower(clamped);
+        } else if (component instanceof MotorVelocityAxisComponent) {
+            ((MotorVelocityAxisComponent) component).setOpenLoopPower(clamped);
+        }
+    }
+
+    private static <T> T cycle(T[] values, T current, int step) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == current) {
+                return values[Math.floorMod(i + step, values.length)];
+            }
+        }
+        return values[0];
+    }
+}
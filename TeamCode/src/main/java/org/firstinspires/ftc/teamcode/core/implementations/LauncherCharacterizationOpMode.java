@@ -0,0 +1,124 @@
+package org.firstinspires.ftc.teamcode.core.implementations;
+
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import org.firstinspires.ftc.teamcode.components.mechanisms.Launcher;
+import org.firstinspires.ftc.teamcode.core.OpModeCore;
+import org.firstinspires.ftc.teamcode.hardware.SmartMotor;
+import org.firstinspires.ftc.teamcode.hardware.TickClock;
+import org.firstinspires.ftc.teamcode.hardware.controllers.FeedforwardCharacterizer;
+import org.firstinspires.ftc.teamcode.hardware.controllers.MotorFeedforward;
+import org.firstinspires.ftc.teamcode.utilities.LiveMatchTuning;
+
+/**
+ * Fits the launcher's kS, kV and kA and saves them for {@link Launcher} to load.
+ * <p>
+ * Press play with the launcher clear. The motor gets a slow voltage ramp, coasts down, then gets a voltage step,
+ * and the fit is saved once the step ends. Velocities are in degrees per second, like {@link Launcher#getVelocity()}.
+ */
+@TeleOp(name = "5 - Launcher Characterization")
+public class LauncherCharacterizationOpMode extends OpModeCore {
+    public static double rampVoltsPerSec = 0.5;
+    public static double maxRampVolts = 10;
+    public static double coastSec = 5;
+    public static double stepVolts = 8;
+    public static double stepSec = 2;
+    // Samples slower than this are dominated by static friction and left out of the fit
+    public static double minVelocity = 30;
+
+    private enum Phase { RAMP, COAST, STEP, DONE }
+
+    private final FeedforwardCharacterizer characterizer = new FeedforwardCharacterizer();
+    private SmartMotor motor;
+    private Phase phase = Phase.RAMP;
+    private double phaseStartSec;
+    private double appliedVolts = 0;
+    private double lastVelocity = Double.NaN;
+    private double velocity;
+    private double batteryVoltage;
+    private boolean saved = false;
+
+    @Override
+    protected void onInitialize() {
+        motor = hardware.getMotor("launcherMotor");
+        motor.setZeroPowerBehavior(DcMotor.ZeroPowerBehavior.FLOAT);
+
+        prettyTelem.addLine("Launcher Characterization")
+                .addData("Phase", () -> phase)
+                .addData("Applied Volts", () -> appliedVolts)
+                .addData("Battery Volts", () -> batteryVoltage)
+                .addData("Velocity", () -> velocity)
+                .addData("Samples", characterizer::getSampleCount);
+        prettyTelem.addLine("Fit")
+                .addData("kS", () -> characterizer.isFitValid() ? characterizer.getKs() : "n/a")
+                .addData("kV", () -> characterizer.isFitValid() ? characterizer.getKv() : "n/a")
+                .addData("kA", () -> characterizer.isFitValid() ? characterizer.getKa() : "n/a")
+                .addData("R Squared", () -> characterizer.isFitValid() ? characterizer.getRSquared() : "n/a")
+                .addData("Saved", () -> saved);
+    }
+
+    @Override
+    protected void onRun() {
+        startPhase(Phase.RAMP);
+    }
+
+    @Override
+    protected void onTick() {
+        batteryVoltage = hardware.getBatteryVoltage();
+        velocity = motor.getVelocity() / LiveMatchTuning.launcherTicksPerDegree;
+        double dt = TickClock.getDtSeconds();
+
+        // The voltage set last tick is the one that drove the motor up to this reading
+        if (phase != Phase.COAST && phase != Phase.DONE && !Double.isNaN(lastVelocity) && dt > 0
+                && Math.abs(velocity) >= minVelocity) {
+            characterizer.addSample(appliedVolts, velocity, (velocity - lastVelocity) / dt);
+        }
+        lastVelocity = velocity;
+
+        double phaseSec = TickClock.getTimestampSeconds() - phaseStartSec;
+        switch (phase) {
+            case RAMP:
+                appliedVolts = rampVoltsPerSec * phaseSec;
+                if (appliedVolts >= maxRampVolts) {
+                    startPhase(Phase.COAST);
+                }
+                break;
+            case COAST:
+                if (phaseSec >= coastSec) {
+                    startPhase(Phase.STEP);
+                }
+                break;
+            case STEP:
+                if (phaseSec >= stepSec) {
+                    startPhase(Phase.DONE);
+                    finish();
+                }
+                break;
+            case DONE:
+                break;
+        }
+        setVolts(appliedVolts);
+    }
+
+    private void startPhase(Phase next) {
+        phase = next;
+        phaseStartSec = TickClock.getTimestampSeconds();
+        appliedVolts = next == Phase.STEP ? stepVolts : 0;
+    }
+
+    private void finish() {
+        if (characterizer.fit()) {
+            saved = Launcher.savePersistedFeedforward(characterizer.getKs(), characterizer.getKv(), characterizer.getKa());
+        }
+        if (saved) {
+            prettyTelem.info("Launcher feedforward saved.");
+        } else {
+            prettyTelem.info("Launcher feedforward could not be fitted, nothing was saved.");
+        }
+    }
+
+    private void setVolts(double volts) {
+        double voltage = batteryVoltage > 1 ? batteryVoltage : MotorFeedforward.NOMINAL_VOLTAGE;
+        motor.setPower(Math.max(-1, Math.min(1, volts / voltage)));
+    }
+}
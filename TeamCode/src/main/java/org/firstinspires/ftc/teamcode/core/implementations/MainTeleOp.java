@@ -12,6 +12,7 @@ import org.firstinspires.ftc.teamcode.components.subsystems.VolleyFireStorageMan
 import org.firstinspires.ftc.teamcode.components.mechanisms.*;
 import org.firstinspires.ftc.teamcode.core.SmartGamepad;
 import org.firstinspires.ftc.teamcode.core.TeleOpCore;
+import org.firstinspires.ftc.teamcode.core.TickScheduler;
 import org.firstinspires.ftc.teamcode.core.teleoptasks.CancelReason;
 import org.firstinspires.ftc.teamcode.core.teleoptasks.TeleOpTaskContext;
 import org.firstinspires.ftc.teamcode.core.teleoptasks.TeleOpTaskManager;
@@ -23,8 +24,10 @@ import org.firstinspires.ftc.teamcode.hardware.SmartLEDIndicator;
 import org.firstinspires.ftc.teamcode.hardware.SmartLimelight3A;
 import org.firstinspires.ftc.teamcode.hardware.filters.RollingAverage;
 import org.firstinspires.ftc.teamcode.utilities.Direction;
+import org.firstinspires.ftc.teamcode.utilities.LatencyHistogram;
 import org.firstinspires.ftc.teamcode.utilities.LiveMatchTuning;
 import org.firstinspires.ftc.teamcode.utilities.MatchStateStore;
+import org.firstinspires.ftc.teamcode.utilities.PersistentStorage;
 import org.firstinspires.ftc.teamcode.utilities.RollingPercentileWindow;
 
 @TeleOp(name = "1 - Main TeleOp")
@@ -48,11 +51,21 @@ public class MainTeleOp extends TeleOpCore {
     protected ElapsedTime tickTimer = new ElapsedTime();
     protected RollingAverage tickTimeAverage = new RollingAverage(10);
     protected RollingPercentileWindow tickTimePercentiles = new RollingPercentileWindow(200);
+    protected LatencyHistogram matchTickTimeHistogram = new LatencyHistogram();
+    protected LatencyHistogram matchLimelightLatencyHistogram = new LatencyHistogram();
+    private long lastRecordedLimelightFrameNanos = 0;
     protected double lastTickTimeMs = 0;
     protected double maxObservedTickTimeMs = 0;
     protected double tickTimeP50Ms = 0;
     protected double tickTimeP95Ms = 0;
     protected double tickTimeP99Ms = 0;
+    private static final double[] TICK_TIME_PERCENTILES = {50, 95, 99};
+    private static final String MATCH_TICK_TIME_HISTOGRAM_KEY = "match_tick_time_histogram_v1";
+    private static final String MATCH_LIMELIGHT_LATENCY_HISTOGRAM_KEY = "match_limelight_latency_histogram_v1";
+    // Followed by the scheduler task name
+    private static final String MATCH_TASK_TIME_HISTOGRAM_KEY_PREFIX = "match_task_time_histogram_v1_";
+    private final double[] tickTimePercentileResults = new double[TICK_TIME_PERCENTILES.length];
+    private final TickScheduler scheduler = new TickScheduler(LiveMatchTuning.schedulerBackgroundBudgetMs);
 
 
     private static final SmartLEDIndicator.IndicatorColor TURRET_ZERO_TRIM_LED_COLOR = SmartLEDIndicator.IndicatorColor.INDIGO;
@@ -102,6 +115,9 @@ public class MainTeleOp extends TeleOpCore {
             frontCameraSensor.close();
         }
         frontCameraSensor = null;
+        if (frontColorSensor != null) {
+            frontColorSensor.stopAsyncPolling();
+        }
         frontColorSensor = null;
         hood = null;
         fcs = null;
@@ -125,6 +141,9 @@ public class MainTeleOp extends TeleOpCore {
         runFCS = true;
         tickTimeAverage = new RollingAverage(10);
         tickTimePercentiles = new RollingPercentileWindow(Math.max(1, tickTimePercentileWindow));
+        matchTickTimeHistogram.reset();
+        matchLimelightLatencyHistogram.reset();
+        lastRecordedLimelightFrameNanos = 0;
         lastTickTimeMs = 0;
         maxObservedTickTimeMs = 0;
         tickTimeP50Ms = 0;
@@ -133,6 +152,7 @@ public class MainTeleOp extends TeleOpCore {
         manualAimMode = false;
         manualAimTargetDeg = 0;
         LiveMatchTuning.runTeleOpFcs = true;
+        registerScheduledTasks();
 
         DriveBaseMotorConfig.DriveBaseMotorConfigBuilder configBuilder = new DriveBaseMotorConfig.DriveBaseMotorConfigBuilder();
         configBuilder.leftFront("LFront", Direction.FORWARD);
@@ -144,8 +164,8 @@ public class MainTeleOp extends TeleOpCore {
 
         try {
             feedWheels = new FeedWheels(
-                    hardwareMap.get(CRServo.class, "leftFeedServo"),
-                    hardwareMap.get(CRServo.class, "rightFeedServo")
+                    hardware.getRaw(CRServo.class, "leftFeedServo"),
+                    hardware.getRaw(CRServo.class, "rightFeedServo")
             );
             feedRamp = new FeedRamp(
                     hardware.getServo("leftFeedRampServo"),
@@ -208,6 +228,13 @@ public class MainTeleOp extends TeleOpCore {
             if (!frontColorSensor.hasDistanceSensing()) {
                 throw new IllegalStateException("Front color sensor must support distance sensing");
             }
+            if (LiveMatchTuning.colorSensorAsyncPolling) {
+                hardware.removePrefetch(frontColorSensor.getDistanceCaching());
+                frontColorSensor.startAsyncPolling(LiveMatchTuning.colorSensorPollRateHz);
+            } else if (frontColorSensor.hasDistanceSensing()) {
+                // The distance gates collection, so it is read every loop even on ticks that do not look at it
+                hardware.addPrefetch(frontColorSensor.getDistanceCaching());
+            }
             indexerStorage = new IndexerStorage(
                     indexer,
                     frontColorSensor,
@@ -391,13 +418,46 @@ public class MainTeleOp extends TeleOpCore {
 
     @Override
     protected void onTick(){
-        if(volleyStorageManager != null){
-            volleyStorageManager.tick();
-        }
+        scheduler.run();
+        recordLimelightLatencySample();
+        recordTickTimeSample();
+    }
 
+    /**
+     * The control loops run every tick, in the order they always have. The LEDs and match state save only need a few
+     * updates a second, so they run in the background and take turns when a tick is already long.
+     */
+    private void registerScheduledTasks() {
+        double controlBudgetMs = LiveMatchTuning.schedulerControlBudgetMs;
+        double indicatorRateHz = LiveMatchTuning.schedulerIndicatorRateHz;
+        scheduler.clear();
+        scheduler.setBackgroundBudgetMs(LiveMatchTuning.schedulerBackgroundBudgetMs);
+        scheduler.register("storage", TickScheduler.Priority.CRITICAL, TickScheduler.EVERY_TICK, controlBudgetMs, () -> {
+            if(volleyStorageManager != null){
+                volleyStorageManager.tickControl();
+            }
+        });
+        scheduler.register("fcs", TickScheduler.Priority.CRITICAL, TickScheduler.EVERY_TICK, controlBudgetMs, this::tickFcs);
+        scheduler.register("drive", TickScheduler.Priority.CRITICAL, TickScheduler.EVERY_TICK, controlBudgetMs, this::tickDrive);
+        scheduler.register("fcs-indicators", TickScheduler.Priority.BACKGROUND, indicatorRateHz, 1, () -> {
+            if(fcs != null && LiveMatchTuning.runTeleOpFcs){
+                fcs.updateIndicators();
+            }
+        });
+        scheduler.register("storage-indicators", TickScheduler.Priority.BACKGROUND, indicatorRateHz, 1, () -> {
+            if(volleyStorageManager != null){
+                volleyStorageManager.updateIndicators();
+            }
+        });
+        double matchStateRateHz = 1000.0 / Math.max(100L, (long) LiveMatchTuning.teleOpMatchStateSaveIntervalMs);
+        scheduler.register("match-state", TickScheduler.Priority.BACKGROUND, matchStateRateHz, controlBudgetMs,
+                () -> persistMatchStateIfDue(false));
+    }
+
+    private void tickFcs() {
         if(fcs != null && LiveMatchTuning.runTeleOpFcs){
             try {
-                fcs.tick();
+                fcs.tickControl();
             } catch (Exception e) {
                 LiveMatchTuning.runTeleOpFcs = false;
                 String message = e.getMessage();
@@ -406,7 +466,9 @@ public class MainTeleOp extends TeleOpCore {
                         (message != null ? ": " + message : ""));
             }
         }
+    }
 
+    private void tickDrive() {
         if(driveBase != null && driveBase.getFollower() != null){
             if (teleOpTaskManager != null) {
                 teleOpTaskManager.update();
@@ -419,9 +481,21 @@ public class MainTeleOp extends TeleOpCore {
                 driveBase.getFollower().updatePose();
             }
         }
+    }
 
-        persistMatchStateIfDue(false);
-        recordTickTimeSample();
+    @Override
+    protected void onStop(){
+        if (frontColorSensor != null) {
+            frontColorSensor.stopAsyncPolling();
+        }
+        if (PersistentStorage.isInitialized()) {
+            PersistentStorage.saveString(MATCH_TICK_TIME_HISTOGRAM_KEY, matchTickTimeHistogram.serialize());
+            PersistentStorage.saveString(MATCH_LIMELIGHT_LATENCY_HISTOGRAM_KEY, matchLimelightLatencyHistogram.serialize());
+            for (TickScheduler.Task task : scheduler.getTasks()) {
+                PersistentStorage.saveString(MATCH_TASK_TIME_HISTOGRAM_KEY_PREFIX + task.getName(),
+                        task.getRunTimes().serialize());
+            }
+        }
     }
 
     private void recordTickTimeSample() {
@@ -429,7 +503,8 @@ public class MainTeleOp extends TeleOpCore {
         lastTickTimeMs = tickTimeMs;
         tickTimeAverage.compute(tickTimeMs);
         tickTimePercentiles.add(tickTimeMs);
-        double[] percentiles = tickTimePercentiles.getPercentiles(50, 95, 99);
+        matchTickTimeHistogram.record(tickTimeMs);
+        double[] percentiles = tickTimePercentiles.getPercentiles(TICK_TIME_PERCENTILES, tickTimePercentileResults);
         tickTimeP50Ms = percentiles[0];
         tickTimeP95Ms = percentiles[1];
         tickTimeP99Ms = percentiles[2];
@@ -438,6 +513,24 @@ public class MainTeleOp extends TeleOpCore {
         }
     }
 
+    /**
+     * Records the latency of each new Limelight frame once, however many ticks it stays the latest.
+     */
+    private void recordLimelightLatencySample() {
+        if (limelight == null) {
+            return;
+        }
+        long frameNanos = limelight.getFrameTimestampNanos();
+        if (frameNanos == 0 || frameNanos == lastRecordedLimelightFrameNanos) {
+            return;
+        }
+        lastRecordedLimelightFrameNanos = frameNanos;
+        double latencyMs = limelight.getFrameLatencyMs();
+        if (!Double.isNaN(latencyMs)) {
+            matchLimelightLatencyHistogram.record(latencyMs);
+        }
+    }
+
     private void applyPersistedPoseIfAvailable() {
         if (startupSnapshot == null || driveBase == null || driveBase.getFollower() == null) {
             return;
@@ -493,7 +586,23 @@ public class MainTeleOp extends TeleOpCore {
                 .addData("P95 (ms)", () -> tickTimeP95Ms)
                 .addData("P99 (ms)", () -> tickTimeP99Ms)
                 .addData("Max Tick (ms)", () -> maxObservedTickTimeMs)
-                .addData("Samples", tickTimePercentiles::size);
+                .addData("Samples", tickTimePercentiles::size)
+                .addData("Match P50 (ms)", () -> matchTickTimeHistogram.getPercentile(50))
+                .addData("Match P99 (ms)", () -> matchTickTimeHistogram.getPercentile(99))
+                .addData("Match P99.9 (ms)", () -> matchTickTimeHistogram.getPercentile(99.9))
+                .addData("Match Samples", () -> matchTickTimeHistogram.getCount())
+                .addData("Writes Sent", () -> hardware.getOutputStage().getLastFlushSent())
+                .addData("Writes Suppressed", () -> hardware.getOutputStage().getLastFlushSuppressed());
+
+        prettyTelem.addLine("Limelight Latency")
+                .addData("Match P50 (ms)", () -> matchLimelightLatencyHistogram.getPercentile(50))
+                .addData("Match P99 (ms)", () -> matchLimelightLatencyHistogram.getPercentile(99))
+                .addData("Match P99.9 (ms)", () -> matchLimelightLatencyHistogram.getPercentile(99.9))
+                .addData("Match Frames", () -> matchLimelightLatencyHistogram.getCount());
+
+        prettyTelem.addLine("Scheduler")
+                .addData("Overruns", () -> scheduler.formatTopOverruns(LiveMatchTuning.hardwareProfilerTopN))
+                .addData("Match Tick Cost", scheduler::formatRunTimePercentiles);
 
         prettyTelem.addLine("Match")
                 .addData("Alliance", () -> allianceColor.name())
@@ -511,19 +620,31 @@ public class MainTeleOp extends TeleOpCore {
                 .addData("Is Busy", () -> indexer != null && indexer.isBusy())
                 .addData("Current Index", () -> indexer == null ? "n/a" : indexer.getCurrentIndex())
                 .addData("Target Index", () -> indexer == null ? "n/a" : indexer.getTargetIndex())
-                .addData("Velocity", () -> indexer == null ? "n/a" : indexer.getVelocity());
+                .addData("Velocity", () -> indexer == null ? "n/a" : indexer.getVelocity())
+                .addData("Last Step Time (s)", () -> indexer == null ? "n/a" : indexer.getLastSettleTimeSeconds());
         prettyTelem.addLine("Launcher")
                 .addData("Current Velocity", () -> launcher == null ? "n/a" : launcher.getVelocity())
                 .addData("Target Velocity", () -> launcher == null ? "n/a" : launcher.getTargetVelocity())
                 .addData("Power", () -> launcher == null ? "n/a" : launcher.getPower())
-                .addData("PID Result", () -> launcher == null ? "n/a" : launcher.getPidResult());
+                .addData("PID Result", () -> launcher == null ? "n/a" : launcher.getPidResult())
+                .addData("Feedforward", () -> LiveMatchTuning.launcherFeedforwardEnabled ? "ON" : "OFF")
+                .addData("Last Recovery (s)", () -> launcher == null ? "n/a" : launcher.getLastRecoveryTimeSeconds())
+                .addData("Shot Boost", () -> launcher == null ? "n/a" : launcher.getLastShotBoost())
+                .addData("Learned Shot Drop", () -> launcher == null ? "n/a" : launcher.getShotModel().getDrop())
+                .addData("Last Exit Velocity", () -> launcher == null ? "n/a" : launcher.getShotModel().getLastExitVelocityEstimate());
         prettyTelem.addLine("Turret")
                 .addData("Aim Mode", () -> manualAimMode ? "MANUAL" : "AUTO")
                 .addData("Current Angle", () -> turret == null ? "n/a" : turret.getCurrentPosition())
                 .addData("Target Angle", () -> turret == null ? "n/a" : turret.getTargetPosition())
                 .addData("Manual Target", () -> manualAimMode ? manualAimTargetDeg : "n/a")
                 .addData("Power", () -> turret == null ? "n/a" : turret.getPower())
-                .addData("Bearing To Tag", () -> FireControlSystem.bearingToDepot);
+                .addData("Last Settle Time (s)", () -> turret == null ? "n/a" : turret.getLastSettleTimeSeconds())
+                .addData("Bearing To Tag", () -> FireControlSystem.bearingToDepot)
+                .addData("Frame Latency (ms)", () -> limelight == null ? "n/a" : limelight.getFrameLatencyMs())
+                .addData("Latency Correction (deg)", () -> fcs == null ? "n/a" : fcs.getAimLatencyCorrectionDeg())
+                .addData("Moving Shot", () -> fcs != null && fcs.isMovingShotActive() ? "ON" : "OFF")
+                .addData("Lead Rate (deg/s)", () -> fcs == null ? "n/a" : fcs.getMovingShotSolver().getTurretRateDegPerSec())
+                .addData("Time Of Flight (s)", () -> fcs == null ? "n/a" : fcs.getMovingShotSolver().getTimeOfFlightSeconds());
         prettyTelem.addLine("Storage Controller")
                 .addData("State", () -> volleyStorageManager == null ? "UNKNOWN" : volleyStorageManager.getState())
                 .addData("Front Content", () -> indexerStorage == null ? "n/a" : indexerStorage.getFrontContent())
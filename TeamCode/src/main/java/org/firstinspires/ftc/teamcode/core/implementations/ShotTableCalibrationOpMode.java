@@ -0,0 +1,298 @@
+package org.firstinspires.ftc.teamcode.core.implementations;
+
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+import com.qualcomm.robotcore.hardware.CRServo;
+import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
+import org.firstinspires.ftc.teamcode.components.mechanisms.FeedRamp;
+import org.firstinspires.ftc.teamcode.components.mechanisms.FeedWheels;
+import org.firstinspires.ftc.teamcode.components.mechanisms.Hood;
+import org.firstinspires.ftc.teamcode.components.mechanisms.Indexer;
+import org.firstinspires.ftc.teamcode.components.mechanisms.Launcher;
+import org.firstinspires.ftc.teamcode.components.mechanisms.Turret;
+import org.firstinspires.ftc.teamcode.components.subsystems.BallisticModel;
+import org.firstinspires.ftc.teamcode.components.subsystems.FeedSystem;
+import org.firstinspires.ftc.teamcode.components.subsystems.FireControlSystem;
+import org.firstinspires.ftc.teamcode.components.subsystems.LinearBallisticModel;
+import org.firstinspires.ftc.teamcode.components.subsystems.ShotTable;
+import org.firstinspires.ftc.teamcode.core.SmartGamepad;
+import org.firstinspires.ftc.teamcode.core.TeleOpCore;
+import org.firstinspires.ftc.teamcode.hardware.SmartLimelight3A;
+import org.firstinspires.ftc.teamcode.hardware.TickClock;
+import org.firstinspires.ftc.teamcode.utilities.MatchStateStore;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeMap;
+
+/**
+ * Fills the shot table {@link FireControlSystem} loads at init.
+ * <p>
+ * Park anywhere the depot tag is visible; the turret aims itself. Gamepad 1: dpad up/down changes the launcher velocity
+ * and dpad right/left the hood position. The right bumper fires one artifact, then Y records it as a hit and X as a
+ * miss, with the distance it was fired from. Every shot is appended to {@value #LOG_FILE_NAME}, so calibration can go
+ * on across runs. B builds the table from the hits, averaging the hits that fall in the same distance bin, and writes
+ * it to {@value ShotTable#DEFAULT_FILE_NAME}.
+ */
+@TeleOp(name = "7 - Shot Table Calibration")
+public class ShotTableCalibrationOpMode extends TeleOpCore {
+    public static final String LOG_FILE_NAME = "shot_calibration.csv";
+    private static final String LOG_HEADER = "distance_m,velocity,hood,hit";
+
+    public static MatchStateStore.AllianceColor alliance = MatchStateStore.AllianceColor.BLUE;
+    public static double startVelocity = 3500;
+    public static double startHood = 0.6;
+    public static double velocityStep = 50;
+    public static double hoodStep = 0.01;
+    public static double feedTimeSec = 0.6;
+    public static double distanceBinMeters = 0.25;
+
+    private Launcher launcher;
+    private Hood hood;
+    private Indexer indexer;
+    private FeedSystem feeder;
+    private SmartLimelight3A limelight;
+    private FireControlSystem fcs;
+
+    private double velocity = startVelocity;
+    private double hoodPosition = startHood;
+    private double distanceMeters = Double.NaN;
+
+    private boolean feeding = false;
+    private double feedStartSec;
+    // The shot waiting for a hit or miss: distance, velocity, hood
+    private double[] pendingShot;
+    private final List<double[]> samples = new ArrayList<>();
+    private int hits = 0;
+    private int tableRows = 0;
+    private String lastResult = "n/a";
+
+    /**
+     * Gives the FCS the velocity and hood being tried, at any distance.
+     */
+    private final BallisticModel dialModel = new BallisticModel() {
+        private final BallisticModel linear = new LinearBallisticModel();
+
+        @Override
+        public double launcherVelocity(double distanceMeters) {
+            return velocity;
+        }
+
+        @Override
+        public double hoodPosition(double distanceMeters) {
+            return hoodPosition;
+        }
+
+        @Override
+        public double timeOfFlightSeconds(double distanceMeters) {
+            return linear.timeOfFlightSeconds(distanceMeters);
+        }
+    };
+
+    @Override
+    protected void onInitialize() {
+        super.onInitialize();
+        velocity = startVelocity;
+        hoodPosition = startHood;
+
+        launcher = new Launcher(hardware, hardware.getMotor("launcherMotor"));
+        hood = new Hood(hardware.getServo("hoodServo"));
+        Turret turret = new Turret(hardware.getMotor("turretMotor"), hardware.getMotor("turretMotor").getEncoder());
+        limelight = hardware.getLimelight("limelight");
+        limelight.setPipeline(0);
+        limelight.start();
+        indexer = new Indexer(hardware.getMotor("indexerMotor", true));
+        feeder = new FeedSystem(
+                new FeedWheels(
+                        hardware.getRaw(CRServo.class, "leftFeedServo"),
+                        hardware.getRaw(CRServo.class, "rightFeedServo")
+                ),
+                new FeedRamp(
+                        hardware.getServo("leftFeedRampServo"),
+                        hardware.getServo("rightFeedRampServo")
+                )
+        );
+        feeder.stopFeeding();
+
+        fcs = new FireControlSystem(turret, hood, launcher, limelight, hardware.getLEDIndicator("launcherLED"));
+        fcs.setAllianceColor(alliance);
+        fcs.setBallisticModel(dialModel);
+        fcs.startLauncher();
+
+        loadLog();
+
+        prettyTelem.addLine("Shot")
+                .addData("Distance (m)", () -> distanceMeters)
+                .addData("Velocity", () -> velocity)
+                .addData("Launcher Velocity", launcher::getVelocity)
+                .addData("Hood", () -> hoodPosition)
+                .addData("Ready", () -> fcs.isTurretAligned() && fcs.isLauncherSpun())
+                .addData("Waiting For Result", () -> pendingShot != null);
+        prettyTelem.addLine("Calibration")
+                .addData("Shots", samples::size)
+                .addData("Hits", () -> hits)
+                .addData("Table Rows", () -> tableRows)
+                .addData("Last", () -> lastResult);
+    }
+
+    @Override
+    protected void checkGamepads(SmartGamepad gamepad1, SmartGamepad gamepad2) {
+        if (gamepad1.dpadUpPressed()) {
+            velocity += velocityStep;
+        } else if (gamepad1.dpadDownPressed()) {
+            velocity = Math.max(0, velocity - velocityStep);
+        }
+        if (gamepad1.dpadRightPressed()) {
+            hoodPosition = Math.min(1, hoodPosition + hoodStep);
+        } else if (gamepad1.dpadLeftPressed()) {
+            hoodPosition = Math.max(0, hoodPosition - hoodStep);
+        }
+
+        if (gamepad1.rightBumperPressed() && !feeding) {
+            fire();
+        }
+        if (pendingShot != null) {
+            if (gamepad1.yPressed()) {
+                record(true);
+            } else if (gamepad1.xPressed()) {
+                record(false);
+            }
+        }
+        if (gamepad1.bPressed()) {
+            buildTable();
+        }
+    }
+
+    @Override
+    protected void onTick() {
+        fcs.tick();
+        indexer.tick();
+        distanceMeters = readDepotDistance();
+        if (feeding && TickClock.getTimestampSeconds() - feedStartSec >= feedTimeSec) {
+            feeding = false;
+            feeder.stopFeeding();
+        }
+    }
+
+    @Override
+    protected void onStop() {
+        limelight.stop();
+    }
+
+    private void fire() {
+        if (Double.isNaN(distanceMeters)) {
+            lastResult = "No depot tag in view, not fired";
+            return;
+        }
+        pendingShot = new double[]{ distanceMeters, velocity, hoodPosition };
+        feeder.startFeeding();
+        indexer.advanceIndexCounterclockwiseWithPower(1, 1);
+        feeding = true;
+        feedStartSec = TickClock.getTimestampSeconds();
+    }
+
+    private double readDepotDistance() {
+        SmartLimelight3A.AprilTag.Type depotType = alliance == MatchStateStore.AllianceColor.RED
+                ? SmartLimelight3A.AprilTag.Type.RED_DEPOT
+                : SmartLimelight3A.AprilTag.Type.BLUE_DEPOT;
+        SmartLimelight3A.AprilTag tag = limelight.getAprilTag(depotType);
+        return tag != null ? tag.distanceXYToTagMeters() : Double.NaN;
+    }
+
+    private void record(boolean hit) {
+        double[] shot = pendingShot;
+        pendingShot = null;
+        addSample(shot[0], shot[1], shot[2], hit);
+        File file = new File(AppUtil.ROBOT_DATA_DIR, LOG_FILE_NAME);
+        boolean newFile = !file.exists();
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file, true))) {
+            if (newFile) {
+                writer.println(LOG_HEADER);
+            }
+            writer.printf(Locale.US, "%.3f,%.1f,%.4f,%d%n", shot[0], shot[1], shot[2], hit ? 1 : 0);
+            lastResult = (hit ? "Hit" : "Miss") + String.format(Locale.US, " at %.2fm", shot[0]);
+        } catch (IOException e) {
+            lastResult = "Shot log could not be written: " + e.getMessage();
+        }
+    }
+
+    private void addSample(double distance, double velocity, double hood, boolean hit) {
+        samples.add(new double[]{ distance, velocity, hood, hit ? 1 : 0 });
+        if (hit) {
+            hits++;
+        }
+    }
+
+    private void loadLog() {
+        samples.clear();
+        hits = 0;
+        File file = new File(AppUtil.ROBOT_DATA_DIR, LOG_FILE_NAME);
+        if (!file.exists()) {
+            return;
+        }
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.trim().split(",");
+                if (fields.length != 4 || line.startsWith(LOG_HEADER)) {
+                    continue;
+                }
+                try {
+                    addSample(
+                            Double.parseDouble(fields[0]),
+                            Double.parseDouble(fields[1]),
+                            Double.parseDouble(fields[2]),
+                            Integer.parseInt(fields[3].trim()) != 0
+                    );
+                } catch (NumberFormatException ignored) {
+                    // Skip a line that was cut short
+                }
+            }
+        } catch (IOException e) {
+            lastResult = "Shot log could not be read: " + e.getMessage();
+        }
+    }
+
+    private void buildTable() {
+        // Sums of distance, velocity and hood, and the hit count, per distance bin
+        TreeMap<Long, double[]> bins = new TreeMap<>();
+        double binMeters = Math.max(1e-3, distanceBinMeters);
+        for (double[] sample : samples) {
+            if (sample[3] == 0) {
+                continue;
+            }
+            double[] bin = bins.get(Math.round(sample[0] / binMeters));
+            if (bin == null) {
+                bin = new double[4];
+                bins.put(Math.round(sample[0] / binMeters), bin);
+            }
+            bin[0] += sample[0];
+            bin[1] += sample[1];
+            bin[2] += sample[2];
+            bin[3]++;
+        }
+        if (bins.isEmpty()) {
+            lastResult = "No hits to build a table from";
+            return;
+        }
+
+        ShotTable.Builder builder = ShotTable.builder();
+        for (double[] bin : bins.values()) {
+            builder.row(bin[0] / bin[3], bin[1] / bin[3], bin[2] / bin[3]);
+        }
+        try {
+            ShotTable table = builder.build();
+            table.write(new File(AppUtil.ROBOT_DATA_DIR, ShotTable.DEFAULT_FILE_NAME));
+            tableRows = table.size();
+            lastResult = "Saved a table of " + tableRows + " rows";
+        } catch (IOException | IllegalArgumentException e) {
+            lastResult = "Table could not be saved: " + e.getMessage();
+        }
+    }
+}
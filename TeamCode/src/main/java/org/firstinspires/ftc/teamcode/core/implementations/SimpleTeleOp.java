@@ -37,8 +37,8 @@ public class SimpleTeleOp extends TeleOpCore {
 
         try {
             feedWheels = new FeedWheels(
-                    hardwareMap.get(CRServo.class, "leftFeedServo"),
-                    hardwareMap.get(CRServo.class, "rightFeedServo")
+                    hardware.getRaw(CRServo.class, "leftFeedServo"),
+                    hardware.getRaw(CRServo.class, "rightFeedServo")
             );
             feedRamp = new FeedRamp(
                     hardware.getServo("leftFeedRampServo"),
@@ -165,6 +165,10 @@ public class FarFiringTask implements TeleOpTask {
                 if (!follower.isBusy()) {
                     state = State.WAIT_FOR_FCS_READY;
                     stateStartSec = ctx.runtimeSec();
+                } else if (requireFcs(ctx).isReadyToFireOnTheMove()) {
+                    // Fire on the way back; the path keeps going while the volley runs
+                    state = State.PREPARE_FIRE_BURST;
+                    stateStartSec = ctx.runtimeSec();
                 }
                 return TaskResult.RUNNING;
             }
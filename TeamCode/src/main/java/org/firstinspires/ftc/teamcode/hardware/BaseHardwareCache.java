@@ -0,0 +1,138 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * Shared validity and strategy bookkeeping for hardware caches.
+ * Subclasses only own the cached value itself and how it is fetched, so the generic
+ * {@link HardwareCache} and the primitive specializations behave identically under every {@link Strategy}.
+ * <p>
+ * A cache is only valid within the {@link CacheEpoch} it was filled in. When {@link Hardware#invalidateCaches()}
+ * advances the epoch, every cache goes stale at once and refreshes lazily on its first read in the new tick.
+ * {@link Strategy#RATE_LIMITED} and {@link Strategy#DEADLINE} caches may keep their value into later epochs.
+ */
+public abstract class BaseHardwareCache implements Caching {
+    private static final double DEFAULT_DEADLINE_MS = 15;
+
+    private boolean cacheValid = false;
+    private long filledEpoch = -1;
+    private Strategy strategy = Strategy.UPDATE_WHEN_INVALIDATED;
+    private long filledNanos = 0;
+    private DoubleSupplier refreshIntervalMs = () -> 0;
+    private int refreshIntervalTicks = 1;
+    private DoubleSupplier deadlineMs = () -> DEFAULT_DEADLINE_MS;
+    private ReadProfiler.Entry profileEntry = null;
+
+    /**
+     * Reads the latest value from the hardware and stores it as the cached value.
+     */
+    protected abstract void fetch();
+
+    /**
+     * Invalidates the cache based on the current caching strategy.
+     * If the strategy is {@link Strategy#UPDATE_WHEN_INVALIDATED},
+     * the cache will be immediately refreshed upon invalidation.
+     */
+    @Override
+    public void invalidateCache() {
+        if (strategy == Strategy.UPDATE_WHEN_INVALIDATED) {
+            updateCache();
+        } else {
+            this.cacheValid = false;
+        }
+    }
+
+    /**
+     * Updates the cache by fetching the latest value from the supplier.
+     */
+    @Override
+    public void updateCache() {
+        ReadProfiler.Entry entry = profileEntry;
+        if (entry != null && ReadProfiler.isEnabled()) {
+            long start = System.nanoTime();
+            fetch();
+            entry.record(System.nanoTime() - start);
+        } else {
+            fetch();
+        }
+        cacheValid = true;
+        filledEpoch = CacheEpoch.current();
+        if (strategy == Strategy.RATE_LIMITED) {
+            filledNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Records the time spent in {@link #fetch()} under the given device. See {@link ReadProfiler}.
+     */
+    void setProfileEntry(ReadProfiler.Entry entry) {
+        this.profileEntry = entry;
+    }
+
+    /**
+     * Brings the cached value up to date for a read based on the caching strategy.
+     * Subclasses call this before returning their cached value.
+     */
+    protected final void prepareRead() {
+        if (!isCacheValid() || strategy == Strategy.ALWAYS_UPDATE) {
+            updateCache();
+        }
+
+        if (strategy == Strategy.INVALID_AFTER_FIRST_READ) {
+            invalidateCache();
+        }
+    }
+
+    /**
+     * Checks if the cache is currently valid.
+     *
+     * @return {@code true} if the cache is valid, {@code false} otherwise.
+     */
+    public boolean isCacheValid() {
+        if (!cacheValid) {
+            return false;
+        }
+        boolean sameEpoch = filledEpoch == CacheEpoch.current();
+        switch (strategy) {
+            case RATE_LIMITED:
+                return CacheEpoch.current() - filledEpoch < refreshIntervalTicks
+                        || (System.nanoTime() - filledNanos) / 1e6 < refreshIntervalMs.getAsDouble();
+            case DEADLINE:
+                return sameEpoch || CacheEpoch.getTickElapsedMs() > deadlineMs.getAsDouble();
+            default:
+                return sameEpoch;
+        }
+    }
+
+    /**
+     * Sets the caching strategy, invalidating the cache in the process.
+     *
+     * @param strategy The new caching strategy.
+     */
+    @Override
+    public void setStrategy(Strategy strategy) {
+        this.strategy = strategy;
+        cacheValid = false;
+    }
+
+    @Override
+    public void setRefreshInterval(DoubleSupplier intervalMs, int intervalTicks) {
+        this.refreshIntervalMs = intervalMs;
+        this.refreshIntervalTicks = Math.max(1, intervalTicks);
+    }
+
+    @Override
+    public void setDeadline(DoubleSupplier tickBudgetMs) {
+        this.deadlineMs = tickBudgetMs;
+    }
+
+    /**
+     * Gets the current caching strategy.
+     *
+     * @return The active caching strategy.
+     */
+    @Override
+    public Strategy getStrategy() {
+        return strategy;
+    }
+}
@@ -0,0 +1,45 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * A hardware cache specialized for {@code boolean} values, so reads in the control loop never box.
+ * Honors every {@link Strategy} exactly like {@link HardwareCache}.
+ */
+public class BooleanHardwareCache extends BaseHardwareCache {
+    private boolean cachedValue;
+    private final BooleanSupplier valueSupplier;
+
+    /**
+     * Constructs a BooleanHardwareCache with a given value supplier.
+     *
+     * @param valueSupplier A function that retrieves the latest hardware value.
+     */
+    public BooleanHardwareCache(BooleanSupplier valueSupplier) {
+        this.valueSupplier = valueSupplier;
+    }
+
+    @Override
+    protected void fetch() {
+        this.cachedValue = valueSupplier.getAsBoolean();
+    }
+
+    /**
+     * Reads the cached value, updating it if necessary based on the caching strategy.
+     *
+     * @return The latest cached value.
+     */
+    public boolean read() {
+        prepareRead();
+        return cachedValue;
+    }
+
+    /**
+     * Updates the cache, then returns the new value.
+     * @return the newly cached value.
+     */
+    public boolean updateAndGet(){
+        updateCache();
+        return cachedValue;
+    }
+}
@@ -0,0 +1,37 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+/**
+ * Global tick counter used to invalidate every {@link BaseHardwareCache} at once.
+ * <p>
+ * Each cache remembers the epoch it was filled in and treats itself as stale once the epoch moves on,
+ * so invalidating all caches is a single increment instead of a walk over every registered device.
+ * Only the main loop thread should advance or read the epoch.
+ */
+public final class CacheEpoch {
+    private static long current = 0;
+    private static long tickStartNanos = System.nanoTime();
+
+    private CacheEpoch() {}
+
+    /**
+     * @return the epoch of the current tick.
+     */
+    public static long current() {
+        return current;
+    }
+
+    /**
+     * Starts a new epoch, making every cache filled in a previous epoch stale.
+     */
+    static void advance() {
+        current++;
+        tickStartNanos = System.nanoTime();
+    }
+
+    /**
+     * @return how long it has been since the current epoch started, in milliseconds.
+     */
+    public static double getTickElapsedMs() {
+        return (System.nanoTime() - tickStartNanos) / 1e6;
+    }
+}
@@ -1,5 +1,7 @@
 package org.firstinspires.ftc.teamcode.hardware;
 
+import java.util.function.DoubleSupplier;
+
 public interface Caching {
     void invalidateCache();
 
@@ -9,6 +11,37 @@ public interface Caching {
 
     Strategy getStrategy();
 
+    /**
+     * Sets how often a {@link Strategy#RATE_LIMITED} cache may refresh. A refresh only happens once both limits have passed.
+     *
+     * @param intervalMs the minimum time between refreshes, in milliseconds.
+     * @param intervalTicks the minimum number of ticks between refreshes. Values below 1 are treated as 1.
+     */
+    default void setRefreshInterval(double intervalMs, int intervalTicks) {
+        setRefreshInterval(() -> intervalMs, intervalTicks);
+    }
+
+    /**
+     * Like {@link #setRefreshInterval(double, int)}, but reads the interval on every check, so a live setting applies
+     * without being set again.
+     */
+    void setRefreshInterval(DoubleSupplier intervalMs, int intervalTicks);
+
+    /**
+     * Sets the tick time budget for a {@link Strategy#DEADLINE} cache.
+     *
+     * @param tickBudgetMs how far into a tick, in milliseconds, the cache may still refresh.
+     */
+    default void setDeadline(double tickBudgetMs) {
+        setDeadline(() -> tickBudgetMs);
+    }
+
+    /**
+     * Like {@link #setDeadline(double)}, but reads the budget on every check, so a live setting applies without being
+     * set again.
+     */
+    void setDeadline(DoubleSupplier tickBudgetMs);
+
     enum Strategy {
         /**
          * When the cache is updated, the first read is from the cache. The second read will invalidate the cache and update the cache before reading.
@@ -20,12 +53,27 @@ public interface Caching {
         VALID_UNTIL_INVALIDATED,
         /**
          * After the cache is updated, all reads will read from the cache (similar to VALID_UNTIL_INVALIDATED). When the cache is invalidated the cache is automatically updated.
+         * When every cache is invalidated at once by {@link Hardware#invalidateCaches()}, the refresh happens on the first read of the new tick,
+         * or immediately for devices registered with {@link Hardware#addPrefetch(Caching)}.
          */
         UPDATE_WHEN_INVALIDATED,
 
         /**
          * Always update the cache before it is read, essentially equivalent to not caching.
          */
-        ALWAYS_UPDATE
+        ALWAYS_UPDATE,
+
+        /**
+         * Keeps the cached value across ticks and refreshes it on read only once the interval set by
+         * {@link #setRefreshInterval(double, int)} has passed. Use this for slow sensors whose value changes slowly.
+         */
+        RATE_LIMITED,
+
+        /**
+         * Refreshes lazily once per tick like {@link #VALID_UNTIL_INVALIDATED}, unless the tick has already run past
+         * the budget set by {@link #setDeadline(double)}, in which case the previous value is kept until the next tick.
+         * A cache that has never been filled is always refreshed.
+         */
+        DEADLINE
     }
 }
@@ -0,0 +1,45 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * A hardware cache specialized for {@code double} values, so reads in the control loop never box.
+ * Honors every {@link Strategy} exactly like {@link HardwareCache}.
+ */
+public class DoubleHardwareCache extends BaseHardwareCache {
+    private double cachedValue;
+    private final DoubleSupplier valueSupplier;
+
+    /**
+     * Constructs a DoubleHardwareCache with a given value supplier.
+     *
+     * @param valueSupplier A function that retrieves the latest hardware value.
+     */
+    public DoubleHardwareCache(DoubleSupplier valueSupplier) {
+        this.valueSupplier = valueSupplier;
+    }
+
+    @Override
+    protected void fetch() {
+        this.cachedValue = valueSupplier.getAsDouble();
+    }
+
+    /**
+     * Reads the cached value, updating it if necessary based on the caching strategy.
+     *
+     * @return The latest cached value.
+     */
+    public double read() {
+        prepareRead();
+        return cachedValue;
+    }
+
+    /**
+     * Updates the cache, then returns the new value.
+     * @return the newly cached value.
+     */
+    public double updateAndGet(){
+        updateCache();
+        return cachedValue;
+    }
+}
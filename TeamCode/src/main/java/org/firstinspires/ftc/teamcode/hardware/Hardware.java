@@ -4,10 +4,12 @@ import com.qualcomm.hardware.limelightvision.Limelight3A;
 import com.qualcomm.hardware.lynx.LynxModule;
 import com.qualcomm.robotcore.hardware.*;
 import org.firstinspires.ftc.robotcore.external.hardware.camera.CameraName;
+import org.firstinspires.ftc.teamcode.utilities.LiveMatchTuning;
 import org.firstinspires.ftc.teamcode.utilities.Pose;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -17,14 +19,29 @@ import java.util.Optional;
 public class Hardware {
     private final Map<DeviceKey<?>, Device> devices = new HashMap<>();
     private final List<Caching> caches = new ArrayList<>();
-    private final HardwareMap hardwareMap;
+    private final List<Caching> prefetched = new ArrayList<>();
+    // Caches given their own strategy at registration, which setCachingStrategy leaves alone
+    private final Map<Caching, Caching.Strategy> ownStrategies = new IdentityHashMap<>();
+    private final OutputStage outputStage = new OutputStage();
+    private final HardwareBackend backend;
     private final List<LynxModule> hubs;
     private LynxModule controlHub;
     private LynxModule expansionHub;
+    private final ReadProfiler.Entry[] hubProfileEntries;
 
     public Hardware(HardwareMap hardwareMap) {
-        this.hardwareMap = hardwareMap;
-        this.hubs = hardwareMap.getAll(LynxModule.class);
+        this(new HardwareMapBackend(hardwareMap));
+    }
+
+    /**
+     * Creates a hardware registry over any device source, for example a simulation when running off the robot.
+     *
+     * @param backend where raw devices are read from.
+     */
+    public Hardware(HardwareBackend backend) {
+        this.backend = backend;
+        this.hubs = backend.getHubs();
+        ReadProfiler.reset();
 
         hubs.forEach(hub ->
             hub.setBulkCachingMode(LynxModule.BulkCachingMode.MANUAL)
@@ -37,6 +54,12 @@ public class Hardware {
                 expansionHub = hub;
             }
         });
+
+        this.hubProfileEntries = new ReadProfiler.Entry[hubs.size()];
+        for (int i = 0; i < hubs.size(); i++) {
+            LynxModule hub = hubs.get(i);
+            hubProfileEntries[i] = ReadProfiler.entry((hub.isParent() ? "Control Hub " : "Expansion Hub ") + hub.getModuleAddress());
+        }
     }
 
     public List<LynxModule> getHubs() {
@@ -49,7 +72,7 @@ public class Hardware {
             return cameraOptional.get();
         }
 
-        SmartCamera camera = new SmartCamera(hardwareMap.get(CameraName.class, name), name, pose);
+        SmartCamera camera = new SmartCamera(backend.get(CameraName.class, name), name, pose);
         return registerDevice(SmartCamera.class, camera);
     }
 
@@ -59,7 +82,11 @@ public class Hardware {
             return limelightOptional.get();
         }
 
-        SmartLimelight3A smartLimelight3A = new SmartLimelight3A(name, hardwareMap.get(Limelight3A.class, name));
+        SmartLimelight3A smartLimelight3A = new SmartLimelight3A(name, backend.get(Limelight3A.class, name));
+        // status is only used for diagnostics like FPS, so it does not need to be read every tick
+        Caching statusCaching = smartLimelight3A.getStatusCaching();
+        setOwnStrategy(statusCaching, Caching.Strategy.RATE_LIMITED);
+        statusCaching.setRefreshInterval(() -> LiveMatchTuning.limelightStatusRefreshMs, 1);
         return registerCachedDevice(SmartLimelight3A.class, smartLimelight3A);
     }
 
@@ -85,7 +112,7 @@ public class Hardware {
             return motorOptional.get();
         }
 
-        SmartMotor smartMotor = new SmartMotor(hardwareMap.get(DcMotorEx.class, name), name, hasExternalEncoder);
+        SmartMotor smartMotor = new SmartMotor(backend.get(DcMotorEx.class, name), name, hasExternalEncoder, outputStage);
         return registerCachedDevice(SmartMotor.class, smartMotor);
     }
 
@@ -100,10 +127,15 @@ public class Hardware {
         }
         
         SmartColorSensor smartColorSensor =  new SmartColorSensor(
-                hardwareMap.get(NormalizedColorSensor.class, name),
+                backend.get(NormalizedColorSensor.class, name),
                 name,
                 colorProfile
         );
+        Caching distanceCaching = smartColorSensor.getDistanceCaching();
+        if (distanceCaching != null) {
+            setOwnStrategy(distanceCaching, Caching.Strategy.DEADLINE);
+            distanceCaching.setDeadline(() -> LiveMatchTuning.colorSensorDistanceDeadlineMs);
+        }
         return registerCachedDevice(SmartColorSensor.class, smartColorSensor);
     }
     
@@ -113,7 +145,7 @@ public class Hardware {
             return servoOptional.get();
         }
 
-        SmartServo servo = new SmartServo(hardwareMap.get(Servo.class, name), name);
+        SmartServo servo = new SmartServo(backend.get(Servo.class, name), name, outputStage);
         return registerCachedDevice(SmartServo.class, servo);
     }
 
@@ -133,7 +165,7 @@ public class Hardware {
             return touchSensorOptional.get();
         }
 
-        SmartTouchSensor smartTouchSensor = new SmartTouchSensor(hardwareMap.get(TouchSensor.class, name), name);
+        SmartTouchSensor smartTouchSensor = new SmartTouchSensor(backend.get(TouchSensor.class, name), name);
         return registerCachedDevice(SmartTouchSensor.class, smartTouchSensor);
     }
 
@@ -143,7 +175,7 @@ public class Hardware {
 	        return inputOptional.get();
         }
 
-        SmartAnalogInput input = new SmartAnalogInput(hardwareMap.get(AnalogInput.class, name), name);
+        SmartAnalogInput input = new SmartAnalogInput(backend.get(AnalogInput.class, name), name);
         return registerDevice(SmartAnalogInput.class, input);
     }
 
@@ -183,12 +215,73 @@ public class Hardware {
      * @return the hardware object requested.
      */
     public <T> T getRaw(Class<? extends T> type, String name) {
-        return hardwareMap.get(type, name);
+        return backend.get(type, name);
     }
 
+    /**
+     * Starts a new hardware tick. Clears each hub's bulk cache and advances the {@link CacheEpoch},
+     * which invalidates every device cache at once; devices then refresh lazily on their first read this tick.
+     * Devices registered with {@link #addPrefetch(Caching)} are refreshed immediately.
+     * <p>
+     * The bulk read itself happens on the first read from each hub after the clear, so the {@link ReadProfiler}
+     * charges it to whichever device is read first.
+     */
     public void invalidateCaches() {
-        hubs.forEach(LynxModule::clearBulkCache);
-        caches.forEach(Caching::invalidateCache);
+        ReadProfiler.beginTick();
+        boolean profiling = ReadProfiler.isEnabled();
+        for (int i = 0; i < hubs.size(); i++) {
+            if (profiling) {
+                long start = System.nanoTime();
+                hubs.get(i).clearBulkCache();
+                hubProfileEntries[i].record(System.nanoTime() - start);
+            } else {
+                hubs.get(i).clearBulkCache();
+            }
+        }
+        CacheEpoch.advance();
+        for (int i = 0; i < prefetched.size(); i++) {
+            prefetched.get(i).updateCache();
+        }
+    }
+
+    /**
+     * Marks a device to be read eagerly at the start of every tick, instead of lazily on its first read.
+     * Use this for devices that must be sampled every loop even when nothing reads them, such as external encoders
+     * whose velocity correction depends on regular position samples.
+     *
+     * @param device the device to prefetch.
+     */
+    public void addPrefetch(Caching device) {
+        if (!prefetched.contains(device)) {
+            prefetched.add(device);
+        }
+    }
+
+    /**
+     * Stops eagerly reading a device previously passed to {@link #addPrefetch(Caching)}.
+     *
+     * @param device the device to stop prefetching.
+     */
+    public void removePrefetch(Caching device) {
+        prefetched.remove(device);
+    }
+
+    /**
+     * Sends every motor power and servo position staged during this tick. See {@link OutputStage}.
+     */
+    public void flushOutputs() {
+        outputStage.flush();
+    }
+
+    public OutputStage getOutputStage() {
+        return outputStage;
+    }
+
+    /**
+     * @return the robot's battery voltage, in volts.
+     */
+    public double getBatteryVoltage() {
+        return backend.getBatteryVoltage();
     }
 
     public LynxModule getControlHub(){
@@ -199,8 +292,18 @@ public class Hardware {
         return expansionHub;
     }
 
+    /**
+     * Sets the caching strategy of every cached device. Caches that were given their own strategy when their device was
+     * registered, such as the Limelight status and the color sensor distance, keep it.
+     */
     public void setCachingStrategy(Caching.Strategy strategy){
         caches.forEach(caching -> caching.setStrategy(strategy));
+        ownStrategies.forEach(Caching::setStrategy);
+    }
+
+    private void setOwnStrategy(Caching cache, Caching.Strategy strategy) {
+        cache.setStrategy(strategy);
+        ownStrategies.put(cache, strategy);
     }
 
     private <T extends Device> Optional<T> getDevice(Class<? extends T> type, String configName){
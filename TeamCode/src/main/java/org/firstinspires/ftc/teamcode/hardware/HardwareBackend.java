@@ -0,0 +1,30 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+import com.qualcomm.hardware.lynx.LynxModule;
+
+import java.util.List;
+
+/**
+ * The source of the raw SDK devices that {@link Hardware} wraps.
+ * On the robot this is the op mode's {@link com.qualcomm.robotcore.hardware.HardwareMap}; off the robot it can be
+ * a simulation such as {@link org.firstinspires.ftc.teamcode.hardware.sim.SimHardwareBackend}.
+ */
+public interface HardwareBackend {
+    /**
+     * @param type the SDK class of the device.
+     * @param name the configured name of the device.
+     * @return the device with the given name.
+     * @throws IllegalArgumentException if no device of that type and name exists.
+     */
+    <T> T get(Class<? extends T> type, String name);
+
+    /**
+     * @return every Lynx hub, or an empty list if there are none.
+     */
+    List<LynxModule> getHubs();
+
+    /**
+     * @return the robot's battery voltage, in volts.
+     */
+    double getBatteryVoltage();
+}
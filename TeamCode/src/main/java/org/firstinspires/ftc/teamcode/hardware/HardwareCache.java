@@ -5,13 +5,14 @@ import org.firstinspires.ftc.robotcore.external.Supplier;
 /**
  * A generic caching mechanism for hardware values, reducing redundant hardware reads.
  * This class supports different caching strategies to optimize performance.
+ * <p>
+ * Prefer {@link IntHardwareCache}, {@link DoubleHardwareCache} or {@link BooleanHardwareCache} for primitive
+ * values, since this class boxes every read.
  *
  * @param <T> The type of value being cached.
  */
-public class HardwareCache<T> implements Caching {
+public class HardwareCache<T> extends BaseHardwareCache {
     private T cachedValue;
-    private boolean cacheValid = false;
-    private Strategy strategy = Strategy.UPDATE_WHEN_INVALIDATED;
     private final Supplier<T> valueSupplier;
 
     /**
@@ -23,27 +24,9 @@ public class HardwareCache<T> implements Caching {
         this.valueSupplier = valueSupplier;
     }
 
-    /**
-     * Invalidates the cache based on the current caching strategy.
-     * If the strategy is {@link Strategy#UPDATE_WHEN_INVALIDATED},
-     * the cache will be immediately refreshed upon invalidation.
-     */
-    @Override
-    public void invalidateCache() {
-        if (strategy == Strategy.UPDATE_WHEN_INVALIDATED) {
-            updateCache();
-        } else {
-            this.cacheValid = false;
-        }
-    }
-
-    /**
-     * Updates the cache by fetching the latest value from the supplier.
-     */
     @Override
-    public void updateCache() {
+    protected void fetch() {
         this.cachedValue = valueSupplier.get();
-        cacheValid = true;
     }
 
     /**
@@ -52,45 +35,10 @@ public class HardwareCache<T> implements Caching {
      * @return The latest cached value.
      */
     public T read() {
-        if (!cacheValid || strategy == Strategy.ALWAYS_UPDATE) {
-            updateCache();
-        }
-
-        if(strategy == Strategy.INVALID_AFTER_FIRST_READ){
-            invalidateCache();
-        }
-
+        prepareRead();
         return cachedValue;
     }
 
-    /**
-     * Checks if the cache is currently valid.
-     *
-     * @return {@code true} if the cache is valid, {@code false} otherwise.
-     */
-    public boolean isCacheValid() {
-        return cacheValid;
-    }
-
-    /**
-     * Sets the caching strategy, invalidating the cache in the process.
-     *
-     * @param strategy The new caching strategy.
-     */
-    public void setStrategy(Strategy strategy) {
-        this.strategy = strategy;
-        cacheValid = false;
-    }
-
-    /**
-     * Gets the current caching strategy.
-     *
-     * @return The active caching strategy.
-     */
-    public Strategy getStrategy() {
-        return strategy;
-    }
-
     /**
      * Updates the cache, then returns the new value.
      * @return the newly cached value.
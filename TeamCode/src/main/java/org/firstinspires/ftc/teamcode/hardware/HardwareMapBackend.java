@@ -0,0 +1,47 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+import com.qualcomm.hardware.lynx.LynxModule;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import org.firstinspires.ftc.robotcore.external.navigation.VoltageUnit;
+
+import java.util.List;
+
+/**
+ * Reads devices from the {@link HardwareMap} of a running op mode.
+ */
+public class HardwareMapBackend implements HardwareBackend {
+    private final HardwareMap hardwareMap;
+    private final List<LynxModule> hubs;
+    private final LynxModule voltageHub;
+
+    public HardwareMapBackend(HardwareMap hardwareMap) {
+        this.hardwareMap = hardwareMap;
+        this.hubs = hardwareMap.getAll(LynxModule.class);
+        LynxModule parent = null;
+        for (LynxModule hub : hubs) {
+            if (hub.isParent()) {
+                parent = hub;
+            }
+        }
+        this.voltageHub = parent != null || hubs.isEmpty() ? parent : hubs.get(0);
+    }
+
+    public HardwareMap getHardwareMap() {
+        return hardwareMap;
+    }
+
+    @Override
+    public <T> T get(Class<? extends T> type, String name) {
+        return hardwareMap.get(type, name);
+    }
+
+    @Override
+    public List<LynxModule> getHubs() {
+        return hubs;
+    }
+
+    @Override
+    public double getBatteryVoltage() {
+        return voltageHub == null ? 0 : voltageHub.getInputVoltage(VoltageUnit.VOLTS);
+    }
+}
@@ -0,0 +1,45 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+import java.util.function.IntSupplier;
+
+/**
+ * A hardware cache specialized for {@code int} values, so reads in the control loop never box.
+ * Honors every {@link Strategy} exactly like {@link HardwareCache}.
+ */
+public class IntHardwareCache extends BaseHardwareCache {
+    private int cachedValue;
+    private final IntSupplier valueSupplier;
+
+    /**
+     * Constructs a IntHardwareCache with a given value supplier.
+     *
+     * @param valueSupplier A function that retrieves the latest hardware value.
+     */
+    public IntHardwareCache(IntSupplier valueSupplier) {
+        this.valueSupplier = valueSupplier;
+    }
+
+    @Override
+    protected void fetch() {
+        this.cachedValue = valueSupplier.getAsInt();
+    }
+
+    /**
+     * Reads the cached value, updating it if necessary based on the caching strategy.
+     *
+     * @return The latest cached value.
+     */
+    public int read() {
+        prepareRead();
+        return cachedValue;
+    }
+
+    /**
+     * Updates the cache, then returns the new value.
+     * @return the newly cached value.
+     */
+    public int updateAndGet(){
+        updateCache();
+        return cachedValue;
+    }
+}
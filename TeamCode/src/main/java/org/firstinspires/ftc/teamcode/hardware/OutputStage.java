@@ -0,0 +1,213 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+import com.qualcomm.robotcore.hardware.HardwareDevice;
+import org.firstinspires.ftc.teamcode.utilities.LiveMatchTuning;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Collects actuator writes made during a tick and sends them once, at the end of the tick.
+ * <p>
+ * {@link SmartMotor#setPower(double)} and {@link SmartServo#setPosition(double)} only record the desired value here.
+ * {@link #flush()} then walks the outputs in hub and port order and sends each one, unless it falls within the
+ * configured deadband of the last value sent to that port. Every skipped write saves a Lynx command round-trip.
+ */
+public class OutputStage {
+    private static final Comparator<Output> ORDER = Comparator
+            .comparing((Output output) -> output.controllerKey)
+            .thenComparing(output -> output.kind)
+            .thenComparingInt(output -> output.port);
+
+    private final List<Output> outputs = new ArrayList<>();
+    private boolean sorted = true;
+    private boolean enabled = true;
+    private int lastFlushSent = 0;
+    private int lastFlushSuppressed = 0;
+    private long totalSent = 0;
+    private long totalSuppressed = 0;
+
+    OutputStage() {}
+
+    Output registerMotor(HardwareDevice controller, int port, DoubleConsumer writer) {
+        return register(new Output(Kind.MOTOR_POWER, controllerKey(controller), port, writer));
+    }
+
+    Output registerServo(HardwareDevice controller, int port, DoubleConsumer writer) {
+        return register(new Output(Kind.SERVO_POSITION, controllerKey(controller), port, writer));
+    }
+
+    private static String controllerKey(HardwareDevice controller) {
+        return controller == null ? "" : controller.getConnectionInfo();
+    }
+
+    private Output register(Output output) {
+        outputs.add(output);
+        sorted = false;
+        return output;
+    }
+
+    /**
+     * Sends every pending output that moved outside its deadband since it was last sent.
+     * Outputs are sent in hub order, then motors before servos, then by port.
+     */
+    public void flush() {
+        if (!sorted) {
+            outputs.sort(ORDER);
+            sorted = true;
+        }
+
+        int sent = 0;
+        int suppressed = 0;
+        double motorDeadband = Math.max(0, LiveMatchTuning.outputMotorPowerDeadband);
+        double servoDeadband = Math.max(0, LiveMatchTuning.outputServoPositionDeadband);
+        for (int i = 0; i < outputs.size(); i++) {
+            Output output = outputs.get(i);
+            suppressed += output.coalesced;
+            output.coalesced = 0;
+            if (!output.pending) {
+                continue;
+            }
+            output.pending = false;
+            if (output.shouldSend(output.kind == Kind.MOTOR_POWER ? motorDeadband : servoDeadband)) {
+                output.send();
+                sent++;
+            } else {
+                suppressed++;
+            }
+        }
+
+        lastFlushSent = sent;
+        lastFlushSuppressed = suppressed;
+        totalSent += sent;
+        totalSuppressed += suppressed;
+    }
+
+    /**
+     * When disabled, every write goes straight to the SDK as it is made, matching the behavior without an output stage.
+     * Pending writes are flushed before disabling.
+     *
+     * @param enabled whether writes should be held until {@link #flush()}.
+     */
+    public void setEnabled(boolean enabled) {
+        if (this.enabled && !enabled) {
+            flush();
+        }
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return the number of writes sent by the most recent {@link #flush()}.
+     */
+    public int getLastFlushSent() {
+        return lastFlushSent;
+    }
+
+    /**
+     * @return the number of writes dropped by the most recent {@link #flush()}, either because they were
+     * overwritten later in the same tick or because they fell within the deadband.
+     */
+    public int getLastFlushSuppressed() {
+        return lastFlushSuppressed;
+    }
+
+    public long getTotalSent() {
+        return totalSent;
+    }
+
+    public long getTotalSuppressed() {
+        return totalSuppressed;
+    }
+
+    private enum Kind {
+        MOTOR_POWER,
+        SERVO_POSITION
+    }
+
+    /**
+     * A single staged actuator value, owned by the device that writes it.
+     */
+    final class Output {
+        private final Kind kind;
+        private final String controllerKey;
+        private final int port;
+        private final DoubleConsumer writer;
+        private double desired = Double.NaN;
+        private double lastSent = Double.NaN;
+        private boolean pending = false;
+        private int coalesced = 0;
+
+        private Output(Kind kind, String controllerKey, int port, DoubleConsumer writer) {
+            this.kind = kind;
+            this.controllerKey = controllerKey;
+            this.port = port;
+            this.writer = writer;
+        }
+
+        /**
+         * Records the desired value, or writes it immediately if the stage is disabled.
+         */
+        void set(double value) {
+            desired = value;
+            if (!enabled) {
+                pending = false;
+                send();
+                return;
+            }
+            if (pending) {
+                coalesced++;
+            }
+            pending = true;
+        }
+
+        /**
+         * @return the most recently requested value, or {@link Double#NaN} if none has been requested.
+         */
+        double getDesired() {
+            return desired;
+        }
+
+        /**
+         * Forgets the last sent value so the next write is always sent, keeping any pending write.
+         * Call this when the device is reconfigured in a way that may change what the last sent value means.
+         */
+        void markStale() {
+            lastSent = Double.NaN;
+        }
+
+        /**
+         * Drops any pending write and forgets the last sent value. Call this when the device is commanded
+         * directly, bypassing this output, so a stale pending write cannot override the newer command.
+         */
+        void reset() {
+            desired = Double.NaN;
+            lastSent = Double.NaN;
+            pending = false;
+        }
+
+        private boolean shouldSend(double deadband) {
+            if (Double.isNaN(lastSent)) {
+                return true;
+            }
+            if (desired == lastSent) {
+                return false;
+            }
+            // a stop must always reach the hardware, even if it is within the deadband
+            if (desired == 0) {
+                return true;
+            }
+            return Math.abs(desired - lastSent) > deadband;
+        }
+
+        private void send() {
+            writer.accept(desired);
+            lastSent = desired;
+        }
+    }
+}
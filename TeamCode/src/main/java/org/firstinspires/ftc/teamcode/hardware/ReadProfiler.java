@@ -0,0 +1,233 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
+import org.firstinspires.ftc.teamcode.utilities.LiveMatchTuning;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Records how long each device spends reading hardware, to find which reads are using up the loop time.
+ * <p>
+ * Every {@link BaseHardwareCache} that has been attached to a device with {@link #attach(String, BaseHardwareCache...)}
+ * times its fetches here, as does each hub's bulk cache clear in {@link Hardware#invalidateCaches()}.
+ * Stats are kept both for the last completed tick and for the whole session.
+ * <p>
+ * Profiling is controlled by {@link LiveMatchTuning#hardwareProfilerEnabled}. While it is off, a fetch only pays for
+ * one extra static field check.
+ */
+public final class ReadProfiler {
+    private static final Comparator<Entry> SLOWEST_FIRST = (a, b) -> Long.compare(b.sessionNanos, a.sessionNanos);
+
+    private static final Map<String, Entry> entries = new HashMap<>();
+    private static final List<Entry> entryList = new ArrayList<>();
+    private static boolean enabled = false;
+
+    private ReadProfiler() {}
+
+    /**
+     * @return whether fetches are currently being timed.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Gets the stats entry for a device, creating it if needed.
+     *
+     * @param deviceName the config name of the device.
+     * @return the entry that reads of this device are recorded in.
+     */
+    static Entry entry(String deviceName) {
+        Entry entry = entries.get(deviceName);
+        if (entry == null) {
+            entry = new Entry(deviceName);
+            entries.put(deviceName, entry);
+            entryList.add(entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Records the fetches of the given caches under a device. Only attach caches that talk to the hardware directly;
+     * a cache computed from another attached cache would count the same read twice.
+     *
+     * @param deviceName the config name of the device.
+     * @param caches the caches to profile. Null entries are ignored.
+     */
+    static void attach(String deviceName, BaseHardwareCache... caches) {
+        Entry entry = entry(deviceName);
+        for (BaseHardwareCache cache : caches) {
+            if (cache != null) {
+                cache.setProfileEntry(entry);
+            }
+        }
+    }
+
+    /**
+     * Closes out the previous tick's stats and picks up the enabled flag for the new tick.
+     * Called by {@link Hardware#invalidateCaches()} at the start of every tick.
+     */
+    static void beginTick() {
+        enabled = LiveMatchTuning.hardwareProfilerEnabled;
+        if (!enabled) {
+            return;
+        }
+        for (int i = 0; i < entryList.size(); i++) {
+            entryList.get(i).endTick();
+        }
+    }
+
+    /**
+     * Forgets every device and its stats. Called when a new {@link Hardware} is created for an op mode.
+     */
+    static void reset() {
+        entries.clear();
+        entryList.clear();
+        enabled = LiveMatchTuning.hardwareProfilerEnabled;
+    }
+
+    /**
+     * @return a copy of every entry, slowest total session time first.
+     */
+    public static List<Entry> getRanked() {
+        List<Entry> ranked = new ArrayList<>(entryList);
+        ranked.sort(SLOWEST_FIRST);
+        return ranked;
+    }
+
+    /**
+     * Formats the slowest devices for telemetry, one device per line.
+     *
+     * @param count how many devices to show.
+     * @return the formatted table.
+     */
+    public static String formatTopDevices(int count) {
+        if (!enabled) {
+            return "Disabled";
+        }
+        List<Entry> ranked = getRanked();
+        if (ranked.isEmpty()) {
+            return "No reads recorded";
+        }
+        StringBuilder builder = new StringBuilder();
+        int shown = Math.min(Math.max(0, count), ranked.size());
+        for (int i = 0; i < shown; i++) {
+            Entry entry = ranked.get(i);
+            builder.append(String.format(Locale.US,
+                    "<br>&nbsp;&nbsp;%d. %s: tick %.2fms/%d (max %.2fms), avg %.2fms, worst %.2fms",
+                    i + 1,
+                    entry.deviceName,
+                    entry.lastTickNanos / 1e6,
+                    entry.lastTickCalls,
+                    entry.lastTickMaxNanos / 1e6,
+                    entry.getSessionAverageNanos() / 1e6,
+                    entry.sessionMaxNanos / 1e6));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Writes the session stats of every device to a CSV file in the robot data directory.
+     *
+     * @param fileName the name of the file to write.
+     * @return the file written.
+     * @throws IOException if the file cannot be written.
+     */
+    public static File dump(String fileName) throws IOException {
+        File file = new File(AppUtil.ROBOT_DATA_DIR, fileName);
+        try (PrintWriter writer = new PrintWriter(file)) {
+            writer.println("device,calls,total_ms,avg_ms,worst_ms");
+            for (Entry entry : getRanked()) {
+                writer.printf(Locale.US, "%s,%d,%.3f,%.3f,%.3f%n",
+                        entry.deviceName,
+                        entry.sessionCalls,
+                        entry.sessionNanos / 1e6,
+                        entry.getSessionAverageNanos() / 1e6,
+                        entry.sessionMaxNanos / 1e6);
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Read timing stats for a single device.
+     */
+    public static final class Entry {
+        private final String deviceName;
+        private int tickCalls;
+        private long tickNanos;
+        private long tickMaxNanos;
+        private int lastTickCalls;
+        private long lastTickNanos;
+        private long lastTickMaxNanos;
+        private long sessionCalls;
+        private long sessionNanos;
+        private long sessionMaxNanos;
+
+        private Entry(String deviceName) {
+            this.deviceName = deviceName;
+        }
+
+        void record(long nanos) {
+            tickCalls++;
+            tickNanos += nanos;
+            if (nanos > tickMaxNanos) {
+                tickMaxNanos = nanos;
+            }
+            sessionCalls++;
+            sessionNanos += nanos;
+            if (nanos > sessionMaxNanos) {
+                sessionMaxNanos = nanos;
+            }
+        }
+
+        private void endTick() {
+            lastTickCalls = tickCalls;
+            lastTickNanos = tickNanos;
+            lastTickMaxNanos = tickMaxNanos;
+            tickCalls = 0;
+            tickNanos = 0;
+            tickMaxNanos = 0;
+        }
+
+        public String getDeviceName() {
+            return deviceName;
+        }
+
+        public int getLastTickCalls() {
+            return lastTickCalls;
+        }
+
+        public long getLastTickNanos() {
+            return lastTickNanos;
+        }
+
+        public long getLastTickMaxNanos() {
+            return lastTickMaxNanos;
+        }
+
+        public long getSessionCalls() {
+            return sessionCalls;
+        }
+
+        public long getSessionNanos() {
+            return sessionNanos;
+        }
+
+        public long getSessionMaxNanos() {
+            return sessionMaxNanos;
+        }
+
+        public double getSessionAverageNanos() {
+            return sessionCalls == 0 ? 0 : (double) sessionNanos / sessionCalls;
+        }
+    }
+}
@@ -10,12 +10,20 @@ import org.firstinspires.ftc.teamcode.hardware.filters.RollingAverage;
 import org.firstinspires.ftc.teamcode.utilities.LiveMatchTuning;
 import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
 import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.function.DoubleSupplier;
 
 public class SmartColorSensor extends Device implements NormalizedColorSensor, Caching, ScoringColorSensor, WrappedDevice<NormalizedColorSensor> {
+    private static final Logger log = LoggerFactory.getLogger(SmartColorSensor.class);
+    private static final long WARN_THROTTLE_MS = 1000;
+    private static final long POLLER_JOIN_TIMEOUT_MS = 100;
+
     private final NormalizedColorSensor colorSensor;
     private final HardwareCache<NormalizedRGBA> colorCache;
     private final HardwareCache<HsvReading> hsvCache;
-    private final HardwareCache<Double> distanceCacheMm;
+    private final DoubleHardwareCache distanceCacheMm;
     private final ColorMatchConfig.ColorMatchProfile colorProfile;
     private DataFilter hueFilter = DataFilter.NONE;
     private DataFilter saturationFilter = DataFilter.NONE;
@@ -24,6 +32,15 @@ public class SmartColorSensor extends Device implements NormalizedColorSensor, C
     private int appliedSaturationFilterWindow = Integer.MIN_VALUE;
     private int appliedValueFilterWindow = Integer.MIN_VALUE;
     private int appliedGain = Integer.MIN_VALUE;
+    private final NormalizedRGBA asyncColors = new NormalizedRGBA();
+    private long asyncColorsNanos;
+    private final float[] hsvScratch = new float[3];
+    private final HsvReading hsvReading = new HsvReading();
+    private boolean hsvFilteredAsyncSample = false;
+    private long hsvFilteredSampleNanos;
+    private final ColorMatchResult scoringMatch = new ColorMatchResult();
+    private volatile Thread pollerThread = null;
+    private volatile ColorReading latestReading = null;
 
     SmartColorSensor(NormalizedColorSensor colorSensor, String configName) {
         this(colorSensor, configName, ColorMatchConfig.frontProfile());
@@ -37,11 +54,12 @@ public class SmartColorSensor extends Device implements NormalizedColorSensor, C
         super(configName);
         this.colorSensor = colorSensor;
         this.colorProfile = colorProfile == null ? ColorMatchConfig.frontProfile() : colorProfile;
-        this.colorCache = new HardwareCache<>(colorSensor::getNormalizedColors);
+        this.colorCache = new HardwareCache<>(this::readColors);
         this.hsvCache = new HardwareCache<>(this::computeCachedHsvReading);
         this.distanceCacheMm = colorSensor instanceof DistanceSensor
-                ? new HardwareCache<>(() -> ((DistanceSensor) colorSensor).getDistance(DistanceUnit.MM))
+                ? new DoubleHardwareCache(this::readDistanceMm)
                 : null;
+        ReadProfiler.attach(configName, colorCache, distanceCacheMm);
         syncConfiguredGain();
     }
 
@@ -52,13 +70,58 @@ public class SmartColorSensor extends Device implements NormalizedColorSensor, C
 
     /**
      * Reads the current color and returns it as HSV values.
+     * This allocates a new array on every call; prefer {@link #readHsv(float[])} or the single channel getters in loop code.
      * @return array containing the Hue, Saturation and Value floats in that order.
      */
     public float[] getHSV() {
+        float[] hsv = new float[3];
+        readHsv(hsv);
+        return hsv;
+    }
+
+    /**
+     * Reads the current color as HSV values into a caller-supplied array.
+     *
+     * @param out array of at least 3 elements that receives the Hue, Saturation and Value in that order.
+     * @return {@code out}, for chaining.
+     * @throws IllegalArgumentException if {@code out} has fewer than 3 elements.
+     */
+    public float[] readHsv(float[] out) {
+        if (out == null || out.length < 3) {
+            throw new IllegalArgumentException("HSV output array must have at least 3 elements");
+        }
+        HsvReading hsv = readHsvReading();
+        out[0] = hsv.hue;
+        out[1] = hsv.saturation;
+        out[2] = hsv.value;
+        return out;
+    }
+
+    /**
+     * @return the current hue, in the 0-360 range.
+     */
+    public float getHue() {
+        return readHsvReading().hue;
+    }
+
+    /**
+     * @return the current saturation, in the 0-1 range.
+     */
+    public float getSaturation() {
+        return readHsvReading().saturation;
+    }
+
+    /**
+     * @return the current value (brightness), in the 0-1 range.
+     */
+    public float getValue() {
+        return readHsvReading().value;
+    }
+
+    private HsvReading readHsvReading() {
         syncConfiguredGain();
         syncConfiguredFilters();
-        HsvReading hsv = hsvCache.read();
-        return new float[]{hsv.hue, hsv.saturation, hsv.value};
+        return hsvCache.read();
     }
 
     public void setHsvFilters(DataFilter hueFilter, DataFilter saturationFilter, DataFilter valueFilter) {
@@ -68,6 +131,7 @@ public class SmartColorSensor extends Device implements NormalizedColorSensor, C
         this.appliedHueFilterWindow = Integer.MIN_VALUE;
         this.appliedSaturationFilterWindow = Integer.MIN_VALUE;
         this.appliedValueFilterWindow = Integer.MIN_VALUE;
+        hsvFilteredAsyncSample = false;
         hsvCache.invalidateCache();
     }
 
@@ -111,8 +175,8 @@ public class SmartColorSensor extends Device implements NormalizedColorSensor, C
      * @return the approximate color detected by the sensor. If no scoring element color is detected returns ScoringElementColor.NONE.
      */
     public @NonNull ScoringElementColor getScoringElementColor() {
-        float[] hsv = getHSV();
-        return matchScoringElementColor(colorProfile, hsv[0], hsv[1], hsv[2]);
+        HsvReading hsv = readHsvReading();
+        return getColorMatchResult(colorProfile, hsv.hue, hsv.saturation, hsv.value, scoringMatch).detectedColor;
     }
 
     /**
@@ -122,8 +186,18 @@ public class SmartColorSensor extends Device implements NormalizedColorSensor, C
      */
     @Override
     public ColorMatchResult getColorMatchResult() {
-        float[] hsv = getHSV();
-        return getColorMatchResult(colorProfile, hsv[0], hsv[1], hsv[2]);
+        return readColorMatchResult(new ColorMatchResult());
+    }
+
+    /**
+     * Gets detailed color matching information without allocating.
+     *
+     * @param out the result to fill in.
+     * @return {@code out}, for chaining.
+     */
+    public ColorMatchResult readColorMatchResult(ColorMatchResult out) {
+        HsvReading hsv = readHsvReading();
+        return getColorMatchResult(colorProfile, hsv.hue, hsv.saturation, hsv.value, out);
     }
 
     /**
@@ -158,6 +232,26 @@ public class SmartColorSensor extends Device implements NormalizedColorSensor, C
             float hue,
             float saturation,
             float value
+    ) {
+        return getColorMatchResult(profile, hue, saturation, value, new ColorMatchResult());
+    }
+
+    /**
+     * Returns detailed matching result for arbitrary HSV input, filling in a caller-supplied result instead of allocating.
+     *
+     * @param profile DI-injected profile used for matching
+     * @param hue hue in 0-360 range (values outside range are normalized)
+     * @param saturation saturation in 0-1 range
+     * @param value value/brightness in 0-1 range
+     * @param out the result to fill in
+     * @return {@code out}, for chaining
+     */
+    public static ColorMatchResult getColorMatchResult(
+            ColorMatchConfig.ColorMatchProfile profile,
+            float hue,
+            float saturation,
+            float value,
+            ColorMatchResult out
     ) {
         ColorMatchConfig.ColorMatchProfile safeProfile = profile == null
                 ? ColorMatchConfig.frontProfile()
@@ -170,13 +264,14 @@ public class SmartColorSensor extends Device implements NormalizedColorSensor, C
         hue = normalizeHue(hue);
 
         if (saturation < minSaturationThreshold || value < minValueThreshold) {
-            return new ColorMatchResult(ScoringElementColor.NONE, hue, saturation, value, 0.0f);
+            return out.set(ScoringElementColor.NONE, hue, saturation, value, 0.0f);
         }
 
         ColorMatchConfig.ColorPreset bestMatch = null;
         float bestConfidence = 0.0f;
 
-        for (ColorMatchConfig.ColorPreset preset : activePresets) {
+        for (int i = 0; i < activePresets.length; i++) {
+            ColorMatchConfig.ColorPreset preset = activePresets[i];
             if (preset.matches(hue, saturation, value, hueTolerance)) {
                 float confidence = preset.getMatchConfidence(hue, saturation, value, hueTolerance);
                 if (confidence > bestConfidence) {
@@ -187,7 +282,129 @@ public class SmartColorSensor extends Device implements NormalizedColorSensor, C
         }
 
         ScoringElementColor detectedColor = bestMatch != null ? bestMatch.color : ScoringElementColor.NONE;
-        return new ColorMatchResult(detectedColor, hue, saturation, value, bestConfidence);
+        return out.set(detectedColor, hue, saturation, value, bestConfidence);
+    }
+
+    /**
+     * Starts sampling color and distance on a background thread instead of in the main loop.
+     * The loop then only reads the most recent sample, so a slow I2C transaction no longer stalls a tick.
+     * Use {@link #getReadingAgeMs()} to check how old the sample being read is.
+     *
+     * @param rateHz how many samples to take per second.
+     * @throws IllegalArgumentException if {@code rateHz} is not positive.
+     */
+    public void startAsyncPolling(double rateHz) {
+        if (!(rateHz > 0)) {
+            throw new IllegalArgumentException("Poll rate must be positive");
+        }
+        stopAsyncPolling();
+        long periodNanos = (long) (1e9 / rateHz);
+        Thread thread = new Thread(() -> pollLoop(periodNanos), "ColorPoller-" + getConfigName());
+        thread.setDaemon(true);
+        latestReading = null;
+        pollerThread = thread;
+        thread.start();
+    }
+
+    /**
+     * Stops the background poller, if running, and returns to reading the sensor synchronously.
+     */
+    public void stopAsyncPolling() {
+        Thread thread = pollerThread;
+        pollerThread = null;
+        if (thread == null) {
+            return;
+        }
+        thread.interrupt();
+        try {
+            thread.join(POLLER_JOIN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public boolean isAsyncPolling() {
+        return pollerThread != null;
+    }
+
+    /**
+     * @return the most recent sample taken by the background poller, or null if none has been taken yet.
+     */
+    public ColorReading getLatestReading() {
+        return latestReading;
+    }
+
+    /**
+     * @return how old the sample currently being read is, in milliseconds. Always 0 when reading synchronously,
+     * and {@link Double#POSITIVE_INFINITY} if the poller has not produced a sample yet.
+     */
+    public double getReadingAgeMs() {
+        if (pollerThread == null) {
+            return 0;
+        }
+        ColorReading reading = latestReading;
+        if (reading == null) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return (System.nanoTime() - reading.timestampNanos) / 1e6;
+    }
+
+    /**
+     * @param maxAgeMs the oldest a sample may be before it is considered stale.
+     * @return whether the sample currently being read is older than {@code maxAgeMs}.
+     */
+    public boolean isReadingStale(double maxAgeMs) {
+        return getReadingAgeMs() > maxAgeMs;
+    }
+
+    private void pollLoop(long periodNanos) {
+        long lastWarnMs = 0;
+        while (pollerThread == Thread.currentThread()) {
+            long start = System.nanoTime();
+            try {
+                NormalizedRGBA colors = colorSensor.getNormalizedColors();
+                double distanceMm = colorSensor instanceof DistanceSensor
+                        ? ((DistanceSensor) colorSensor).getDistance(DistanceUnit.MM)
+                        : Double.NaN;
+                latestReading = new ColorReading(colors.red, colors.green, colors.blue, colors.alpha, distanceMm, start);
+            } catch (Exception e) {
+                long now = System.currentTimeMillis();
+                if (now - lastWarnMs >= WARN_THROTTLE_MS) {
+                    lastWarnMs = now;
+                    log.warn("Color sensor background read failed", e);
+                }
+            }
+
+            long remainingNanos = periodNanos - (System.nanoTime() - start);
+            if (remainingNanos > 0) {
+                try {
+                    Thread.sleep(remainingNanos / 1_000_000L, (int) (remainingNanos % 1_000_000L));
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private NormalizedRGBA readColors() {
+        ColorReading reading = latestReading;
+        if (pollerThread == null || reading == null) {
+            return colorSensor.getNormalizedColors();
+        }
+        asyncColors.red = reading.red;
+        asyncColors.green = reading.green;
+        asyncColors.blue = reading.blue;
+        asyncColors.alpha = reading.alpha;
+        asyncColorsNanos = reading.timestampNanos;
+        return asyncColors;
+    }
+
+    private double readDistanceMm() {
+        ColorReading reading = latestReading;
+        if (pollerThread == null || reading == null) {
+            return ((DistanceSensor) colorSensor).getDistance(DistanceUnit.MM);
+        }
+        return reading.distanceMm;
     }
 
     public void setGain(float gain){
@@ -227,19 +444,33 @@ public class SmartColorSensor extends Device implements NormalizedColorSensor, C
         int valueWindow = Math.max(0, LiveMatchTuning.colorSensorValueFilterWindow);
 
         if (hueWindow != appliedHueFilterWindow) {
-            hueFilter = hueWindow == 0 ? DataFilter.NONE : new RollingAverage(hueWindow);
+            hueFilter = resizeFilter(hueFilter, hueWindow);
             appliedHueFilterWindow = hueWindow;
         }
         if (saturationWindow != appliedSaturationFilterWindow) {
-            saturationFilter = saturationWindow == 0 ? DataFilter.NONE : new RollingAverage(saturationWindow);
+            saturationFilter = resizeFilter(saturationFilter, saturationWindow);
             appliedSaturationFilterWindow = saturationWindow;
         }
         if (valueWindow != appliedValueFilterWindow) {
-            valueFilter = valueWindow == 0 ? DataFilter.NONE : new RollingAverage(valueWindow);
+            valueFilter = resizeFilter(valueFilter, valueWindow);
             appliedValueFilterWindow = valueWindow;
         }
     }
 
+    /**
+     * Resizes a rolling average in place so live tuning keeps its history, otherwise replaces the filter.
+     */
+    private static DataFilter resizeFilter(DataFilter filter, int window) {
+        if (window == 0) {
+            return DataFilter.NONE;
+        }
+        if (filter instanceof RollingAverage) {
+            ((RollingAverage) filter).setMaxSize(window);
+            return filter;
+        }
+        return new RollingAverage(window);
+    }
+
     private static float normalizeHue(float hue) {
         float normalized = hue % 360f;
         if (normalized < 0f) {
@@ -308,6 +539,7 @@ public class SmartColorSensor extends Device implements NormalizedColorSensor, C
      */
     @Override
     public void close() {
+        stopAsyncPolling();
         colorSensor.close();
     }
 
@@ -359,22 +591,58 @@ public class SmartColorSensor extends Device implements NormalizedColorSensor, C
         return colorCache.getStrategy();
     }
 
+    @Override
+    public void setRefreshInterval(DoubleSupplier intervalMs, int intervalTicks) {
+        colorCache.setRefreshInterval(intervalMs, intervalTicks);
+        hsvCache.setRefreshInterval(intervalMs, intervalTicks);
+        if (distanceCacheMm != null) {
+            distanceCacheMm.setRefreshInterval(intervalMs, intervalTicks);
+        }
+    }
+
+    @Override
+    public void setDeadline(DoubleSupplier tickBudgetMs) {
+        colorCache.setDeadline(tickBudgetMs);
+        hsvCache.setDeadline(tickBudgetMs);
+        if (distanceCacheMm != null) {
+            distanceCacheMm.setDeadline(tickBudgetMs);
+        }
+    }
+
+    /**
+     * Gives access to the caching of distance reads alone, so they can be refreshed on a different schedule than color.
+     *
+     * @return the caching of distance reads, or null if this sensor has no distance sensing.
+     */
+    public Caching getDistanceCaching() {
+        return distanceCacheMm;
+    }
+
     /**
      * Data class containing detailed color matching results.
+     * Instances may be reused by passing them to {@link #getColorMatchResult(ColorMatchConfig.ColorMatchProfile, float, float, float, ColorMatchResult)},
+     * so copy out any fields you need to keep.
      */
     public static class ColorMatchResult {
-        public final ScoringElementColor detectedColor;
-        public final float hue;
-        public final float saturation;
-        public final float value;
-        public final float confidence;
+        public ScoringElementColor detectedColor = ScoringElementColor.NONE;
+        public float hue;
+        public float saturation;
+        public float value;
+        public float confidence;
+
+        public ColorMatchResult() {}
 
         public ColorMatchResult(ScoringElementColor detectedColor, float hue, float saturation, float value, float confidence) {
+            set(detectedColor, hue, saturation, value, confidence);
+        }
+
+        ColorMatchResult set(ScoringElementColor detectedColor, float hue, float saturation, float value, float confidence) {
             this.detectedColor = detectedColor;
             this.hue = hue;
             this.saturation = saturation;
             this.value = value;
             this.confidence = confidence;
+            return this;
         }
 
         @NotNull
@@ -386,25 +654,57 @@ public class SmartColorSensor extends Device implements NormalizedColorSensor, C
         }
     }
 
+    /**
+     * A single color and distance sample taken by the background poller.
+     */
+    public static final class ColorReading {
+        public final float red;
+        public final float green;
+        public final float blue;
+        public final float alpha;
+        /**
+         * Distance in millimeters, or {@link Double#NaN} if the sensor has no distance sensing.
+         */
+        public final double distanceMm;
+        /**
+         * {@link System#nanoTime()} when the sample was started.
+         */
+        public final long timestampNanos;
+
+        private ColorReading(float red, float green, float blue, float alpha, double distanceMm, long timestampNanos) {
+            this.red = red;
+            this.green = green;
+            this.blue = blue;
+            this.alpha = alpha;
+            this.distanceMm = distanceMm;
+            this.timestampNanos = timestampNanos;
+        }
+    }
+
+    /**
+     * Refills the single reused {@link HsvReading}; only the main loop thread reads it, so nothing needs to be allocated.
+     */
     private HsvReading computeCachedHsvReading() {
-        float[] hsv = new float[3];
-        Color.colorToHSV(colorCache.read().toColor(), hsv);
-        return new HsvReading(
-                normalizeHue((float) hueFilter.compute(hsv[0])),
-                clamp01((float) saturationFilter.compute(hsv[1])),
-                clamp01((float) valueFilter.compute(hsv[2]))
-        );
+        // The poller samples slower than the loop runs, so feeding the filters on every read would count one sample
+        // several times and skew the rolling averages toward whichever samples happened to span more loops
+        NormalizedRGBA colors = colorCache.read();
+        boolean asyncSample = colors == asyncColors;
+        if (asyncSample && hsvFilteredAsyncSample && asyncColorsNanos == hsvFilteredSampleNanos) {
+            return hsvReading;
+        }
+        float[] hsv = hsvScratch;
+        Color.colorToHSV(colors.toColor(), hsv);
+        hsvReading.hue = normalizeHue((float) hueFilter.compute(hsv[0]));
+        hsvReading.saturation = clamp01((float) saturationFilter.compute(hsv[1]));
+        hsvReading.value = clamp01((float) valueFilter.compute(hsv[2]));
+        hsvFilteredAsyncSample = asyncSample;
+        hsvFilteredSampleNanos = asyncColorsNanos;
+        return hsvReading;
     }
 
     private static final class HsvReading {
-        private final float hue;
-        private final float saturation;
-        private final float value;
-
-        private HsvReading(float hue, float saturation, float value) {
-            this.hue = hue;
-            this.saturation = saturation;
-            this.value = value;
-        }
+        private float hue;
+        private float saturation;
+        private float value;
     }
 }
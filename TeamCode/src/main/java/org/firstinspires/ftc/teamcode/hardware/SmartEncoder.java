@@ -4,13 +4,15 @@ import com.qualcomm.robotcore.hardware.DcMotorEx;
 import com.qualcomm.robotcore.hardware.DcMotorSimple;
 import org.firstinspires.ftc.teamcode.utilities.Direction;
 
+import java.util.function.DoubleSupplier;
+
 /**
  * SmartEncoder is a wrapper around either a RoadRunner Encoder or a DcMotorEx encoder,
  * providing caching and additional functionality like resetting offsets and direction control.
  */
 public class SmartEncoder extends Device implements Caching {
-    private final HardwareCache<Integer> positionCache;
-    private final HardwareCache<Double> velocityCache;
+    private final IntHardwareCache positionCache;
+    private final DoubleHardwareCache velocityCache;
     private final boolean usesBase;
     private BaseEncoder encoder;
     private int tickOffsetToZero;
@@ -27,11 +29,25 @@ public class SmartEncoder extends Device implements Caching {
         this.usesBase = isExternal;
         if(usesBase){
             this.encoder = new BaseEncoder(motor);
-            this.positionCache = new HardwareCache<>(encoder::getCurrentPosition);
-            this.velocityCache = new HardwareCache<>(encoder::getCorrectedVelocity);
+            this.positionCache = new IntHardwareCache(encoder::getCurrentPosition);
+            // the overflow correction relies on regular position samples, so make sure this tick's position is read first.
+            // Only the velocity read itself is timed here; the position read is timed by its own cache.
+            ReadProfiler.Entry profileEntry = ReadProfiler.entry(name);
+            this.velocityCache = new DoubleHardwareCache(() -> {
+                positionCache.read();
+                if (!ReadProfiler.isEnabled()) {
+                    return encoder.getCorrectedVelocity();
+                }
+                long start = System.nanoTime();
+                double velocity = encoder.getCorrectedVelocity();
+                profileEntry.record(System.nanoTime() - start);
+                return velocity;
+            });
+            ReadProfiler.attach(name, positionCache);
         } else {
-            this.positionCache = new HardwareCache<>(motor::getCurrentPosition);
-            this.velocityCache = new HardwareCache<>(motor::getVelocity);
+            this.positionCache = new IntHardwareCache(motor::getCurrentPosition);
+            this.velocityCache = new DoubleHardwareCache(motor::getVelocity);
+            ReadProfiler.attach(name, positionCache, velocityCache);
         }
     }
 
@@ -43,8 +59,9 @@ public class SmartEncoder extends Device implements Caching {
     SmartEncoder(DcMotorEx motor, String name) {
         super(name);
         this.usesBase = false;
-        this.positionCache = new HardwareCache<>(motor::getCurrentPosition);
-        this.velocityCache = new HardwareCache<>(motor::getVelocity);
+        this.positionCache = new IntHardwareCache(motor::getCurrentPosition);
+        this.velocityCache = new DoubleHardwareCache(motor::getVelocity);
+        ReadProfiler.attach(name, positionCache, velocityCache);
     }
 
     /**
@@ -108,6 +125,18 @@ public class SmartEncoder extends Device implements Caching {
         return positionCache.getStrategy();
     }
 
+    @Override
+    public void setRefreshInterval(DoubleSupplier intervalMs, int intervalTicks) {
+        positionCache.setRefreshInterval(intervalMs, intervalTicks);
+        velocityCache.setRefreshInterval(intervalMs, intervalTicks);
+    }
+
+    @Override
+    public void setDeadline(DoubleSupplier tickBudgetMs) {
+        positionCache.setDeadline(tickBudgetMs);
+        velocityCache.setDeadline(tickBudgetMs);
+    }
+
     /**
      * Resets the encoder by setting the current position as the new zero.
      */
@@ -192,7 +221,6 @@ public class SmartEncoder extends Device implements Caching {
         }
 
         private final DcMotorEx motor;
-        private final long startTimeNanos;
 
         private Direction direction;
 
@@ -203,17 +231,12 @@ public class SmartEncoder extends Device implements Caching {
 
         public BaseEncoder(DcMotorEx motor) {
             this.motor = motor;
-            this.startTimeNanos = System.nanoTime();
 
             this.direction = Direction.FORWARD;
 
             this.lastPosition = 0;
             this.velocityEstimates = new double[3];
-            this.lastUpdateTime = seconds();
-        }
-
-        private double seconds() {
-            return (System.nanoTime() - startTimeNanos) / 1e9;
+            this.lastUpdateTime = TickClock.getTimestampSeconds();
         }
 
         public Direction getDirection() {
@@ -241,13 +264,16 @@ public class SmartEncoder extends Device implements Caching {
         public int getCurrentPosition() {
             int multiplier = getMultiplier();
             int currentPosition = motor.getCurrentPosition() * multiplier;
-            if (currentPosition != lastPosition) {
-                double currentTime = seconds();
-                double dt = currentTime - lastUpdateTime;
+            double currentTime = TickClock.getTimestampSeconds();
+            double dt = currentTime - lastUpdateTime;
+            // Positions read again within the same tick are folded into the next tick's estimate
+            if (currentPosition != lastPosition && dt > 0) {
                 velocityEstimates[velocityEstimateIdx] = (currentPosition - lastPosition) / dt;
                 velocityEstimateIdx = (velocityEstimateIdx + 1) % 3;
                 lastPosition = currentPosition;
                 lastUpdateTime = currentTime;
+            } else if (dt < 0) {
+                lastUpdateTime = currentTime;
             }
             return currentPosition;
         }
@@ -13,9 +13,12 @@ import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.Objects;
+import java.util.function.DoubleSupplier;
 import java.util.stream.Collectors;
 
 public class SmartLimelight3A extends Device implements Caching, WrappedDevice<Limelight3A> {
@@ -27,11 +30,23 @@ public class SmartLimelight3A extends Device implements Caching, WrappedDevice<L
     private final HardwareCache<LLStatus> statusCache;
     private long lastResultWarnMs = 0;
     private long lastStatusWarnMs = 0;
+
+    // The known tags of the latest valid frame, parsed once per frame, see indexFrame
+    private LLResult indexedResult;
+    private long indexedFrameNanos;
+    private double indexedCaptureSeconds = Double.NaN;
+    private double indexedLatencyMs = Double.NaN;
+    private final EnumMap<AprilTag.Type, AprilTag> frameTagsByType = new EnumMap<>(AprilTag.Type.class);
+    private AprilTag[] frameTags = new AprilTag[0];
+    private List<AprilTag> frameTagList = Collections.emptyList();
+    private AprilTag frameFirstObelisk;
+    private AprilTag frameFirstDepot;
     public SmartLimelight3A(String configName, Limelight3A limelight) {
         super(configName);
         this.limelight = limelight;
         this.resultCache = new HardwareCache<>(this::safeGetLatestResult);
         this.statusCache = new HardwareCache<>(this::safeGetStatus);
+        ReadProfiler.attach(configName, resultCache, statusCache);
     }
 
     @Override
@@ -47,6 +62,15 @@ public class SmartLimelight3A extends Device implements Caching, WrappedDevice<L
         limelight.stop();
     }
 
+    /**
+     * Gives access to the caching of status reads alone, so they can be refreshed less often than results.
+     *
+     * @return the caching of status reads, such as {@link #getFps()}.
+     */
+    public Caching getStatusCaching() {
+        return statusCache;
+    }
+
     public double getFps(){
         LLStatus status = statusCache.read();
         return status != null ? status.getFps() : 0;
@@ -195,21 +219,127 @@ public class SmartLimelight3A extends Device implements Caching, WrappedDevice<L
         return getRawFiducialDetails(Integer.MAX_VALUE);
     }
 
+    /**
+     * @return the known tags in the latest frame, in the order the Limelight reported them. The list is shared by every
+     * call during the same frame, so it cannot be changed.
+     */
     public List<AprilTag> getAprilTags() {
+        indexFrame();
+        return frameTagList;
+    }
+
+    public int getAprilTagCount() {
+        indexFrame();
+        return frameTags.length;
+    }
+
+    /**
+     * @param index from 0 to {@link #getAprilTagCount()}, in the order the Limelight reported the tags.
+     */
+    public AprilTag getAprilTag(int index) {
+        indexFrame();
+        return frameTags[index];
+    }
+
+    /**
+     * @return the first tag of this type in the latest frame, or null when it is not in view.
+     */
+    @Nullable
+    public AprilTag getAprilTag(AprilTag.Type type) {
+        indexFrame();
+        return frameTagsByType.get(type);
+    }
+
+    /**
+     * @return when the Control Hub received the latest frame, on the {@link System#nanoTime()} clock,
+     * or 0 when there is no valid frame.
+     */
+    public long getFrameTimestampNanos() {
+        indexFrame();
+        return indexedResult != null ? indexedFrameNanos : 0;
+    }
+
+    /**
+     * @return when the camera captured the latest frame, on the {@link TickClock} scale, or NaN when there is no valid
+     * frame. Anything that moved since then, such as the turret, moved after the tag bearings were measured.
+     */
+    public double getFrameCaptureTimestampSeconds() {
+        indexFrame();
+        return indexedResult != null ? indexedCaptureSeconds : Double.NaN;
+    }
+
+    /**
+     * @return the capture and pipeline latency of the latest frame in milliseconds, or NaN when there is no valid frame.
+     */
+    public double getFrameLatencyMs() {
+        indexFrame();
+        return indexedResult != null ? indexedLatencyMs : Double.NaN;
+    }
+
+    /**
+     * Parses the tags of a new frame. Calls during the same frame find the result already indexed and return straight
+     * away, so the accessors cost a reference check and a lookup, and only allocate when a new frame arrives.
+     */
+    private void indexFrame() {
         LLResult result = getValidResult();
-        if (result == null || result.getFiducialResults() == null) {
-            return List.of();
+        if (result == indexedResult) {
+            return;
+        }
+        long frameNanos = result != null ? result.getControlHubTimeStampNanos() : 0;
+        if (result != null && indexedResult != null && frameNanos == indexedFrameNanos) {
+            // The same frame read again
+            indexedResult = result;
+            return;
+        }
+        indexedResult = result;
+        indexedFrameNanos = frameNanos;
+        indexCaptureTime(result);
+        frameTagsByType.clear();
+        frameFirstObelisk = null;
+        frameFirstDepot = null;
+
+        List<LLResultTypes.FiducialResult> fiducials = result != null ? result.getFiducialResults() : null;
+        if (fiducials == null || fiducials.isEmpty()) {
+            frameTags = new AprilTag[0];
+            frameTagList = Collections.emptyList();
+            return;
+        }
+        AprilTag[] tags = new AprilTag[fiducials.size()];
+        int count = 0;
+        for (int i = 0; i < fiducials.size(); i++) {
+            LLResultTypes.FiducialResult fid = fiducials.get(i);
+            AprilTag tag = AprilTag.fromDetection(fid.getFiducialId(), fid.getTargetPoseCameraSpace(), frameNanos);
+            if (tag == null) {
+                continue;
+            }
+            tags[count++] = tag;
+            frameTagsByType.putIfAbsent(tag.type(), tag);
+            if (tag.isObelisk()) {
+                if (frameFirstObelisk == null) {
+                    frameFirstObelisk = tag;
+                }
+            } else if (frameFirstDepot == null) {
+                frameFirstDepot = tag;
+            }
         }
+        frameTags = count == tags.length ? tags : Arrays.copyOf(tags, count);
+        frameTagList = Collections.unmodifiableList(Arrays.asList(frameTags));
+    }
 
-        return result.getFiducialResults()
-                .stream()
-                .map(fid -> AprilTag.fromDetection(
-                        fid.getFiducialId(),
-                        fid.getTargetPoseCameraSpace(),
-                        System.nanoTime()
-                ))
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+    /**
+     * Works out when the frame was captured: the time since the Control Hub received it, plus the latency the
+     * Limelight reports for capturing and processing it. The age is taken against the live clock at the moment it is
+     * read, so the Control Hub timestamp and the tick clock do not need to share a time base.
+     */
+    private void indexCaptureTime(LLResult result) {
+        if (result == null) {
+            indexedCaptureSeconds = Double.NaN;
+            indexedLatencyMs = Double.NaN;
+            return;
+        }
+        indexedLatencyMs = result.getCaptureLatency() + result.getTargetingLatency();
+        double ageMs = result.getStaleness() + indexedLatencyMs + LiveMatchTuning.limelightExtraLatencyMs;
+        indexedCaptureSeconds = TickClock.readLiveSeconds() - ageMs / 1000.0;
     }
 
     private LLResult getValidResult() {
@@ -279,19 +409,13 @@ public class SmartLimelight3A extends Device implements Caching, WrappedDevice<L
     }
 
     public AprilTag getFirstObelisk() {
-        return getAprilTags()
-                .stream()
-                .filter(AprilTag::isObelisk)
-                .findFirst()
-                .orElse(null);
+        indexFrame();
+        return frameFirstObelisk;
     }
 
     public AprilTag getFirstDepot() {
-        return getAprilTags()
-                .stream()
-                .filter(tag -> !tag.isObelisk())
-                .findFirst()
-                .orElse(null);
+        indexFrame();
+        return frameFirstDepot;
     }
 
 
@@ -318,6 +442,18 @@ public class SmartLimelight3A extends Device implements Caching, WrappedDevice<L
         return resultCache.getStrategy();
     }
 
+    @Override
+    public void setRefreshInterval(DoubleSupplier intervalMs, int intervalTicks) {
+        resultCache.setRefreshInterval(intervalMs, intervalTicks);
+        statusCache.setRefreshInterval(intervalMs, intervalTicks);
+    }
+
+    @Override
+    public void setDeadline(DoubleSupplier tickBudgetMs) {
+        resultCache.setDeadline(tickBudgetMs);
+        statusCache.setDeadline(tickBudgetMs);
+    }
+
     public static final class AprilTag {
 
         public enum Type {
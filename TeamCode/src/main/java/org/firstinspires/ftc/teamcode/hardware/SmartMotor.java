@@ -5,22 +5,25 @@ import com.qualcomm.robotcore.hardware.configuration.typecontainers.MotorConfigu
 import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
 import org.firstinspires.ftc.robotcore.external.navigation.CurrentUnit;
 
+import java.util.function.DoubleSupplier;
+
 public class SmartMotor extends Device implements DcMotorEx, Caching, WrappedDevice<DcMotorEx> {
 
     private final DcMotorEx motor;
 
     private final SmartEncoder encoder;
 
-    SmartMotor(DcMotorEx motor, String name){
-        super(name);
-        this.motor = motor;
-        this.encoder = new SmartEncoder(motor, name, false);
+    private final OutputStage.Output powerOutput;
+
+    SmartMotor(DcMotorEx motor, String name, OutputStage outputStage){
+        this(motor, name, false, outputStage);
     }
 
-    SmartMotor(DcMotorEx motor, String name, boolean hasExternalEncoder){
+    SmartMotor(DcMotorEx motor, String name, boolean hasExternalEncoder, OutputStage outputStage){
         super(name);
         this.motor = motor;
         this.encoder = new SmartEncoder(motor, name, hasExternalEncoder);
+        this.powerOutput = outputStage.registerMotor(motor.getController(), motor.getPortNumber(), motor::setPower);
     }
 
     @Override
@@ -62,6 +65,16 @@ public class SmartMotor extends Device implements DcMotorEx, Caching, WrappedDev
         return encoder.getStrategy();
     }
 
+    @Override
+    public void setRefreshInterval(DoubleSupplier intervalMs, int intervalTicks) {
+        encoder.setRefreshInterval(intervalMs, intervalTicks);
+    }
+
+    @Override
+    public void setDeadline(DoubleSupplier tickBudgetMs) {
+        encoder.setDeadline(tickBudgetMs);
+    }
+
     /**
      * Returns the assigned type for this motor. If no particular motor type has been
      * configured, then {@link MotorConfigurationType#getUnspecifiedMotorType()} will be returned.
@@ -157,6 +170,7 @@ public class SmartMotor extends Device implements DcMotorEx, Caching, WrappedDev
      */
     @Override
     public void setPowerFloat() {
+        powerOutput.reset();
         motor.setPowerFloat();
     }
 
@@ -241,6 +255,7 @@ public class SmartMotor extends Device implements DcMotorEx, Caching, WrappedDev
     @Override
     public void setMode(RunMode mode) {
         motor.setMode(mode);
+        powerOutput.markStale();
     }
 
     /**
@@ -284,24 +299,27 @@ public class SmartMotor extends Device implements DcMotorEx, Caching, WrappedDev
      *
      * <p>Setting a power level of zero will brake the motor</p>
      *
+     * <p>The power is staged in the {@link OutputStage} and sent when it is flushed at the end of the tick.</p>
+     *
      * @param power the new power level of the motor, a value in the interval [-1.0, 1.0]
      * @see #getPower()
      * @see DcMotor#setMode(RunMode)
      */
     @Override
     public void setPower(double power) {
-        motor.setPower(power);
+        powerOutput.set(power);
     }
 
     /**
-     * Returns the current configured power level of the motor.
+     * Returns the current configured power level of the motor, including a power staged but not yet sent.
      *
      * @return the current level of the motor, a value in the interval [0.0, 1.0]
      * @see #setPower(double)
      */
     @Override
     public double getPower() {
-        return motor.getPower();
+        double desired = powerOutput.getDesired();
+        return Double.isNaN(desired) ? motor.getPower() : desired;
     }
 
     /**
@@ -372,6 +390,7 @@ public class SmartMotor extends Device implements DcMotorEx, Caching, WrappedDev
     @Override
     public void setMotorEnable() {
         motor.setMotorEnable();
+        powerOutput.markStale();
     }
 
     /**
@@ -403,6 +422,7 @@ public class SmartMotor extends Device implements DcMotorEx, Caching, WrappedDev
      */
     @Override
     public void setVelocity(double angularRate) {
+        powerOutput.reset();
         motor.setVelocity(angularRate);
     }
 
@@ -415,6 +435,7 @@ public class SmartMotor extends Device implements DcMotorEx, Caching, WrappedDev
      */
     @Override
     public void setVelocity(double angularRate, AngleUnit unit) {
+        powerOutput.reset();
         motor.setVelocity(angularRate, unit);
     }
 
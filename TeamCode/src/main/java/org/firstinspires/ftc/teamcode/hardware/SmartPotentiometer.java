@@ -1,5 +1,7 @@
 package org.firstinspires.ftc.teamcode.hardware;
 
+import java.util.function.DoubleSupplier;
+
 /**
  * A class that converts an analog signal into a potentiometer based absolute encoder.
  * This class allows reading angular positions and adjusting offsets.
@@ -8,7 +10,7 @@ public class SmartPotentiometer extends Device implements Caching {
 	private final SmartAnalogInput input;
 	private final double maxAngle, maxVoltage;
 	private double offsetToZero;
-	private final HardwareCache<Double> rawAngleCache;
+	private final DoubleHardwareCache rawAngleCache;
 	private boolean normalize;
 
 	/**
@@ -37,7 +39,8 @@ public class SmartPotentiometer extends Device implements Caching {
 		this.maxAngle = maxAngle;
 		this.maxVoltage = maxVoltage;
 		this.offsetToZero = offset;
-		this.rawAngleCache = new HardwareCache<>(() -> voltageToAngle(input.getVoltage()));
+		this.rawAngleCache = new DoubleHardwareCache(() -> voltageToAngle(input.getVoltage()));
+		ReadProfiler.attach(name, rawAngleCache);
 		this.normalize = false;
 	}
 
@@ -142,6 +145,16 @@ public class SmartPotentiometer extends Device implements Caching {
 		return rawAngleCache.getStrategy();
 	}
 
+	@Override
+	public void setRefreshInterval(DoubleSupplier intervalMs, int intervalTicks){
+		rawAngleCache.setRefreshInterval(intervalMs, intervalTicks);
+	}
+
+	@Override
+	public void setDeadline(DoubleSupplier tickBudgetMs){
+		rawAngleCache.setDeadline(tickBudgetMs);
+	}
+
 	private static double voltageToAngle(double v){
 		return -1.96682 * Math.pow(v, 3) - 7.04864 * Math.pow(v, 2) + 126.39282 * v;
 	}
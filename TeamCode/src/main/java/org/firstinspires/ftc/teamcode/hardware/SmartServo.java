@@ -3,15 +3,21 @@ package org.firstinspires.ftc.teamcode.hardware;
 import com.qualcomm.robotcore.hardware.Servo;
 import com.qualcomm.robotcore.hardware.ServoController;
 
+import java.util.function.DoubleSupplier;
+
 public class SmartServo extends Device implements Servo, Caching, WrappedDevice<Servo> {
     private final Servo baseServo;
 
-    private final HardwareCache<Double> positionCache;
+    private final DoubleHardwareCache positionCache;
+
+    private final OutputStage.Output positionOutput;
 
-    SmartServo(Servo baseServo, String configName){
+    SmartServo(Servo baseServo, String configName, OutputStage outputStage){
         super(configName);
         this.baseServo = baseServo;
-        this.positionCache = new HardwareCache<>(baseServo::getPosition);
+        this.positionCache = new DoubleHardwareCache(baseServo::getPosition);
+        ReadProfiler.attach(configName, positionCache);
+        this.positionOutput = outputStage.registerServo(baseServo.getController(), baseServo.getPortNumber(), baseServo::setPosition);
     }
 
     @Override
@@ -51,6 +57,7 @@ public class SmartServo extends Device implements Servo, Caching, WrappedDevice<
     @Override
     public void setDirection(Direction direction) {
         baseServo.setDirection(direction);
+        positionOutput.markStale();
     }
 
     /**
@@ -69,14 +76,15 @@ public class SmartServo extends Device implements Servo, Caching, WrappedDevice<
      * range. If PWM power is enabled for the servo, the servo will attempt to move to
      * the indicated position.
      *
+     * <p>The position is staged in the {@link OutputStage} and sent when it is flushed at the end of the tick.</p>
+     *
      * @param position the position to which the servo should move, a value in the range [0.0, 1.0]
      * @see ServoController#pwmEnable()
      * @see #getPosition()
      */
     @Override
     public void setPosition(double position) {
-        baseServo.setPosition(position);
-        positionCache.invalidateCache();
+        positionOutput.set(position);
     }
 
     /**
@@ -85,14 +93,15 @@ public class SmartServo extends Device implements Servo, Caching, WrappedDevice<
      * mechanism is, generally, available.
      *
      * @return the position to which the servo was last commanded to move, or Double.NaN
-     * if no such position is known
+     * if no such position is known. Includes a position staged but not yet sent.
      * @see #setPosition(double)
      * @see Double#NaN
      * @see Double#isNaN()
      */
     @Override
     public double getPosition() {
-        return positionCache.read();
+        double desired = positionOutput.getDesired();
+        return Double.isNaN(desired) ? positionCache.read() : desired;
     }
 
     /**
@@ -122,6 +131,7 @@ public class SmartServo extends Device implements Servo, Caching, WrappedDevice<
     @Override
     public void scaleRange(double min, double max) {
         baseServo.scaleRange(min, max);
+        positionOutput.markStale();
     }
 
     /**
@@ -202,4 +212,14 @@ public class SmartServo extends Device implements Servo, Caching, WrappedDevice<
     public Strategy getStrategy() {
         return positionCache.getStrategy();
     }
+
+    @Override
+    public void setRefreshInterval(DoubleSupplier intervalMs, int intervalTicks) {
+        positionCache.setRefreshInterval(intervalMs, intervalTicks);
+    }
+
+    @Override
+    public void setDeadline(DoubleSupplier tickBudgetMs) {
+        positionCache.setDeadline(tickBudgetMs);
+    }
 }
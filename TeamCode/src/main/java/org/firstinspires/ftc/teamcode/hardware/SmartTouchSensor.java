@@ -2,18 +2,21 @@ package org.firstinspires.ftc.teamcode.hardware;
 
 import com.qualcomm.robotcore.hardware.TouchSensor;
 
+import java.util.function.DoubleSupplier;
+
 public class SmartTouchSensor extends Device implements TouchSensor, Caching, WrappedDevice<TouchSensor> {
 
     private final TouchSensor touchSensor;
 
-    private final HardwareCache<Boolean> pressingCache;
-    private final HardwareCache<Double> valueCache;
+    private final BooleanHardwareCache pressingCache;
+    private final DoubleHardwareCache valueCache;
 
     SmartTouchSensor(TouchSensor touchSensor, String configName){
         super(configName);
         this.touchSensor = touchSensor;
-        pressingCache = new HardwareCache<>(touchSensor::isPressed);
-        valueCache = new HardwareCache<>(touchSensor::getValue);
+        pressingCache = new BooleanHardwareCache(touchSensor::isPressed);
+        valueCache = new DoubleHardwareCache(touchSensor::getValue);
+        ReadProfiler.attach(configName, pressingCache, valueCache);
     }
 
     @Override
@@ -123,4 +126,16 @@ public class SmartTouchSensor extends Device implements TouchSensor, Caching, Wr
     public Strategy getStrategy() {
         return pressingCache.getStrategy();
     }
+
+    @Override
+    public void setRefreshInterval(DoubleSupplier intervalMs, int intervalTicks) {
+        pressingCache.setRefreshInterval(intervalMs, intervalTicks);
+        valueCache.setRefreshInterval(intervalMs, intervalTicks);
+    }
+
+    @Override
+    public void setDeadline(DoubleSupplier tickBudgetMs) {
+        pressingCache.setDeadline(tickBudgetMs);
+        valueCache.setDeadline(tickBudgetMs);
+    }
 }
@@ -0,0 +1,84 @@
+package org.firstinspires.ftc.teamcode.hardware;
+
+import java.util.function.LongSupplier;
+
+/**
+ * One timestamp per tick, shared by every controller and encoder.
+ * <p>
+ * {@link org.firstinspires.ftc.teamcode.core.OpModeCore} samples the clock once at the start of every tick, so
+ * everything updated during that tick sees the same time and the same dt, and the clock is read once instead of once per
+ * controller. The time source can be replaced, so a simulation or a log replay can drive the controllers with
+ * recorded timestamps. Only the main loop thread should sample or read the clock.
+ */
+public final class TickClock {
+    private static LongSupplier source = System::nanoTime;
+    private static long startNanos = source.getAsLong();
+    private static long tickNanos = startNanos;
+    private static double dtSeconds = 0;
+    private static long tickCount = 0;
+
+    private TickClock() {}
+
+    /**
+     * Reads the time source and starts a new tick. Called by the op mode before anything else in the tick.
+     */
+    public static void sample() {
+        long now = source.getAsLong();
+        dtSeconds = (now - tickNanos) / 1e9;
+        tickNanos = now;
+        tickCount++;
+    }
+
+    /**
+     * Restarts the clock at zero, for the start of an op mode.
+     */
+    public static void reset() {
+        startNanos = source.getAsLong();
+        tickNanos = startNanos;
+        dtSeconds = 0;
+        tickCount = 0;
+    }
+
+    /**
+     * Replaces the time source and restarts the clock.
+     *
+     * @param nanoTime returns the current time in nanoseconds, like {@link System#nanoTime()}.
+     */
+    public static void setSource(LongSupplier nanoTime) {
+        source = nanoTime;
+        reset();
+    }
+
+    /**
+     * @return the time of the current tick, in seconds since the clock was reset.
+     */
+    public static double getTimestampSeconds() {
+        return (tickNanos - startNanos) / 1e9;
+    }
+
+    /**
+     * @return the time of the current tick in nanoseconds, from the time source.
+     */
+    public static long getTimestampNanos() {
+        return tickNanos;
+    }
+
+    /**
+     * @return the time between the start of the previous tick and the current one.
+     */
+    public static double getDtSeconds() {
+        return dtSeconds;
+    }
+
+    public static long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Reads the time source directly, on the same scale as {@link #getTimestampSeconds()}.
+     * For code that runs outside the tick, such as a controller called without a timestamp.
+     */
+    public static double readLiveSeconds() {
+        return (source.getAsLong() - startNanos) / 1e9;
+    }
+}
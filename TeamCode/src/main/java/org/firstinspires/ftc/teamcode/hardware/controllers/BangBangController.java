@@ -1,24 +1,29 @@
 package org.firstinspires.ftc.teamcode.hardware.controllers;
 
-import com.qualcomm.robotcore.util.ElapsedTime;
+import org.firstinspires.ftc.teamcode.hardware.filters.ExponentialMovingAverage;
 import org.firstinspires.ftc.teamcode.utilities.Direction;
 import org.firstinspires.ftc.teamcode.utilities.Notifier;
 
-import java.util.function.Supplier;
+import java.util.function.DoubleSupplier;
 
 public class BangBangController implements PositionControlAlgorithm {
     private final Notifier noLongerBusyNotifier = new Notifier();
     private boolean isBusy = false, lastIsBusy = false;
-    private final Supplier<Double> tolerance;
-    private final Supplier<Double> maxDecel;
-    private final Supplier<Double> maxPower;
-    private final Supplier<Double> velocityTolerance, filterFraction, brakeMargin;
+    private final DoubleSupplier tolerance;
+    private final DoubleSupplier maxDecel;
+    private final DoubleSupplier maxPower;
+    private final DoubleSupplier velocityTolerance, filterFraction, brakeMargin;
+    // Settings read once per timestamp, see refreshSettings
+    private double toleranceValue, maxDecelValue, maxPowerValue;
+    private double velocityToleranceValue, filterFractionValue, brakeMarginValue;
+    private double settingsTimestampSec = Double.NaN;
     private double result;
     private boolean initialized = false;
     private double lastActual;
     private Direction direction;
-    private final ElapsedTime timer = new ElapsedTime();
+    private double lastTimestampSec;
     private double lastVelocity;
+    private final ExponentialMovingAverage velocityFilter;
 
     @Override
     public Notifier getNoLongerBusyNotifier() {
@@ -31,31 +36,35 @@ public class BangBangController implements PositionControlAlgorithm {
     }
 
     @Override
-    public double calcPosition(double target, double actual) {
+    public double calcPosition(double target, double actual, double timestampSec) {
+        refreshSettings(timestampSec);
         double error = target - actual;
         if (!initialized) {
             initialized = true;
             lastActual = actual;
-            timer.reset();
+            velocityFilter.reset(lastVelocity);
+            lastTimestampSec = timestampSec;
             result = 0;
             return result;
         }
 
-        double dt = timer.seconds();
-        timer.reset();
+        double dt = timestampSec - lastTimestampSec;
 
         if (dt <= 1e-6) {
+            if (dt < 0) {
+                // The clock was restarted, so measure from here
+                lastTimestampSec = timestampSec;
+            }
             return result;
         }
-
-        double fraction = filterFraction.get();
+        lastTimestampSec = timestampSec;
 
         double rawVelocity = (actual - lastActual) / dt;
-        double velocity = fraction * lastVelocity + (1 - fraction) * rawVelocity;
-        double stoppingDistance = (Math.pow(velocity, 2) / (2 * maxDecel.get())) + brakeMargin.get();
+        double velocity = velocityFilter.compute(rawVelocity);
+        double stoppingDistance = (Math.pow(velocity, 2) / (2 * maxDecelValue)) + brakeMarginValue;
         double distance = Math.abs(error);
 
-        if(distance < tolerance.get() && Math.abs(velocity) < velocityTolerance.get()){
+        if(distance < toleranceValue && Math.abs(velocity) < velocityToleranceValue){
             isBusy = false;
             if(lastIsBusy){
                 noLongerBusyNotifier.notifyWaitingThreads();
@@ -65,13 +74,13 @@ public class BangBangController implements PositionControlAlgorithm {
             isBusy = true;
             if (velocity * error <= 0) {
                 // moving away from target or stopped
-                result = Math.signum(error) * maxPower.get();
+                result = Math.signum(error) * maxPowerValue;
             } else if (distance > stoppingDistance) {
                 // still safe to keep accelerating toward target
-                result = Math.signum(error) * maxPower.get();
+                result = Math.signum(error) * maxPowerValue;
             } else {
                 // must brake
-                result = -Math.signum(velocity) * maxPower.get();
+                result = -Math.signum(velocity) * maxPowerValue;
             }
         }
 
@@ -79,11 +88,25 @@ public class BangBangController implements PositionControlAlgorithm {
         lastIsBusy = isBusy;
         lastVelocity = velocity;
 
-        timer.reset();
-
         return result;
     }
 
+    /**
+     * Reads every setting once per timestamp, so calls within one tick work on the same plain values.
+     */
+    private void refreshSettings(double timestampSec) {
+        if (timestampSec == settingsTimestampSec) {
+            return;
+        }
+        settingsTimestampSec = timestampSec;
+        toleranceValue = tolerance.getAsDouble();
+        maxDecelValue = maxDecel.getAsDouble();
+        maxPowerValue = maxPower.getAsDouble();
+        velocityToleranceValue = velocityTolerance.getAsDouble();
+        filterFractionValue = filterFraction.getAsDouble();
+        brakeMarginValue = brakeMargin.getAsDouble();
+    }
+
     @Override
     public double result() {
         return result;
@@ -96,7 +119,7 @@ public class BangBangController implements PositionControlAlgorithm {
 
     @Override
     public double getTolerance() {
-        return tolerance.get();
+        return tolerance.getAsDouble();
     }
 
     @Override
@@ -113,13 +136,15 @@ public class BangBangController implements PositionControlAlgorithm {
         return lastVelocity;
     }
 
-    public BangBangController(Supplier<Double> maxPower, Supplier<Double> maxDecel, Supplier<Double> tolerance, Supplier<Double> velocityTolerance, Supplier<Double> brakeMargin, Supplier<Double> filterFraction){
+    public BangBangController(DoubleSupplier maxPower, DoubleSupplier maxDecel, DoubleSupplier tolerance, DoubleSupplier velocityTolerance, DoubleSupplier brakeMargin, DoubleSupplier filterFraction){
         this.maxPower = maxPower;
         this.maxDecel = maxDecel;
         this.tolerance = tolerance;
         this.velocityTolerance = velocityTolerance;
         this.brakeMargin = brakeMargin;
         this.filterFraction = filterFraction;
+        // filterFraction is the weight kept from the previous velocity
+        this.velocityFilter = new ExponentialMovingAverage(() -> 1 - filterFractionValue);
     }
 
     public static Builder builder() {
@@ -127,12 +152,12 @@ public class BangBangController implements PositionControlAlgorithm {
     }
 
     public static class Builder {
-        private Supplier<Double> maxPower = () -> 0.0;
-        private Supplier<Double> maxDecel = () -> 0.0;
-        private Supplier<Double> tolerance = () -> 0.0;
-        private Supplier<Double> velocityTolerance = () -> 0.0;
-        private Supplier<Double> brakeMargin = () -> 0.0;
-        private Supplier<Double> filterFraction = () -> 0.0;
+        private DoubleSupplier maxPower = () -> 0.0;
+        private DoubleSupplier maxDecel = () -> 0.0;
+        private DoubleSupplier tolerance = () -> 0.0;
+        private DoubleSupplier velocityTolerance = () -> 0.0;
+        private DoubleSupplier brakeMargin = () -> 0.0;
+        private DoubleSupplier filterFraction = () -> 0.0;
 
         public Builder maxPower(double value) { this.maxPower = () -> value; return this; }
         public Builder maxDecel(double value) { this.maxDecel = () -> value; return this; }
@@ -140,12 +165,12 @@ public class BangBangController implements PositionControlAlgorithm {
         public Builder velocityTolerance(double value) { this.velocityTolerance = () -> value; return this; }
         public Builder brakeMargin(double value) { this.brakeMargin = () -> value; return this; }
         public Builder filterFraction(double value) { this.filterFraction = () -> value; return this; }
-        public Builder maxPower(Supplier<Double> value) { this.maxPower = value; return this; }
-        public Builder maxDecel(Supplier<Double> value) { this.maxDecel = value; return this; }
-        public Builder tolerance(Supplier<Double> value) { this.tolerance = value; return this; }
-        public Builder velocityTolerance(Supplier<Double> value) { this.velocityTolerance = value; return this; }
-        public Builder brakeMargin(Supplier<Double> value) { this.brakeMargin = value; return this; }
-        public Builder filterFraction(Supplier<Double> value) { this.filterFraction = value; return this; }
+        public Builder maxPower(DoubleSupplier value) { this.maxPower = value; return this; }
+        public Builder maxDecel(DoubleSupplier value) { this.maxDecel = value; return this; }
+        public Builder tolerance(DoubleSupplier value) { this.tolerance = value; return this; }
+        public Builder velocityTolerance(DoubleSupplier value) { this.velocityTolerance = value; return this; }
+        public Builder brakeMargin(DoubleSupplier value) { this.brakeMargin = value; return this; }
+        public Builder filterFraction(DoubleSupplier value) { this.filterFraction = value; return this; }
 
         public BangBangController build() {
             return new BangBangController(maxPower, maxDecel, tolerance, velocityTolerance, brakeMargin, filterFraction);
@@ -1,6 +1,5 @@
 package org.firstinspires.ftc.teamcode.hardware.controllers;
 
-import com.qualcomm.robotcore.util.ElapsedTime;
 import org.firstinspires.ftc.teamcode.utilities.Direction;
 import org.firstinspires.ftc.teamcode.utilities.Notifier;
 
@@ -10,7 +9,7 @@ import org.firstinspires.ftc.teamcode.utilities.Notifier;
 public abstract class BasePIDController implements ControlAlgorithm {
     protected double integral, lastError, tolerance, minimum, result;
     protected double pResult, iResult, dResult, fResult;
-    protected final ElapsedTime timer = new ElapsedTime();
+    private double lastTimestampSec = Double.NaN;
     protected boolean isBusy = true;
     protected Direction direction;
     protected final Notifier noLongerBusyNotifier = new Notifier();
@@ -70,6 +69,39 @@ public abstract class BasePIDController implements ControlAlgorithm {
         return direction;
     }
 
+    /**
+     * Advances the controller's notion of time.
+     *
+     * @param timestampSec the timestamp passed to the current calculation.
+     * @return milliseconds since the previous call, or 0 on the first call.
+     */
+    protected double advanceTimeMs(double timestampSec) {
+        double elapsedMs = Double.isNaN(lastTimestampSec) ? 0 : (timestampSec - lastTimestampSec) * 1000;
+        lastTimestampSec = timestampSec;
+        return Math.max(0, elapsedMs);
+    }
+
+    /**
+     * Takes the coefficients for a calculation, and lets the controller react if they were retuned.
+     */
+    protected Gains snapshotGains(LiveGains source, double timestampSec) {
+        Gains gains = source.snapshot(timestampSec);
+        if (source.consumeChange()) {
+            onGainsChanged(source.getPrevious(), gains);
+        }
+        return gains;
+    }
+
+    /**
+     * Called when a coefficient source changes between calculations. The integral built up under the old kI is
+     * dropped, so a retuned kI starts from a clean slate instead of being judged against stale windup.
+     */
+    protected void onGainsChanged(Gains previous, Gains current) {
+        if (previous.kI != current.kI) {
+            integral = 0;
+        }
+    }
+
     protected void notifyIfNoLongerBusy(boolean wasBusy) {
         if (wasBusy && !isBusy) {
             noLongerBusyNotifier.notifyWaitingThreads();
@@ -3,8 +3,8 @@ package org.firstinspires.ftc.teamcode.hardware.controllers;
 import java.util.function.DoubleSupplier;
 
 public class DirectionalPID extends PID implements PositionControlAlgorithm {
-	private final DoubleSupplier kPForward, kIForward, kDForward, kFForward;
-	private final DoubleSupplier kPReverse, kIReverse, kDReverse, kFReverse;
+	private final LiveGains forwardGains;
+	private final LiveGains reverseGains;
 
 	protected double rPResult;
 	protected double rIResult;
@@ -17,23 +17,19 @@ public class DirectionalPID extends PID implements PositionControlAlgorithm {
 			double tolerance
 	){
 		super(() -> 0, () -> 0, () -> 0, () -> 0, tolerance, false); // Placeholder values
-		this.kPForward = kPForward;
-		this.kIForward = kIForward;
-		this.kDForward = kDForward;
-		this.kFForward = kFForward;
-		this.kPReverse = kPReverse;
-		this.kIReverse = kIReverse;
-		this.kDReverse = kDReverse;
-		this.kFReverse = kFReverse;
+		this.forwardGains = new LiveGains(kPForward, kIForward, kDForward, kFForward);
+		this.reverseGains = new LiveGains(kPReverse, kIReverse, kDReverse, kFReverse);
 	}
 
     @Override
-	public double calcPosition(double target, double actual){
+	public double calcPosition(double target, double actual, double timestampSec){
 		double error = target - actual;
 		if(error >= 0){
-			return calc(target, actual, kPForward.getAsDouble(), kIForward.getAsDouble(), kDForward.getAsDouble(), kFForward.getAsDouble());
+			Gains g = snapshotGains(forwardGains, timestampSec);
+			return calc(target, actual, timestampSec, g.kP, g.kI, g.kD, g.kF);
 		} else {
-			return calc(target, actual, kPReverse.getAsDouble(), kIReverse.getAsDouble(), kDReverse.getAsDouble(), -kFReverse.getAsDouble());
+			Gains g = snapshotGains(reverseGains, timestampSec);
+			return calc(target, actual, timestampSec, g.kP, g.kI, g.kD, -g.kF);
 		}
 	}
 
@@ -0,0 +1,128 @@
+package org.firstinspires.ftc.teamcode.hardware.controllers;
+
+/**
+ * Fits {@link MotorFeedforward} coefficients by least squares from samples of applied voltage, velocity and
+ * acceleration.
+ * <p>
+ * A slow voltage ramp gives samples where acceleration is nearly zero, which pin down kS and kV. A voltage step gives
+ * samples with large acceleration, which pin down kA. Only running sums are kept, so any number of samples fits in
+ * constant memory and the fit can be read at any point.
+ */
+public class FeedforwardCharacterizer {
+    // Sums for the normal equations of volts = kS * sign(v) + kV * v + kA * a
+    private double sss, ssv, ssa, svv, sva, saa;
+    private double ssy, svy, say, syy, sy;
+    private int count;
+
+    private double kS, kV, kA, rSquared = Double.NaN;
+    private boolean fitValid = false;
+
+    /**
+     * @param volts the voltage applied to the motor, which is the power times the battery voltage.
+     */
+    public void addSample(double volts, double velocity, double acceleration) {
+        if (Double.isNaN(volts) || Double.isNaN(velocity) || Double.isNaN(acceleration)) {
+            return;
+        }
+        double s = Math.signum(velocity);
+        sss += s * s;
+        ssv += s * velocity;
+        ssa += s * acceleration;
+        svv += velocity * velocity;
+        sva += velocity * acceleration;
+        saa += acceleration * acceleration;
+        ssy += s * volts;
+        svy += velocity * volts;
+        say += acceleration * volts;
+        syy += volts * volts;
+        sy += volts;
+        count++;
+    }
+
+    /**
+     * Solves for the coefficients from every sample so far.
+     *
+     * @return false if the samples cannot determine all three, for example when the acceleration never changed.
+     */
+    public boolean fit() {
+        double[][] m = {
+                { sss, ssv, ssa, ssy },
+                { ssv, svv, sva, svy },
+                { ssa, sva, saa, say }
+        };
+        // Gaussian elimination with partial pivoting
+        for (int col = 0; col < 3; col++) {
+            int pivot = col;
+            for (int row = col + 1; row < 3; row++) {
+                if (Math.abs(m[row][col]) > Math.abs(m[pivot][col])) {
+                    pivot = row;
+                }
+            }
+            double[] swap = m[col];
+            m[col] = m[pivot];
+            m[pivot] = swap;
+            double scale = Math.max(Math.abs(m[0][0]), Math.max(Math.abs(m[1][1]), Math.abs(m[2][2])));
+            if (!(Math.abs(m[col][col]) > scale * 1e-12)) {
+                fitValid = false;
+                return false;
+            }
+            for (int row = col + 1; row < 3; row++) {
+                double factor = m[row][col] / m[col][col];
+                for (int k = col; k < 4; k++) {
+                    m[row][k] -= factor * m[col][k];
+                }
+            }
+        }
+        double a = m[2][3] / m[2][2];
+        double v = (m[1][3] - m[1][2] * a) / m[1][1];
+        double s = (m[0][3] - m[0][1] * v - m[0][2] * a) / m[0][0];
+        kS = s;
+        kV = v;
+        kA = a;
+
+        double sumSquaredError = syy
+                - 2 * (kS * ssy + kV * svy + kA * say)
+                + kS * kS * sss + kV * kV * svv + kA * kA * saa
+                + 2 * (kS * kV * ssv + kS * kA * ssa + kV * kA * sva);
+        double sumSquaredTotal = syy - sy * sy / count;
+        rSquared = sumSquaredTotal > 0 ? 1 - sumSquaredError / sumSquaredTotal : Double.NaN;
+        fitValid = true;
+        return true;
+    }
+
+    public boolean isFitValid() {
+        return fitValid;
+    }
+
+    public double getKs() {
+        return kS;
+    }
+
+    public double getKv() {
+        return kV;
+    }
+
+    public double getKa() {
+        return kA;
+    }
+
+    /**
+     * @return how much of the voltage the fit explains, from 0 to 1, or NaN before a fit.
+     */
+    public double getRSquared() {
+        return rSquared;
+    }
+
+    public int getSampleCount() {
+        return count;
+    }
+
+    public void reset() {
+        sss = ssv = ssa = svv = sva = saa = 0;
+        ssy = svy = say = syy = sy = 0;
+        count = 0;
+        kS = kV = kA = 0;
+        rSquared = Double.NaN;
+        fitValid = false;
+    }
+}
@@ -0,0 +1,118 @@
+package org.firstinspires.ftc.teamcode.hardware.controllers;
+
+import java.util.Arrays;
+
+/**
+ * A table of PIDF coefficients keyed on one scheduling variable, such as |error| or |velocity|.
+ * <p>
+ * Lookups interpolate linearly between the two rows around the key, so the coefficients change smoothly as the key
+ * moves instead of switching at a threshold. Keys outside the table use the nearest row. Rows are kept in primitive
+ * arrays sorted by key and found with a binary search, so a lookup does not allocate.
+ */
+public final class GainTable {
+    public static final int KP = 0, KI = 1, KD = 2, KF = 3;
+
+    private final double[] keys;
+    private final double[] kP, kI, kD, kF;
+
+    private GainTable(double[] keys, double[] kP, double[] kI, double[] kD, double[] kF) {
+        this.keys = keys;
+        this.kP = kP;
+        this.kI = kI;
+        this.kD = kD;
+        this.kF = kF;
+    }
+
+    /**
+     * Interpolates the coefficients at {@code key} into {@code out}, indexed by {@link #KP}, {@link #KI}, {@link #KD}
+     * and {@link #KF}.
+     */
+    public void lookup(double key, double[] out) {
+        int last = keys.length - 1;
+        if (Double.isNaN(key) || key <= keys[0]) {
+            copyRow(0, out);
+            return;
+        }
+        if (key >= keys[last]) {
+            copyRow(last, out);
+            return;
+        }
+
+        // Largest row whose key is at or below the lookup key
+        int low = 0, high = last;
+        while (high - low > 1) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] <= key) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+
+        double t = (key - keys[low]) / (keys[high] - keys[low]);
+        out[KP] = kP[low] + (kP[high] - kP[low]) * t;
+        out[KI] = kI[low] + (kI[high] - kI[low]) * t;
+        out[KD] = kD[low] + (kD[high] - kD[low]) * t;
+        out[KF] = kF[low] + (kF[high] - kF[low]) * t;
+    }
+
+    private void copyRow(int row, double[] out) {
+        out[KP] = kP[row];
+        out[KI] = kI[row];
+        out[KD] = kD[row];
+        out[KF] = kF[row];
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * @return a table with one row of ones, which leaves coefficients unchanged when used as multipliers.
+     */
+    public static GainTable unity() {
+        return builder().row(0, 1, 1, 1, 1).build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private double[][] rows = new double[4][];
+        private int count = 0;
+
+        public Builder row(double key, double kP, double kI, double kD, double kF) {
+            if (Double.isNaN(key)) {
+                throw new IllegalArgumentException("key must be a number");
+            }
+            if (count == rows.length) {
+                rows = Arrays.copyOf(rows, count * 2);
+            }
+            rows[count++] = new double[]{ key, kP, kI, kD, kF };
+            return this;
+        }
+
+        public GainTable build() {
+            if (count == 0) {
+                throw new IllegalArgumentException("a gain table needs at least one row");
+            }
+            double[][] sorted = Arrays.copyOf(rows, count);
+            Arrays.sort(sorted, (a, b) -> Double.compare(a[0], b[0]));
+
+            double[] keys = new double[count];
+            double[] kP = new double[count], kI = new double[count], kD = new double[count], kF = new double[count];
+            for (int i = 0; i < count; i++) {
+                if (i > 0 && sorted[i][0] == sorted[i - 1][0]) {
+                    throw new IllegalArgumentException("duplicate gain table key " + sorted[i][0]);
+                }
+                keys[i] = sorted[i][0];
+                kP[i] = sorted[i][1];
+                kI[i] = sorted[i][2];
+                kD[i] = sorted[i][3];
+                kF[i] = sorted[i][4];
+            }
+            return new GainTable(keys, kP, kI, kD, kF);
+        }
+    }
+}
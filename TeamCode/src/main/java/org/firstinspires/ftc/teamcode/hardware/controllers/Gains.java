@@ -0,0 +1,22 @@
+package org.firstinspires.ftc.teamcode.hardware.controllers;
+
+/**
+ * An immutable set of PIDF coefficients, as read from their sources at one point in time.
+ * A new instance, with a higher version, is only made when a coefficient actually changes.
+ */
+public final class Gains {
+    public final double kP, kI, kD, kF;
+    public final int version;
+
+    Gains(double kP, double kI, double kD, double kF, int version) {
+        this.kP = kP;
+        this.kI = kI;
+        this.kD = kD;
+        this.kF = kF;
+        this.version = version;
+    }
+
+    boolean matches(double kP, double kI, double kD, double kF) {
+        return this.kP == kP && this.kI == kI && this.kD == kD && this.kF == kF;
+    }
+}
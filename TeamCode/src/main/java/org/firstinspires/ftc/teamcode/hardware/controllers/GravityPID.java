@@ -18,8 +18,8 @@ public class GravityPID extends DirectionalPID implements PositionControlAlgorit
     }
 
     @Override
-    public double calcPosition(double target, double actual) {
-        double basePID = super.calcPosition(target, actual);
+    public double calcPosition(double target, double actual, double timestampSec) {
+        double basePID = super.calcPosition(target, actual, timestampSec);
         double gravityEffect = gravityFunc.apply(g.getAsDouble(), actual) * g.getAsDouble();
         result = basePID + gravityEffect;
         gResult = gravityEffect;
@@ -32,13 +32,13 @@ public class HybridController implements PositionControlAlgorithm {
     }
 
     @Override
-    public double calcPosition(double target, double actual) {
+    public double calcPosition(double target, double actual, double timestampSec) {
         this.error = Math.abs(target - actual);
 
         if (isHolding()) {
-            result = holdController.calcPosition(target, actual);
+            result = holdController.calcPosition(target, actual, timestampSec);
         } else {
-            result = moveController.calcPosition(target, actual);
+            result = moveController.calcPosition(target, actual, timestampSec);
         }
 
         return result;
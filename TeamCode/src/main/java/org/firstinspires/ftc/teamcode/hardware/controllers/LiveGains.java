@@ -0,0 +1,73 @@
+package org.firstinspires.ftc.teamcode.hardware.controllers;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * Reads a controller's coefficient suppliers at most once per timestamp and keeps the result as {@link Gains}.
+ * <p>
+ * Coefficients usually come from {@code LiveMatchTuning}, whose fields Panels can change at any time. Every controller
+ * updated in a tick passes the same timestamp, so the suppliers are read once per tick and the control math works on
+ * plain doubles. When a value differs from the last snapshot, the version goes up and the change is reported once
+ * through {@link #consumeChange()}.
+ */
+public final class LiveGains {
+    private final DoubleSupplier kP, kI, kD, kF;
+    private Gains current;
+    private Gains previous;
+    private double snapshotTimestampSec = Double.NaN;
+    private boolean changed = false;
+
+    public LiveGains(DoubleSupplier kP, DoubleSupplier kI, DoubleSupplier kD, DoubleSupplier kF) {
+        this.kP = kP;
+        this.kI = kI;
+        this.kD = kD;
+        this.kF = kF;
+    }
+
+    /**
+     * @param timestampSec the timestamp of the calculation. The suppliers are only read again for a new timestamp.
+     * @return the coefficients as of that timestamp.
+     */
+    public Gains snapshot(double timestampSec) {
+        if (current != null && timestampSec == snapshotTimestampSec) {
+            return current;
+        }
+        snapshotTimestampSec = timestampSec;
+
+        double p = kP.getAsDouble();
+        double i = kI.getAsDouble();
+        double d = kD.getAsDouble();
+        double f = kF.getAsDouble();
+        if (current == null) {
+            current = new Gains(p, i, d, f, 0);
+        } else if (!current.matches(p, i, d, f)) {
+            previous = current;
+            current = new Gains(p, i, d, f, current.version + 1);
+            changed = true;
+        }
+        return current;
+    }
+
+    /**
+     * @return whether the coefficients changed since the last call, reporting each change once.
+     */
+    public boolean consumeChange() {
+        boolean result = changed;
+        changed = false;
+        return result;
+    }
+
+    /**
+     * @return the latest snapshot, or null before the first one.
+     */
+    public Gains getCurrent() {
+        return current;
+    }
+
+    /**
+     * @return the snapshot that the latest change replaced, or null if nothing has changed yet.
+     */
+    public Gains getPrevious() {
+        return previous;
+    }
+}
@@ -0,0 +1,29 @@
+package org.firstinspires.ftc.teamcode.hardware.controllers;
+
+/**
+ * Plans a move between two positions and gives the setpoint to follow at any time since the move started.
+ * <p>
+ * A profile is planned once, when the target changes, and then sampled every tick, so sampling must not allocate.
+ * Positions are in the axis' own units and times are in seconds.
+ */
+public interface MotionProfile {
+    /**
+     * Plans a new move that ends at rest.
+     *
+     * @param startVelocity the velocity at the start, so a move can be replanned while the last one is still running.
+     */
+    void plan(double startPosition, double startVelocity, double endPosition);
+
+    /**
+     * Writes the setpoint at {@code timeSec} after the start of the move into {@code out}.
+     * Times before the start give the start, times after the end give the end at rest.
+     */
+    void sample(double timeSec, MotionState out);
+
+    /**
+     * @return how long the planned move takes, in seconds.
+     */
+    double getDurationSeconds();
+
+    double getEndPosition();
+}
@@ -0,0 +1,22 @@
+package org.firstinspires.ftc.teamcode.hardware.controllers;
+
+/**
+ * A position, velocity and acceleration at one instant of a {@link MotionProfile}.
+ * Mutable so one instance can be filled every tick without allocating.
+ */
+public final class MotionState {
+    public double position;
+    public double velocity;
+    public double acceleration;
+
+    public void set(double position, double velocity, double acceleration) {
+        this.position = position;
+        this.velocity = velocity;
+        this.acceleration = acceleration;
+    }
+
+    @Override
+    public String toString() {
+        return "MotionState{position=" + position + ", velocity=" + velocity + ", acceleration=" + acceleration + "}";
+    }
+}
@@ -0,0 +1,56 @@
+package org.firstinspires.ftc.teamcode.hardware.controllers;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * The voltage a DC motor needs for a velocity and acceleration: {@code kS * sign(v) + kV * v + kA * a}.
+ * <p>
+ * kS overcomes friction, kV holds a velocity against back-EMF and kA accelerates the load. Working in volts and dividing
+ * by the battery voltage read this tick gives the same motion at any charge level, without waiting on a filtered voltage.
+ * The coefficients can be fitted with {@link FeedforwardCharacterizer}.
+ */
+public class MotorFeedforward {
+    /**
+     * Used in place of the battery voltage when it reads as unavailable.
+     */
+    public static final double NOMINAL_VOLTAGE = 12;
+    private static final double MIN_VALID_VOLTAGE = 1;
+
+    private final DoubleSupplier kS;
+    private final DoubleSupplier kV;
+    private final DoubleSupplier kA;
+
+    public MotorFeedforward(DoubleSupplier kS, DoubleSupplier kV, DoubleSupplier kA) {
+        this.kS = kS;
+        this.kV = kV;
+        this.kA = kA;
+    }
+
+    public MotorFeedforward(double kS, double kV, double kA) {
+        this(() -> kS, () -> kV, () -> kA);
+    }
+
+    /**
+     * @return the voltage needed, in volts.
+     */
+    public double calculateVolts(double velocity, double acceleration) {
+        return kS.getAsDouble() * Math.signum(velocity) + kV.getAsDouble() * velocity + kA.getAsDouble() * acceleration;
+    }
+
+    /**
+     * @param batteryVoltage the battery voltage right now, in volts.
+     * @return the motor power, from -1 to 1, that applies the needed voltage.
+     */
+    public double calculatePower(double velocity, double acceleration, double batteryVoltage) {
+        double voltage = batteryVoltage >= MIN_VALID_VOLTAGE ? batteryVoltage : NOMINAL_VOLTAGE;
+        return Math.max(-1, Math.min(1, calculateVolts(velocity, acceleration) / voltage));
+    }
+
+    /**
+     * @return the fastest steady velocity reachable with {@code volts}, from {@code volts = kS + kV * v}.
+     */
+    public double maxVelocity(double volts) {
+        double kV = this.kV.getAsDouble();
+        return kV > 0 ? Math.max(0, volts - kS.getAsDouble()) / kV : Double.POSITIVE_INFINITY;
+    }
+}
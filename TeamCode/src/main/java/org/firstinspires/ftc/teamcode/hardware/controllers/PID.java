@@ -15,30 +15,34 @@ import java.util.function.DoubleSupplier;
 public class PID extends BasePIDController implements PositionControlAlgorithm {
     protected boolean directionalKF = true;
 
-    protected final DoubleSupplier kP, kI, kD, kF;
+    protected final LiveGains gains;
 
     protected PID(DoubleSupplier kP, DoubleSupplier kI, DoubleSupplier kD, DoubleSupplier kF, double tolerance, boolean directionalKF) {
         super(tolerance);
-        this.kP = kP;
-        this.kI = kI;
-        this.kD = kD;
-        this.kF = kF;
+        this.gains = new LiveGains(kP, kI, kD, kF);
         this.directionalKF = directionalKF;
     }
 
     @Override
-    public double calcPosition(double target, double actual) {
-        return calc(target, actual, kP.getAsDouble(), kI.getAsDouble(), kD.getAsDouble(), kF.getAsDouble());
+    public double calcPosition(double target, double actual, double timestampSec) {
+        Gains g = snapshotGains(gains, timestampSec);
+        return calc(target, actual, timestampSec, g.kP, g.kI, g.kD, g.kF);
     }
 
-    protected double calc(double target, double actual, double kP, double kI, double kD, double kF) {
+    /**
+     * @return the coefficients used by the latest calculation, or null before the first one.
+     */
+    public Gains getGains() {
+        return gains.getCurrent();
+    }
+
+    protected double calc(double target, double actual, double timestampSec, double kP, double kI, double kD, double kF) {
         double currentError = target - actual;
 
         boolean lastIsBusy = isBusy;
 
         if (Math.abs(currentError) > tolerance) {
-            double timeChange = timer.milliseconds();
-            timer.reset();
+            double timeChange = advanceTimeMs(timestampSec);
 
             double p = kP * currentError;
 
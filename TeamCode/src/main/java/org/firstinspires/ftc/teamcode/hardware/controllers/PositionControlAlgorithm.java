@@ -1,8 +1,21 @@
 package org.firstinspires.ftc.teamcode.hardware.controllers;
 
+import org.firstinspires.ftc.teamcode.hardware.TickClock;
+
 /**
  * Control algorithm that operates directly on measured position values.
  */
 public interface PositionControlAlgorithm extends ControlAlgorithm {
-    double calcPosition(double targetPosition, double actualPosition);
+    /**
+     * Calculates the output using the time read from the clock right now.
+     */
+    default double calcPosition(double targetPosition, double actualPosition) {
+        return calcPosition(targetPosition, actualPosition, TickClock.readLiveSeconds());
+    }
+
+    /**
+     * @param timestampSec when the actual position was measured, usually {@link TickClock#getTimestampSeconds()}.
+     *                     Time-dependent terms use the difference from the previous call.
+     */
+    double calcPosition(double targetPosition, double actualPosition, double timestampSec);
 }
@@ -0,0 +1,193 @@
+package org.firstinspires.ftc.teamcode.hardware.controllers;
+
+/**
+ * Finds an axis' ultimate gain and period with relay feedback (Astrom-Hagglund).
+ * <p>
+ * Instead of a controller, the output switches between {@code bias + amplitude} and {@code bias - amplitude} each time
+ * the measurement crosses the setpoint, give or take the hysteresis. Almost any motor axis then settles into a steady
+ * oscillation, whose period is the ultimate period Tu and whose size gives the ultimate gain
+ * {@code Ku = 4 * amplitude / (pi * sqrt(a^2 - hysteresis^2))}, where a is half the peak-to-peak swing. Early cycles
+ * are a transient, so tuning finishes once the latest cycles agree with each other, and those are averaged.
+ * {@link TuningRule}s turn Ku and Tu into PID gains.
+ */
+public class RelayAutoTuner {
+    public enum State {
+        IDLE,
+        RUNNING,
+        DONE,
+        FAILED
+    }
+
+    // The measured cycles must all be within this fraction of their average
+    private static final double CONSISTENCY = 0.1;
+
+    private final double amplitude;
+    private final double hysteresis;
+    private final double bias;
+    private final int cyclesToMeasure;
+    private final double timeoutSec;
+
+    private State state = State.IDLE;
+    private double setpoint;
+    private double startSec;
+    private boolean relayHigh;
+    private double lastRisingSec = Double.NaN;
+    private double cycleMax, cycleMin;
+    private int cycles;
+    private final double[] periods;
+    private final double[] swings;
+    private double ultimateGain = Double.NaN;
+    private double ultimatePeriodSec = Double.NaN;
+
+    /**
+     * @param amplitude       how far the output steps either side of the bias, in motor power.
+     * @param hysteresis      how far past the setpoint the measurement must go before the relay switches, to keep sensor
+     *                        noise from switching it early.
+     * @param bias            the output the relay switches around, such as the power that holds a flywheel at the setpoint.
+     * @param cyclesToMeasure how many full oscillations to average after the transient.
+     * @param timeoutSec      how long to wait for those cycles before giving up.
+     */
+    public RelayAutoTuner(double amplitude, double hysteresis, double bias, int cyclesToMeasure, double timeoutSec) {
+        if (!(amplitude > 0)) {
+            throw new IllegalArgumentException("amplitude must be positive");
+        }
+        if (cyclesToMeasure < 1) {
+            throw new IllegalArgumentException("at least one cycle must be measured");
+        }
+        this.amplitude = amplitude;
+        this.hysteresis = Math.abs(hysteresis);
+        this.bias = bias;
+        this.cyclesToMeasure = cyclesToMeasure;
+        this.timeoutSec = timeoutSec;
+        this.periods = new double[cyclesToMeasure];
+        this.swings = new double[cyclesToMeasure];
+    }
+
+    public void start(double setpoint, double timestampSec) {
+        this.setpoint = setpoint;
+        this.startSec = timestampSec;
+        state = State.RUNNING;
+        relayHigh = true;
+        lastRisingSec = Double.NaN;
+        cycleMax = Double.NEGATIVE_INFINITY;
+        cycleMin = Double.POSITIVE_INFINITY;
+        cycles = 0;
+        ultimateGain = ultimatePeriodSec = Double.NaN;
+    }
+
+    /**
+     * @return the output to apply until the next update, which is the bias once tuning has finished.
+     */
+    public double update(double measurement, double timestampSec) {
+        if (state != State.RUNNING) {
+            return bias;
+        }
+        if (timestampSec - startSec > timeoutSec) {
+            state = State.FAILED;
+            return bias;
+        }
+
+        cycleMax = Math.max(cycleMax, measurement);
+        cycleMin = Math.min(cycleMin, measurement);
+        double error = setpoint - measurement;
+        if (relayHigh && error < -hysteresis) {
+            relayHigh = false;
+        } else if (!relayHigh && error > hysteresis) {
+            relayHigh = true;
+            onRisingSwitch(timestampSec);
+        }
+        return relayHigh ? bias + amplitude : bias - amplitude;
+    }
+
+    /**
+     * A full cycle ends each time the relay switches back up.
+     */
+    private void onRisingSwitch(double timestampSec) {
+        if (!Double.isNaN(lastRisingSec)) {
+            int slot = cycles % periods.length;
+            periods[slot] = timestampSec - lastRisingSec;
+            swings[slot] = (cycleMax - cycleMin) / 2;
+            cycles++;
+        }
+        lastRisingSec = timestampSec;
+        cycleMax = Double.NEGATIVE_INFINITY;
+        cycleMin = Double.POSITIVE_INFINITY;
+
+        if (cycles >= periods.length) {
+            double period = average(periods);
+            double swing = average(swings);
+            if (!isConsistent(periods, period) || !isConsistent(swings, swing)) {
+                return;
+            }
+            double effectiveSwing = swing > hysteresis ? Math.sqrt(swing * swing - hysteresis * hysteresis) : swing;
+            ultimatePeriodSec = period;
+            ultimateGain = 4 * amplitude / (Math.PI * effectiveSwing);
+            state = effectiveSwing > 0 ? State.DONE : State.FAILED;
+        }
+    }
+
+    private static double average(double[] values) {
+        double sum = 0;
+        for (double value : values) {
+            sum += value;
+        }
+        return sum / values.length;
+    }
+
+    private static boolean isConsistent(double[] values, double average) {
+        for (double value : values) {
+            if (Math.abs(value - average) > CONSISTENCY * Math.abs(average)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Turns the measured Ku and Tu into gains for this repo's controllers. Their integral accumulates error times
+     * milliseconds, and their derivative is the change in error per calculation rather than per second, so
+     * {@code tickSeconds} should be the loop time the gains will run at.
+     *
+     * @param kF carried into the result unchanged, since relay feedback says nothing about feedforward.
+     * @return the proposed gains, or null unless tuning is done.
+     */
+    public Gains proposeGains(TuningRule rule, double kF, double tickSeconds) {
+        if (state != State.DONE) {
+            return null;
+        }
+        double kP = rule.kP(ultimateGain);
+        double integralTimeSec = rule.integralTimeSeconds(ultimatePeriodSec);
+        double kI = integralTimeSec > 0 ? kP / (integralTimeSec * 1000) : 0;
+        double kD = tickSeconds > 0 ? kP * rule.derivativeTimeSeconds(ultimatePeriodSec) / tickSeconds : 0;
+        return new Gains(kP, kI, kD, kF, 0);
+    }
+
+    /**
+     * Gives up on a running tune, for example when the axis has swung somewhere it must not go.
+     */
+    public void fail() {
+        if (state == State.RUNNING) {
+            state = State.FAILED;
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public double getSetpoint() {
+        return setpoint;
+    }
+
+    public int getCyclesCompleted() {
+        return cycles;
+    }
+
+    public double getUltimateGain() {
+        return ultimateGain;
+    }
+
+    public double getUltimatePeriodSeconds() {
+        return ultimatePeriodSec;
+    }
+}
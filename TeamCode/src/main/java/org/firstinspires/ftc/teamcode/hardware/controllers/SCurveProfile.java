@@ -0,0 +1,150 @@
+package org.firstinspires.ftc.teamcode.hardware.controllers;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * A jerk-limited profile: like {@link TrapezoidalProfile}, but the acceleration ramps up and down at the jerk limit
+ * instead of switching on and off, so the motor does not get a step in torque at each corner of the trapezoid.
+ * <p>
+ * A move is made of seven segments: jerk up, hold acceleration, jerk down, cruise, then the same mirrored to stop.
+ * Segments that are not needed get zero length. Only moves from rest are planned this way; a move replanned while
+ * still moving uses the trapezoid, since its start would not have zero acceleration anyway.
+ */
+public class SCurveProfile implements MotionProfile {
+    private static final int SEGMENTS = 7;
+    private static final int VELOCITY_SEARCH_ITERATIONS = 60;
+    private static final double[] JERK_SIGNS = { 1, 0, -1, 0, -1, 0, 1 };
+
+    private final DoubleSupplier maxVelocity;
+    private final DoubleSupplier maxAcceleration;
+    private final DoubleSupplier maxJerk;
+    private final TrapezoidalProfile movingStart;
+    private boolean usingMovingStart = false;
+
+    private double endPosition;
+    private final double[] segmentStartSec = new double[SEGMENTS + 1];
+    private final double[] segmentJerk = new double[SEGMENTS];
+    private final double[] segmentPosition = new double[SEGMENTS + 1];
+    private final double[] segmentVelocity = new double[SEGMENTS + 1];
+    private final double[] segmentAcceleration = new double[SEGMENTS + 1];
+
+    public SCurveProfile(DoubleSupplier maxVelocity, DoubleSupplier maxAcceleration, DoubleSupplier maxJerk) {
+        this.maxVelocity = maxVelocity;
+        this.maxAcceleration = maxAcceleration;
+        this.maxJerk = maxJerk;
+        this.movingStart = new TrapezoidalProfile(maxVelocity, maxAcceleration);
+    }
+
+    public SCurveProfile(double maxVelocity, double maxAcceleration, double maxJerk) {
+        this(() -> maxVelocity, () -> maxAcceleration, () -> maxJerk);
+    }
+
+    @Override
+    public void plan(double startPosition, double startVelocity, double endPosition) {
+        this.endPosition = endPosition;
+        double velocityLimit = maxVelocity.getAsDouble();
+        double accelerationLimit = maxAcceleration.getAsDouble();
+        double jerkLimit = maxJerk.getAsDouble();
+
+        usingMovingStart = startVelocity != 0 || !(jerkLimit > 0);
+        if (usingMovingStart) {
+            movingStart.plan(startPosition, startVelocity, endPosition, velocityLimit, accelerationLimit);
+            return;
+        }
+
+        double direction = endPosition >= startPosition ? 1 : -1;
+        double distance = direction * (endPosition - startPosition);
+        double peakVelocity = 0;
+        if (velocityLimit > 0 && accelerationLimit > 0 && distance > 0) {
+            peakVelocity = velocityLimit;
+            if (rampDistance(peakVelocity, accelerationLimit, jerkLimit) * 2 > distance) {
+                // Too short to reach the velocity limit; the distance grows with the peak velocity, so search for it
+                double low = 0, high = velocityLimit;
+                for (int i = 0; i < VELOCITY_SEARCH_ITERATIONS; i++) {
+                    double mid = (low + high) / 2;
+                    if (rampDistance(mid, accelerationLimit, jerkLimit) * 2 > distance) {
+                        high = mid;
+                    } else {
+                        low = mid;
+                    }
+                }
+                peakVelocity = low;
+            }
+        }
+
+        double jerkSec = 0, holdSec = 0, cruiseSec = 0;
+        if (peakVelocity > 0) {
+            jerkSec = Math.min(accelerationLimit / jerkLimit, Math.sqrt(peakVelocity / jerkLimit));
+            holdSec = peakVelocity / (jerkLimit * jerkSec) - jerkSec;
+            cruiseSec = (distance - 2 * rampDistance(peakVelocity, accelerationLimit, jerkLimit)) / peakVelocity;
+        }
+
+        double[] durations = { jerkSec, holdSec, jerkSec, cruiseSec, jerkSec, holdSec, jerkSec };
+        segmentStartSec[0] = 0;
+        segmentPosition[0] = startPosition;
+        segmentVelocity[0] = 0;
+        segmentAcceleration[0] = 0;
+        for (int i = 0; i < SEGMENTS; i++) {
+            double t = Math.max(0, durations[i]);
+            segmentJerk[i] = direction * JERK_SIGNS[i] * jerkLimit;
+            segmentStartSec[i + 1] = segmentStartSec[i] + t;
+            segmentPosition[i + 1] = positionAt(i, t);
+            segmentVelocity[i + 1] = segmentVelocity[i] + segmentAcceleration[i] * t + segmentJerk[i] * t * t / 2;
+            segmentAcceleration[i + 1] = segmentAcceleration[i] + segmentJerk[i] * t;
+        }
+    }
+
+    /**
+     * @return the distance covered accelerating from rest to {@code velocity}, which is also the distance to stop again.
+     */
+    private static double rampDistance(double velocity, double accelerationLimit, double jerkLimit) {
+        if (velocity * jerkLimit <= accelerationLimit * accelerationLimit) {
+            // The acceleration limit is never reached
+            return velocity * Math.sqrt(velocity / jerkLimit);
+        }
+        return velocity * (accelerationLimit / jerkLimit + velocity / accelerationLimit) / 2;
+    }
+
+    private double positionAt(int segment, double t) {
+        return segmentPosition[segment]
+                + segmentVelocity[segment] * t
+                + segmentAcceleration[segment] * t * t / 2
+                + segmentJerk[segment] * t * t * t / 6;
+    }
+
+    @Override
+    public void sample(double timeSec, MotionState out) {
+        if (usingMovingStart) {
+            movingStart.sample(timeSec, out);
+            return;
+        }
+        if (timeSec >= segmentStartSec[SEGMENTS]) {
+            out.set(endPosition, 0, 0);
+            return;
+        }
+        if (timeSec <= 0) {
+            out.set(segmentPosition[0], 0, 0);
+            return;
+        }
+        int segment = 0;
+        while (timeSec >= segmentStartSec[segment + 1]) {
+            segment++;
+        }
+        double t = timeSec - segmentStartSec[segment];
+        out.set(
+                positionAt(segment, t),
+                segmentVelocity[segment] + segmentAcceleration[segment] * t + segmentJerk[segment] * t * t / 2,
+                segmentAcceleration[segment] + segmentJerk[segment] * t
+        );
+    }
+
+    @Override
+    public double getDurationSeconds() {
+        return usingMovingStart ? movingStart.getDurationSeconds() : segmentStartSec[SEGMENTS];
+    }
+
+    @Override
+    public double getEndPosition() {
+        return endPosition;
+    }
+}
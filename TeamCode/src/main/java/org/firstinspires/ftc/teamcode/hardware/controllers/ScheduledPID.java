@@ -0,0 +1,143 @@
+package org.firstinspires.ftc.teamcode.hardware.controllers;
+
+import org.firstinspires.ftc.teamcode.hardware.filters.DataFilter;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
+
+/**
+ * A {@link PID} whose coefficients are scheduled on how far the axis is from its target and how fast it is moving.
+ * <p>
+ * Each table holds multipliers for the base coefficients, looked up by |error| and by |measured velocity|, and the two
+ * are multiplied together. Because the tables interpolate, the axis can be aggressive on long moves and soft near the
+ * target without the jump {@link HybridController} has when it switches controllers at its tolerance. The base
+ * coefficients stay live-tunable, and a disabled schedule or a table of ones behaves exactly like {@link PID}.
+ */
+public class ScheduledPID extends PID {
+    private final GainTable errorSchedule;
+    private final GainTable velocitySchedule;
+    private final BooleanSupplier scheduleEnabled;
+    private final DataFilter velocityFilter;
+
+    private final double[] errorScales = new double[4];
+    private final double[] velocityScales = new double[4];
+    private final double[] scheduledGains = new double[4];
+
+    private double lastPosition;
+    private double lastPositionTimestampSec = Double.NaN;
+    private double velocity = 0;
+
+    protected ScheduledPID(DoubleSupplier kP, DoubleSupplier kI, DoubleSupplier kD, DoubleSupplier kF, double tolerance, boolean directionalKF,
+                           GainTable errorSchedule, GainTable velocitySchedule, BooleanSupplier scheduleEnabled, DataFilter velocityFilter) {
+        super(kP, kI, kD, kF, tolerance, directionalKF);
+        this.errorSchedule = errorSchedule;
+        this.velocitySchedule = velocitySchedule;
+        this.scheduleEnabled = scheduleEnabled;
+        this.velocityFilter = velocityFilter;
+    }
+
+    @Override
+    public double calcPosition(double target, double actual, double timestampSec) {
+        Gains g = snapshotGains(gains, timestampSec);
+        updateVelocity(actual, timestampSec);
+
+        if (!scheduleEnabled.getAsBoolean()) {
+            scheduledGains[GainTable.KP] = g.kP;
+            scheduledGains[GainTable.KI] = g.kI;
+            scheduledGains[GainTable.KD] = g.kD;
+            scheduledGains[GainTable.KF] = g.kF;
+            return calc(target, actual, timestampSec, g.kP, g.kI, g.kD, g.kF);
+        }
+
+        errorSchedule.lookup(Math.abs(target - actual), errorScales);
+        velocitySchedule.lookup(Math.abs(velocity), velocityScales);
+        scheduledGains[GainTable.KP] = g.kP * errorScales[GainTable.KP] * velocityScales[GainTable.KP];
+        scheduledGains[GainTable.KI] = g.kI * errorScales[GainTable.KI] * velocityScales[GainTable.KI];
+        scheduledGains[GainTable.KD] = g.kD * errorScales[GainTable.KD] * velocityScales[GainTable.KD];
+        scheduledGains[GainTable.KF] = g.kF * errorScales[GainTable.KF] * velocityScales[GainTable.KF];
+        return calc(target, actual, timestampSec,
+                scheduledGains[GainTable.KP], scheduledGains[GainTable.KI], scheduledGains[GainTable.KD], scheduledGains[GainTable.KF]);
+    }
+
+    private void updateVelocity(double position, double timestampSec) {
+        if (Double.isNaN(lastPositionTimestampSec) || timestampSec < lastPositionTimestampSec) {
+            // First call, or the clock was restarted
+            lastPosition = position;
+            lastPositionTimestampSec = timestampSec;
+            return;
+        }
+        double dt = timestampSec - lastPositionTimestampSec;
+        if (dt > 0) {
+            velocity = velocityFilter.compute((position - lastPosition) / dt);
+            lastPosition = position;
+            lastPositionTimestampSec = timestampSec;
+        }
+    }
+
+    /**
+     * @return the coefficient used by the latest calculation, indexed like {@link GainTable#KP}.
+     */
+    public double getScheduledGain(int index) {
+        return scheduledGains[index];
+    }
+
+    /**
+     * @return the filtered velocity the schedule was looked up with, in position units per second.
+     */
+    public double getMeasuredVelocity() {
+        return velocity;
+    }
+
+    public static Builder scheduledBuilder() {
+        return new Builder();
+    }
+
+    public static class Builder extends CoefficientBuilderBase<Builder> {
+        private boolean directionalKF = true;
+        private GainTable errorSchedule = GainTable.unity();
+        private GainTable velocitySchedule = GainTable.unity();
+        private BooleanSupplier scheduleEnabled = () -> true;
+        private DataFilter velocityFilter = DataFilter.NONE;
+
+        @Override
+        protected Builder self() {
+            return this;
+        }
+
+        public Builder setDirectionalKF(boolean directionalKF) {
+            this.directionalKF = directionalKF;
+            return this;
+        }
+
+        /**
+         * @param schedule multipliers for the base coefficients, keyed on |target - actual|.
+         */
+        public Builder setErrorSchedule(GainTable schedule) {
+            this.errorSchedule = schedule;
+            return this;
+        }
+
+        /**
+         * @param schedule multipliers for the base coefficients, keyed on |velocity| in position units per second.
+         */
+        public Builder setVelocitySchedule(GainTable schedule) {
+            this.velocitySchedule = schedule;
+            return this;
+        }
+
+        public Builder setScheduleEnabled(BooleanSupplier enabled) {
+            this.scheduleEnabled = enabled;
+            return this;
+        }
+
+        public Builder setVelocityFilter(DataFilter filter) {
+            this.velocityFilter = filter;
+            return this;
+        }
+
+        public ScheduledPID build() {
+            return new ScheduledPID(kP, kI, kD, kF, tolerance, directionalKF,
+                    errorSchedule, velocitySchedule, scheduleEnabled, velocityFilter);
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package org.firstinspires.ftc.teamcode.hardware.controllers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Learns how a flywheel slows down when an artifact goes through it, and predicts when the next one will.
+ * <p>
+ * Tell the model when a volley starts and every time an artifact is fed, and give it the flywheel velocity every tick.
+ * After each feed it watches the velocity for the dip: how far it drops below the speed at the feed, how long after the
+ * feed the bottom comes, and how long it takes to get back. Those, the time from the start of the volley to the first
+ * feed and the time between feeds are averaged over shots, so they carry over from one volley to the next.
+ * <p>
+ * {@link #getBoostVelocity(double)} gives the learned drop from a little before each predicted feed until the flywheel
+ * is expected to have recovered, so the launcher can add power before the speed falls instead of after.
+ * Every observed shot also gets an exit velocity estimate from the flywheel speed while the artifact was in contact.
+ */
+public class ShotDipModel {
+    public static final class Shot {
+        public final int number;
+        public final double feedSec;
+        public final double feedVelocity;
+        public final double minVelocity;
+        public final double dipDelaySec;
+        public final double recoverySec;
+        public final double exitVelocityEstimate;
+
+        private Shot(int number, double feedSec, double feedVelocity, double minVelocity, double dipDelaySec,
+                     double recoverySec, double exitVelocityEstimate) {
+            this.number = number;
+            this.feedSec = feedSec;
+            this.feedVelocity = feedVelocity;
+            this.minVelocity = minVelocity;
+            this.dipDelaySec = dipDelaySec;
+            this.recoverySec = recoverySec;
+            this.exitVelocityEstimate = exitVelocityEstimate;
+        }
+    }
+
+    private final DoubleSupplier learningRate;
+    private final DoubleSupplier minDrop;
+    private final DoubleSupplier recoveryTolerance;
+    private final DoubleSupplier observeWindowSec;
+    private final DoubleSupplier boostLeadSec;
+    private final DoubleSupplier exitVelocityRatio;
+
+    // Learned over every shot seen, NaN until the first one
+    private double drop = Double.NaN;
+    private double dipDelaySec = Double.NaN;
+    private double recoverySec = Double.NaN;
+    private double feedIntervalSec = Double.NaN;
+    private double firstFeedDelaySec = Double.NaN;
+    private int learnedShots = 0;
+
+    private boolean volleyActive = false;
+    private double volleyStartSec;
+    private int expectedFeeds;
+    private int feedsThisVolley;
+    private double lastFeedSec = Double.NaN;
+    private final List<Shot> volleyShots = new ArrayList<>();
+
+    // The shot being watched
+    private boolean observing = false;
+    private double observeFeedSec;
+    private double observeFeedVelocity;
+    private double observeMinVelocity;
+    private double observeMinSec;
+    private double velocitySum;
+    private int velocitySamples;
+    private double contactVelocitySum;
+    private int contactSamples;
+
+    private double lastVelocity = Double.NaN;
+
+    /**
+     * @param learningRate       how much each new shot moves the learned values, from 0 to 1.
+     * @param minDrop            a smaller drop after a feed is taken as no artifact going through.
+     * @param recoveryTolerance  how close to the speed at the feed counts as recovered.
+     * @param observeWindowSec   how long to watch a shot before giving up on it recovering.
+     * @param boostLeadSec       how long before a predicted feed to start the boost.
+     * @param exitVelocityRatio  artifact exit velocity per unit of flywheel velocity.
+     */
+    public ShotDipModel(DoubleSupplier learningRate, DoubleSupplier minDrop, DoubleSupplier recoveryTolerance,
+                        DoubleSupplier observeWindowSec, DoubleSupplier boostLeadSec, DoubleSupplier exitVelocityRatio) {
+        this.learningRate = learningRate;
+        this.minDrop = minDrop;
+        this.recoveryTolerance = recoveryTolerance;
+        this.observeWindowSec = observeWindowSec;
+        this.boostLeadSec = boostLeadSec;
+        this.exitVelocityRatio = exitVelocityRatio;
+    }
+
+    /**
+     * @param expectedFeeds how many artifacts the volley should fire; no boost is predicted past the last one.
+     */
+    public void startVolley(double timestampSec, int expectedFeeds) {
+        volleyActive = true;
+        volleyStartSec = timestampSec;
+        this.expectedFeeds = expectedFeeds;
+        feedsThisVolley = 0;
+        lastFeedSec = Double.NaN;
+        volleyShots.clear();
+    }
+
+    public void endVolley() {
+        volleyActive = false;
+    }
+
+    public void onFeed(double timestampSec) {
+        if (observing) {
+            // The next artifact came before this one recovered, so learn what there is
+            finishObservation(timestampSec);
+        }
+        if (volleyActive) {
+            if (feedsThisVolley == 0) {
+                firstFeedDelaySec = learn(firstFeedDelaySec, timestampSec - volleyStartSec);
+            } else {
+                feedIntervalSec = learn(feedIntervalSec, timestampSec - lastFeedSec);
+            }
+            feedsThisVolley++;
+        }
+        lastFeedSec = timestampSec;
+
+        if (Double.isNaN(lastVelocity)) {
+            return;
+        }
+        observing = true;
+        observeFeedSec = timestampSec;
+        observeFeedVelocity = lastVelocity;
+        observeMinVelocity = lastVelocity;
+        observeMinSec = timestampSec;
+        velocitySum = contactVelocitySum = lastVelocity;
+        velocitySamples = contactSamples = 1;
+    }
+
+    /**
+     * Gives the model the flywheel velocity. Call every tick.
+     */
+    public void update(double timestampSec, double velocity) {
+        lastVelocity = velocity;
+        if (!observing) {
+            return;
+        }
+        velocitySum += velocity;
+        velocitySamples++;
+        if (velocity < observeMinVelocity) {
+            observeMinVelocity = velocity;
+            observeMinSec = timestampSec;
+            // The artifact is in contact from the feed to the bottom of the dip
+            contactVelocitySum = velocitySum;
+            contactSamples = velocitySamples;
+        }
+        boolean dipped = observeFeedVelocity - observeMinVelocity >= minDrop.getAsDouble();
+        boolean recovered = dipped && timestampSec > observeMinSec
+                && observeFeedVelocity - velocity <= recoveryTolerance.getAsDouble();
+        if (recovered || timestampSec - observeFeedSec >= observeWindowSec.getAsDouble()) {
+            finishObservation(timestampSec);
+        }
+    }
+
+    private void finishObservation(double timestampSec) {
+        observing = false;
+        double observedDrop = observeFeedVelocity - observeMinVelocity;
+        if (observedDrop < minDrop.getAsDouble()) {
+            // Nothing went through
+            return;
+        }
+        double observedDipDelay = observeMinSec - observeFeedSec;
+        double observedRecovery = timestampSec - observeMinSec;
+        drop = learn(drop, observedDrop);
+        dipDelaySec = learn(dipDelaySec, observedDipDelay);
+        recoverySec = learn(recoverySec, observedRecovery);
+        learnedShots++;
+
+        double contactVelocity = contactVelocitySum / contactSamples;
+        volleyShots.add(new Shot(volleyShots.size() + 1, observeFeedSec, observeFeedVelocity, observeMinVelocity,
+                observedDipDelay, observedRecovery, contactVelocity * exitVelocityRatio.getAsDouble()));
+    }
+
+    private double learn(double learned, double observed) {
+        if (Double.isNaN(learned)) {
+            return observed;
+        }
+        double rate = Math.max(0, Math.min(1, learningRate.getAsDouble()));
+        return learned + (observed - learned) * rate;
+    }
+
+    /**
+     * @return the velocity drop to make up for right now, or 0 when no dip is expected.
+     */
+    public double getBoostVelocity(double timestampSec) {
+        if (!volleyActive || learnedShots == 0 || Double.isNaN(drop)) {
+            return 0;
+        }
+        double nextFeedSec = getPredictedNextFeedSec();
+        // Still inside the dip of the last feed, or close to the next one
+        boolean boosting = !Double.isNaN(lastFeedSec) && timestampSec <= lastFeedSec + dipDelaySec + recoverySec
+                || !Double.isNaN(nextFeedSec) && timestampSec >= nextFeedSec - boostLeadSec.getAsDouble();
+        return boosting ? drop : 0;
+    }
+
+    /**
+     * @return when the next artifact should be fed, or NaN when none is expected or it cannot be predicted yet.
+     */
+    public double getPredictedNextFeedSec() {
+        if (!volleyActive || feedsThisVolley >= expectedFeeds) {
+            return Double.NaN;
+        }
+        return feedsThisVolley == 0 ? volleyStartSec + firstFeedDelaySec : lastFeedSec + feedIntervalSec;
+    }
+
+    /**
+     * Sets the learned values, such as ones saved from an earlier match.
+     */
+    public void restore(double drop, double dipDelaySec, double recoverySec, double feedIntervalSec,
+                        double firstFeedDelaySec, int learnedShots) {
+        this.drop = drop;
+        this.dipDelaySec = dipDelaySec;
+        this.recoverySec = recoverySec;
+        this.feedIntervalSec = feedIntervalSec;
+        this.firstFeedDelaySec = firstFeedDelaySec;
+        this.learnedShots = learnedShots;
+    }
+
+    public boolean isVolleyActive() {
+        return volleyActive;
+    }
+
+    public int getLearnedShots() {
+        return learnedShots;
+    }
+
+    public double getDrop() {
+        return drop;
+    }
+
+    public double getDipDelaySeconds() {
+        return dipDelaySec;
+    }
+
+    public double getRecoverySeconds() {
+        return recoverySec;
+    }
+
+    public double getFeedIntervalSeconds() {
+        return feedIntervalSec;
+    }
+
+    public double getFirstFeedDelaySeconds() {
+        return firstFeedDelaySec;
+    }
+
+    /**
+     * @return the shots seen in the current or last volley, oldest first.
+     */
+    public List<Shot> getVolleyShots() {
+        return Collections.unmodifiableList(volleyShots);
+    }
+
+    /**
+     * @return the exit velocity estimate of the last shot seen, or NaN before the first one.
+     */
+    public double getLastExitVelocityEstimate() {
+        return volleyShots.isEmpty() ? Double.NaN : volleyShots.get(volleyShots.size() - 1).exitVelocityEstimate;
+    }
+}
@@ -0,0 +1,115 @@
+package org.firstinspires.ftc.teamcode.hardware.controllers;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * Accelerates at the acceleration limit up to the velocity limit, cruises, then decelerates to stop on the end position.
+ * Short moves never reach the velocity limit and become a triangle.
+ * <p>
+ * Moves can start while already moving. A start velocity above the limit is clamped to it, and a start that is too fast
+ * to stop in time overshoots and comes back. The limits are read when a move is planned, and a limit that is not
+ * positive plans a step straight to the end.
+ */
+public class TrapezoidalProfile implements MotionProfile {
+    private final DoubleSupplier maxVelocity;
+    private final DoubleSupplier maxAcceleration;
+
+    // The move is planned along +direction, starting at 0 and ending at distance
+    private double startPosition, endPosition;
+    private double direction = 1;
+    private double startVelocity, peakVelocity, acceleration;
+    private double endAccelSec, endCruiseSec, endDecelSec;
+    private double endAccelPosition, endCruisePosition;
+
+    public TrapezoidalProfile(DoubleSupplier maxVelocity, DoubleSupplier maxAcceleration) {
+        this.maxVelocity = maxVelocity;
+        this.maxAcceleration = maxAcceleration;
+    }
+
+    public TrapezoidalProfile(double maxVelocity, double maxAcceleration) {
+        this(() -> maxVelocity, () -> maxAcceleration);
+    }
+
+    @Override
+    public void plan(double startPosition, double startVelocity, double endPosition) {
+        plan(startPosition, startVelocity, endPosition, maxVelocity.getAsDouble(), maxAcceleration.getAsDouble());
+    }
+
+    void plan(double startPosition, double startVelocity, double endPosition, double maxVelocity, double maxAcceleration) {
+        this.startPosition = startPosition;
+        this.endPosition = endPosition;
+        if (!(maxVelocity > 0) || !(maxAcceleration > 0)) {
+            endAccelSec = endCruiseSec = endDecelSec = 0;
+            this.startVelocity = peakVelocity = acceleration = 0;
+            endAccelPosition = endCruisePosition = endPosition - startPosition;
+            direction = 1;
+            return;
+        }
+
+        direction = endPosition >= startPosition ? 1 : -1;
+        double distance = direction * (endPosition - startPosition);
+        double velocity = Math.min(direction * startVelocity, maxVelocity);
+        if (velocity > 0 && velocity * velocity / (2 * maxAcceleration) > distance) {
+            // Too fast to stop before the end, so stop past it and come back
+            direction = -direction;
+            distance = -distance;
+            velocity = -velocity;
+        }
+
+        // Treat the start as partway up a ramp that began at rest, then plan that full move
+        double rampSec = velocity / maxAcceleration;
+        double fullDistance = distance + rampSec * rampSec * maxAcceleration / 2;
+        double accelSec = maxVelocity / maxAcceleration;
+        double cruiseDistance = fullDistance - accelSec * accelSec * maxAcceleration;
+        if (cruiseDistance < 0) {
+            accelSec = Math.sqrt(fullDistance / maxAcceleration);
+            cruiseDistance = 0;
+        }
+
+        this.startVelocity = velocity;
+        acceleration = maxAcceleration;
+        peakVelocity = accelSec * maxAcceleration;
+        endAccelSec = Math.max(0, accelSec - rampSec);
+        endCruiseSec = endAccelSec + cruiseDistance / peakVelocity;
+        endDecelSec = endCruiseSec + accelSec;
+        endAccelPosition = velocity * endAccelSec + acceleration * endAccelSec * endAccelSec / 2;
+        endCruisePosition = endAccelPosition + cruiseDistance;
+    }
+
+    @Override
+    public void sample(double timeSec, MotionState out) {
+        double position, velocity, accel;
+        if (timeSec <= 0) {
+            position = 0;
+            velocity = startVelocity;
+            accel = endAccelSec > 0 ? acceleration : 0;
+        } else if (timeSec < endAccelSec) {
+            position = startVelocity * timeSec + acceleration * timeSec * timeSec / 2;
+            velocity = startVelocity + acceleration * timeSec;
+            accel = acceleration;
+        } else if (timeSec < endCruiseSec) {
+            position = endAccelPosition + peakVelocity * (timeSec - endAccelSec);
+            velocity = peakVelocity;
+            accel = 0;
+        } else if (timeSec < endDecelSec) {
+            double t = timeSec - endCruiseSec;
+            position = endCruisePosition + peakVelocity * t - acceleration * t * t / 2;
+            velocity = peakVelocity - acceleration * t;
+            accel = -acceleration;
+        } else {
+            out.set(endPosition, 0, 0);
+            return;
+        }
+        out.set(startPosition + direction * position, direction * velocity, direction * accel);
+    }
+
+    @Override
+    public double getDurationSeconds() {
+        return endDecelSec;
+    }
+
+    @Override
+    public double getEndPosition() {
+        return endPosition;
+    }
+}
@@ -0,0 +1,44 @@
+package org.firstinspires.ftc.teamcode.hardware.controllers;
+
+/**
+ * Rules that turn the ultimate gain Ku and ultimate period Tu from {@link RelayAutoTuner} into PID gains,
+ * as {@code kP = p * Ku}, {@code Ti = i * Tu} and {@code Td = d * Tu}.
+ */
+public enum TuningRule {
+    /** Fast, with about 25% overshoot. */
+    ZIEGLER_NICHOLS(0.6, 0.5, 0.125),
+    /** Ziegler-Nichols with a stronger integral, for rejecting loads. */
+    PESSEN_INTEGRAL(0.7, 0.4, 0.15),
+    SOME_OVERSHOOT(0.33, 0.5, 0.33),
+    NO_OVERSHOOT(0.2, 0.5, 0.33),
+    /** Conservative and robust to model error, a good first try on a mechanism with backlash. */
+    TYREUS_LUYBEN(1 / 2.2, 2.2, 1 / 6.3);
+
+    private final double pFactor;
+    private final double integralTimeFactor;
+    private final double derivativeTimeFactor;
+
+    TuningRule(double pFactor, double integralTimeFactor, double derivativeTimeFactor) {
+        this.pFactor = pFactor;
+        this.integralTimeFactor = integralTimeFactor;
+        this.derivativeTimeFactor = derivativeTimeFactor;
+    }
+
+    public double kP(double ultimateGain) {
+        return pFactor * ultimateGain;
+    }
+
+    /**
+     * @return the integral time Ti, in seconds.
+     */
+    public double integralTimeSeconds(double ultimatePeriodSec) {
+        return integralTimeFactor * ultimatePeriodSec;
+    }
+
+    /**
+     * @return the derivative time Td, in seconds.
+     */
+    public double derivativeTimeSeconds(double ultimatePeriodSec) {
+        return derivativeTimeFactor * ultimatePeriodSec;
+    }
+}
@@ -1,8 +1,21 @@
 package org.firstinspires.ftc.teamcode.hardware.controllers;
 
+import org.firstinspires.ftc.teamcode.hardware.TickClock;
+
 /**
  * Control algorithm that operates directly on measured velocity values.
  */
 public interface VelocityControlAlgorithm extends ControlAlgorithm {
-    double calcVelocity(double targetVelocity, double actualVelocity);
+    /**
+     * Calculates the output using the time read from the clock right now.
+     */
+    default double calcVelocity(double targetVelocity, double actualVelocity) {
+        return calcVelocity(targetVelocity, actualVelocity, TickClock.readLiveSeconds());
+    }
+
+    /**
+     * @param timestampSec when the actual velocity was measured, usually {@link TickClock#getTimestampSeconds()}.
+     *                     Time-dependent terms use the difference from the previous call.
+     */
+    double calcVelocity(double targetVelocity, double actualVelocity, double timestampSec);
 }
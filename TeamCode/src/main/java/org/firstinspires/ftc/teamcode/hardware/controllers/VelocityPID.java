@@ -1,5 +1,7 @@
 package org.firstinspires.ftc.teamcode.hardware.controllers;
 
+import org.firstinspires.ftc.teamcode.hardware.TickClock;
+
 import java.util.function.DoubleSupplier;
 
 /**
@@ -10,18 +12,15 @@ import java.util.function.DoubleSupplier;
  * by the target velocity, rather than being a constant term.
  */
 public class VelocityPID extends BasePIDController implements VelocityControlAlgorithm {
-    protected final DoubleSupplier kP, kI, kD, kF;
+    protected final LiveGains gains;
     private double lastPosition = 0;
     private double currentVelocity = 0;
+    private double lastPositionTimestampSec = 0;
     private boolean firstCalculation = true;
-    private final com.qualcomm.robotcore.util.ElapsedTime velocityTimer = new com.qualcomm.robotcore.util.ElapsedTime();
 
     protected VelocityPID(DoubleSupplier kP, DoubleSupplier kI, DoubleSupplier kD, DoubleSupplier kF, double tolerance) {
         super(tolerance);
-        this.kP = kP;
-        this.kI = kI;
-        this.kD = kD;
-        this.kF = kF;
+        this.gains = new LiveGains(kP, kI, kD, kF);
     }
 
     /**
@@ -33,22 +32,38 @@ public class VelocityPID extends BasePIDController implements VelocityControlAlg
      * @return The calculated motor power
      */
     public double calc(double targetVelocity, double currentPosition) {
+        return calc(targetVelocity, currentPosition, TickClock.readLiveSeconds());
+    }
+
+    /**
+     * Calculates the PID output for velocity control from a position measured at a known time.
+     *
+     * @param targetVelocity The desired velocity
+     * @param currentPosition The current position (used to calculate actual velocity)
+     * @param timestampSec When the position was measured, usually {@link TickClock#getTimestampSeconds()}
+     * @return The calculated motor power
+     */
+    public double calc(double targetVelocity, double currentPosition, double timestampSec) {
         // Calculate velocity from position change
         if (firstCalculation) {
             lastPosition = currentPosition;
-            velocityTimer.reset();
+            lastPositionTimestampSec = timestampSec;
             firstCalculation = false;
             currentVelocity = 0;
         } else {
-            double dt = velocityTimer.seconds();
+            double dt = timestampSec - lastPositionTimestampSec;
             if (dt > 0) {
                 currentVelocity = (currentPosition - lastPosition) / dt;
                 lastPosition = currentPosition;
-                velocityTimer.reset();
+                lastPositionTimestampSec = timestampSec;
+            } else if (dt < 0) {
+                // The clock was restarted, so measure from here
+                lastPosition = currentPosition;
+                lastPositionTimestampSec = timestampSec;
             }
         }
 
-        return calcVelocity(targetVelocity, currentVelocity);
+        return calcVelocity(targetVelocity, currentVelocity, timestampSec);
     }
 
     /**
@@ -56,21 +71,29 @@ public class VelocityPID extends BasePIDController implements VelocityControlAlg
      *
      * @param targetVelocity The desired velocity
      * @param actualVelocity The actual measured velocity
+     * @param timestampSec When the velocity was measured, usually {@link TickClock#getTimestampSeconds()}
      * @return The calculated motor power
      */
     @Override
-    public double calcVelocity(double targetVelocity, double actualVelocity) {
-        return calc(targetVelocity, actualVelocity, kP.getAsDouble(), kI.getAsDouble(), kD.getAsDouble(), kF.getAsDouble());
+    public double calcVelocity(double targetVelocity, double actualVelocity, double timestampSec) {
+        Gains g = snapshotGains(gains, timestampSec);
+        return calc(targetVelocity, actualVelocity, timestampSec, g.kP, g.kI, g.kD, g.kF);
+    }
+
+    /**
+     * @return the coefficients used by the latest calculation, or null before the first one.
+     */
+    public Gains getGains() {
+        return gains.getCurrent();
     }
 
-    protected double calc(double target, double actual, double kP, double kI, double kD, double kF) {
+    protected double calc(double target, double actual, double timestampSec, double kP, double kI, double kD, double kF) {
         double currentError = target - actual;
 
         boolean lastIsBusy = isBusy;
 
         if (Math.abs(currentError) > tolerance) {
-            double timeChange = timer.milliseconds();
-            timer.reset();
+            double timeChange = advanceTimeMs(timestampSec);
 
             double p = kP * currentError;
 
@@ -132,7 +155,6 @@ public class VelocityPID extends BasePIDController implements VelocityControlAlg
         firstCalculation = true;
         currentVelocity = 0;
         lastPosition = 0;
-        velocityTimer.reset();
     }
 
     public static Builder builder() {
@@ -0,0 +1,103 @@
+package org.firstinspires.ftc.teamcode.hardware.filters;
+
+/**
+ * A second order IIR filter, using the coefficients from the Audio EQ Cookbook.
+ * <p>
+ * The filter is designed for a fixed sample rate, so it should be fed at a steady loop rate. The first sample sets the
+ * filter to its steady state for that input, so the output does not ramp up from zero.
+ */
+public class BiquadFilter implements DataFilter {
+	private final double b0, b1, b2, a1, a2;
+	private double z1, z2;
+	private boolean initialized = false;
+
+	/**
+	 * Creates a filter from raw coefficients, with the feedback coefficients normalized so a0 is 1.
+	 */
+	public BiquadFilter(double b0, double b1, double b2, double a1, double a2){
+		this.b0 = b0;
+		this.b1 = b1;
+		this.b2 = b2;
+		this.a1 = a1;
+		this.a2 = a2;
+	}
+
+	/**
+	 * @param cutoffHz the frequency above which the input is attenuated.
+	 * @param sampleRateHz how often the filter is fed.
+	 * @param q the resonance. 0.7071 gives a Butterworth response with no overshoot in frequency.
+	 */
+	public static BiquadFilter lowPass(double cutoffHz, double sampleRateHz, double q){
+		double omega = 2 * Math.PI * cutoffHz / sampleRateHz;
+		double cos = Math.cos(omega);
+		double alpha = Math.sin(omega) / (2 * q);
+		double a0 = 1 + alpha;
+		return new BiquadFilter(
+				(1 - cos) / 2 / a0,
+				(1 - cos) / a0,
+				(1 - cos) / 2 / a0,
+				-2 * cos / a0,
+				(1 - alpha) / a0
+		);
+	}
+
+	/**
+	 * @param centerHz the frequency to remove, for example a vibration from a spinning mechanism.
+	 * @param sampleRateHz how often the filter is fed.
+	 * @param q how narrow the notch is. Higher values remove less around the center frequency.
+	 */
+	public static BiquadFilter notch(double centerHz, double sampleRateHz, double q){
+		double omega = 2 * Math.PI * centerHz / sampleRateHz;
+		double cos = Math.cos(omega);
+		double alpha = Math.sin(omega) / (2 * q);
+		double a0 = 1 + alpha;
+		return new BiquadFilter(
+				1 / a0,
+				-2 * cos / a0,
+				1 / a0,
+				-2 * cos / a0,
+				(1 - alpha) / a0
+		);
+	}
+
+	@Override
+	public double compute(double value){
+		if(!initialized){
+			initialized = true;
+			double output = value * getDcGain();
+			z2 = b2 * value - a2 * output;
+			z1 = b1 * value - a1 * output + z2;
+		}
+
+		// Transposed direct form II
+		double output = b0 * value + z1;
+		z1 = b1 * value - a1 * output + z2;
+		z2 = b2 * value - a2 * output;
+		return output;
+	}
+
+	private double getDcGain(){
+		return (b0 + b1 + b2) / (1 + a1 + a2);
+	}
+
+	@Override
+	public void reset(){
+		initialized = false;
+	}
+
+	/**
+	 * Estimated from the slowest pole, which sets how quickly the response to a step dies out.
+	 */
+	@Override
+	public int getSettlingSamples(){
+		double discriminant = a1 * a1 - 4 * a2;
+		double poleMagnitude;
+		if(discriminant < 0){
+			poleMagnitude = Math.sqrt(a2);
+		} else {
+			double root = Math.sqrt(discriminant);
+			poleMagnitude = Math.max(Math.abs((-a1 + root) / 2), Math.abs((-a1 - root) / 2));
+		}
+		return ExponentialMovingAverage.settlingSamplesForPole(poleMagnitude);
+	}
+}
@@ -1,7 +1,52 @@
 package org.firstinspires.ftc.teamcode.hardware.filters;
 
+/**
+ * A filter that turns one sample into one output, called once per sample.
+ * <p>
+ * Filters chain with {@link #then(DataFilter)}, and report how long they take to settle, so a mechanism can weigh the
+ * latency a filter adds against the noise it removes.
+ */
 public interface DataFilter {
+	/**
+	 * The fraction of a step that a filter's output must stay within to count as settled.
+	 */
+	double SETTLING_BAND = 0.02;
+
 	double compute(double value);
 
+	/**
+	 * @return how many samples after the one carrying a step in the input the output takes to settle within
+	 * {@link #SETTLING_BAND} of it, or 0 if the filter adds no lag.
+	 */
+	default int getSettlingSamples(){
+		return 0;
+	}
+
+	/**
+	 * @param samplePeriodSec the time between samples.
+	 * @return how long the output takes to settle after a step in the input.
+	 */
+	default double getSettlingTime(double samplePeriodSec){
+		return getSettlingSamples() * samplePeriodSec;
+	}
+
+	/**
+	 * Forgets every sample seen so far.
+	 */
+	default void reset(){}
+
+	/**
+	 * Feeds the output of this filter into another one.
+	 *
+	 * @param next the filter applied after this one.
+	 * @return a filter running both in order.
+	 */
+	default DataFilter then(DataFilter next){
+		if(this == NONE){
+			return next;
+		}
+		return new FilterChain(this, next);
+	}
+
 	DataFilter NONE = (value -> value);
 }
@@ -0,0 +1,69 @@
+package org.firstinspires.ftc.teamcode.hardware.filters;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * Blends each sample into the output with weight {@code alpha}. Higher alpha follows the input faster and filters less.
+ * Until the first sample, or a call to {@link #reset(double)}, there is no output to blend with, so the first sample
+ * passes straight through.
+ */
+public class ExponentialMovingAverage implements DataFilter {
+	private final DoubleSupplier alpha;
+	private double output;
+	private boolean initialized = false;
+
+	/**
+	 * @param alpha the weight of each new sample, from 0 to 1.
+	 */
+	public ExponentialMovingAverage(double alpha){
+		this(() -> alpha);
+	}
+
+	public ExponentialMovingAverage(DoubleSupplier alpha){
+		this.alpha = alpha;
+	}
+
+	@Override
+	public double compute(double value){
+		if(!initialized){
+			initialized = true;
+			output = value;
+			return output;
+		}
+		double weight = Math.max(0, Math.min(1, alpha.getAsDouble()));
+		output += weight * (value - output);
+		return output;
+	}
+
+	/**
+	 * Starts the average at a given value instead of at the next sample.
+	 */
+	public void reset(double value){
+		output = value;
+		initialized = true;
+	}
+
+	@Override
+	public void reset(){
+		initialized = false;
+	}
+
+	@Override
+	public int getSettlingSamples(){
+		return settlingSamplesForPole(1 - Math.max(0, Math.min(1, alpha.getAsDouble())));
+	}
+
+	/**
+	 * @param pole how much of the remaining error survives each sample, from 0 to 1.
+	 * @return samples after the one carrying a step until the error falls below {@link #SETTLING_BAND}.
+	 */
+	static int settlingSamplesForPole(double pole){
+		if(pole <= 0){
+			return 0;
+		}
+		if(pole >= 1){
+			return Integer.MAX_VALUE;
+		}
+		return (int) Math.ceil(Math.log(SETTLING_BAND) / Math.log(pole)) - 1;
+	}
+}
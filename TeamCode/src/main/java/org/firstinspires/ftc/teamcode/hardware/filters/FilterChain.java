@@ -0,0 +1,47 @@
+package org.firstinspires.ftc.teamcode.hardware.filters;
+
+/**
+ * Runs several filters in order, each one fed the output of the last. Created by {@link DataFilter#then(DataFilter)}.
+ */
+public class FilterChain implements DataFilter {
+	private final DataFilter[] stages;
+
+	FilterChain(DataFilter first, DataFilter next){
+		DataFilter[] head = first instanceof FilterChain ? ((FilterChain) first).stages : new DataFilter[]{ first };
+		stages = new DataFilter[head.length + 1];
+		System.arraycopy(head, 0, stages, 0, head.length);
+		stages[head.length] = next;
+	}
+
+	@Override
+	public double compute(double value){
+		for(DataFilter stage : stages){
+			value = stage.compute(value);
+		}
+		return value;
+	}
+
+	/**
+	 * @return the sum of every stage's settling time, which is an upper bound for the whole chain.
+	 */
+	@Override
+	public int getSettlingSamples(){
+		long samples = 0;
+		for(DataFilter stage : stages){
+			samples += stage.getSettlingSamples();
+		}
+		return (int) Math.min(Integer.MAX_VALUE, samples);
+	}
+
+	@Override
+	public void reset(){
+		for(DataFilter stage : stages){
+			stage.reset();
+		}
+	}
+
+	@Override
+	public DataFilter then(DataFilter next){
+		return new FilterChain(this, next);
+	}
+}
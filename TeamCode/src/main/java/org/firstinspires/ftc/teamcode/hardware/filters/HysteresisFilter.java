@@ -0,0 +1,66 @@
+package org.firstinspires.ftc.teamcode.hardware.filters;
+
+/**
+ * Turns a noisy signal into a clean on/off output, 1 or 0.
+ * <p>
+ * The output turns on once the input reaches {@code onThreshold} and off once it drops to {@code offThreshold}, so noise
+ * between the two thresholds cannot make it flicker. It also only changes after the input has been past a threshold
+ * for {@code debounceSamples} samples in a row.
+ */
+public class HysteresisFilter implements DataFilter {
+	private final double onThreshold;
+	private final double offThreshold;
+	private final int debounceSamples;
+	private boolean on = false;
+	private int pendingSamples = 0;
+
+	public HysteresisFilter(double onThreshold, double offThreshold){
+		this(onThreshold, offThreshold, 1);
+	}
+
+	/**
+	 * @param onThreshold the input at or above which the output turns on.
+	 * @param offThreshold the input at or below which the output turns off. Must not be above {@code onThreshold}.
+	 * @param debounceSamples how many samples in a row must be past a threshold before the output changes.
+	 */
+	public HysteresisFilter(double onThreshold, double offThreshold, int debounceSamples){
+		if(offThreshold > onThreshold){
+			throw new IllegalArgumentException("offThreshold must not be greater than onThreshold");
+		}
+		if(debounceSamples <= 0){
+			throw new IllegalArgumentException("debounceSamples must be greater than 0");
+		}
+		this.onThreshold = onThreshold;
+		this.offThreshold = offThreshold;
+		this.debounceSamples = debounceSamples;
+	}
+
+	@Override
+	public double compute(double value){
+		boolean pastThreshold = on ? value <= offThreshold : value >= onThreshold;
+		if(pastThreshold){
+			if(++pendingSamples >= debounceSamples){
+				on = !on;
+				pendingSamples = 0;
+			}
+		} else {
+			pendingSamples = 0;
+		}
+		return on ? 1 : 0;
+	}
+
+	public boolean isOn(){
+		return on;
+	}
+
+	@Override
+	public void reset(){
+		on = false;
+		pendingSamples = 0;
+	}
+
+	@Override
+	public int getSettlingSamples(){
+		return debounceSamples - 1;
+	}
+}
@@ -0,0 +1,66 @@
+package org.firstinspires.ftc.teamcode.hardware.filters;
+
+/**
+ * A one-dimensional Kalman filter for a value that holds roughly steady between samples.
+ * <p>
+ * {@code processNoise} is how much the real value is expected to wander between samples, and
+ * {@code measurementNoise} is the variance of the sensor. A larger ratio of process to measurement noise trusts each
+ * sample more and follows changes faster.
+ */
+public class KalmanFilter implements DataFilter {
+	private final double processNoise;
+	private final double measurementNoise;
+	private double estimate;
+	private double errorCovariance;
+	private boolean initialized = false;
+
+	public KalmanFilter(double processNoise, double measurementNoise){
+		if(processNoise < 0 || measurementNoise <= 0){
+			throw new IllegalArgumentException("processNoise must not be negative and measurementNoise must be positive");
+		}
+		this.processNoise = processNoise;
+		this.measurementNoise = measurementNoise;
+	}
+
+	@Override
+	public double compute(double value){
+		if(!initialized){
+			initialized = true;
+			estimate = value;
+			errorCovariance = measurementNoise;
+			return estimate;
+		}
+
+		double predictedCovariance = errorCovariance + processNoise;
+		double gain = predictedCovariance / (predictedCovariance + measurementNoise);
+		estimate += gain * (value - estimate);
+		errorCovariance = (1 - gain) * predictedCovariance;
+		return estimate;
+	}
+
+	@Override
+	public void reset(){
+		initialized = false;
+	}
+
+	public double getEstimate(){
+		return estimate;
+	}
+
+	public double getErrorCovariance(){
+		return errorCovariance;
+	}
+
+	/**
+	 * @return the gain the filter converges to, which makes it behave like an exponential moving average.
+	 */
+	public double getSteadyStateGain(){
+		double predictedCovariance = (processNoise + Math.sqrt(processNoise * processNoise + 4 * processNoise * measurementNoise)) / 2;
+		return predictedCovariance / (predictedCovariance + measurementNoise);
+	}
+
+	@Override
+	public int getSettlingSamples(){
+		return ExponentialMovingAverage.settlingSamplesForPole(1 - getSteadyStateGain());
+	}
+}
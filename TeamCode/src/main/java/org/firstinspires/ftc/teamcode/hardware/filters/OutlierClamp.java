@@ -0,0 +1,70 @@
+package org.firstinspires.ftc.teamcode.hardware.filters;
+
+/**
+ * Keeps single bad samples out of the output.
+ * <p>
+ * Samples are first clamped to {@code [min, max]}. A sample that then jumps more than {@code maxJump} from the last
+ * output is treated as an outlier and the last output is held instead. If {@code maxRejected} samples in a row are
+ * rejected, the input has really moved, so the next one is accepted.
+ */
+public class OutlierClamp implements DataFilter {
+	private final double min;
+	private final double max;
+	private final double maxJump;
+	private final int maxRejected;
+	private double output;
+	private int rejectedInRow = 0;
+	private boolean initialized = false;
+
+	/**
+	 * Only clamps samples to a range.
+	 */
+	public OutlierClamp(double min, double max){
+		this(min, max, Double.POSITIVE_INFINITY, 0);
+	}
+
+	public OutlierClamp(double min, double max, double maxJump, int maxRejected){
+		if(min > max){
+			throw new IllegalArgumentException("min must not be greater than max");
+		}
+		this.min = min;
+		this.max = max;
+		this.maxJump = Math.abs(maxJump);
+		this.maxRejected = Math.max(0, maxRejected);
+	}
+
+	@Override
+	public double compute(double value){
+		if(Double.isNaN(value)){
+			return initialized ? output : value;
+		}
+		double clamped = Math.max(min, Math.min(max, value));
+		if(initialized && Math.abs(clamped - output) > maxJump && rejectedInRow < maxRejected){
+			rejectedInRow++;
+			return output;
+		}
+
+		initialized = true;
+		rejectedInRow = 0;
+		output = clamped;
+		return output;
+	}
+
+	public boolean isRejecting(){
+		return rejectedInRow > 0;
+	}
+
+	@Override
+	public void reset(){
+		initialized = false;
+		rejectedInRow = 0;
+	}
+
+	/**
+	 * A real step is only accepted once the rejection limit runs out.
+	 */
+	@Override
+	public int getSettlingSamples(){
+		return maxJump == Double.POSITIVE_INFINITY ? 0 : maxRejected;
+	}
+}
@@ -2,31 +2,64 @@ package org.firstinspires.ftc.teamcode.hardware.filters;
 
 import androidx.annotation.NonNull;
 
-import java.util.ArrayDeque;
-
+/**
+ * Averages the most recent {@code maxSize} samples.
+ * <p>
+ * Samples are kept in a primitive ring buffer so adding one never allocates, and the running sum uses Kahan
+ * summation so it does not drift over a long match. The sum is also recomputed exactly from the window every so often,
+ * which bounds any error that compensation cannot remove.
+ */
 public class RollingAverage implements DataFilter {
+	private static final int MIN_RESUM_INTERVAL = 256;
+
 	private int maxSize;
-	private final ArrayDeque<Double> values;
+	private double[] buffer;
+	private int head = 0;
+	private int count = 0;
 	private double sum = 0.0;
+	private double compensation = 0.0;
+	private int updatesSinceResum = 0;
 
 	public RollingAverage(int maxSize){
+		if(maxSize <= 0) throw new IllegalArgumentException("maxSize must be greater than 0");
+
 		this.maxSize = maxSize;
-		this.values = new ArrayDeque<>(maxSize);
+		this.buffer = new double[maxSize];
 	}
 
-	/**
-	 * @noinspection DataFlowIssue
-	 */
 	public void add(double value){
-		if(values.size() >= maxSize){
-			sum -= values.pollFirst(); // Remove oldest value
+		if(count >= maxSize){
+			accumulate(-buffer[head]); // Remove oldest value
+			head = (head + 1) % buffer.length;
+			count--;
+		}
+		buffer[(head + count) % buffer.length] = value;
+		count++;
+		accumulate(value);
+
+		if(++updatesSinceResum >= Math.max(maxSize, MIN_RESUM_INTERVAL)){
+			resum();
 		}
-		values.addLast(value);
-		sum += value;
+	}
+
+	private void accumulate(double value){
+		double y = value - compensation;
+		double t = sum + y;
+		compensation = (t - sum) - y;
+		sum = t;
+	}
+
+	private void resum(){
+		sum = 0.0;
+		compensation = 0.0;
+		for(int i = 0; i < count; i++){
+			accumulate(buffer[(head + i) % buffer.length]);
+		}
+		updatesSinceResum = 0;
 	}
 
 	public double getAverage(){
-		return values.isEmpty() ? 0.0 : sum / values.size();
+		return count == 0 ? 0.0 : sum / count;
 	}
 
 	public double compute(double newValue){
@@ -35,19 +68,50 @@ public class RollingAverage implements DataFilter {
 	}
 
 	public int size(){
-		return values.size();
+		return count;
+	}
+
+	@Override
+	public void reset(){
+		head = 0;
+		count = 0;
+		sum = 0.0;
+		compensation = 0.0;
+		updatesSinceResum = 0;
 	}
 
+	/**
+	 * An average over the full window settles once the window holds only samples taken after a step.
+	 */
+	@Override
+	public int getSettlingSamples(){
+		return maxSize - 1;
+	}
+
+	/**
+	 * Changes the window size. Growing past the current capacity reallocates the buffer; shrinking drops the oldest
+	 * samples, so the cost is proportional to the samples removed and amortizes to O(1) per added sample.
+	 */
 	public void setMaxSize(int newMaxSize){
 		if(newMaxSize <= 0) throw new IllegalArgumentException("maxSize must be greater than 0");
 
-		this.maxSize = newMaxSize;
-
 		// Trim excess values if the new maxSize is smaller
-		while(values.size() > maxSize){
-			//noinspection DataFlowIssue
-			sum -= values.pollFirst(); // Remove oldest value to match new max size
+		while(count > newMaxSize){
+			accumulate(-buffer[head]); // Remove oldest value to match new max size
+			head = (head + 1) % buffer.length;
+			count--;
+		}
+
+		if(newMaxSize > buffer.length){
+			double[] grown = new double[Math.max(newMaxSize, buffer.length * 2)];
+			for(int i = 0; i < count; i++){
+				grown[i] = buffer[(head + i) % buffer.length];
+			}
+			buffer = grown;
+			head = 0;
 		}
+
+		this.maxSize = newMaxSize;
 	}
 
 	public int getMaxSize(){
@@ -57,6 +121,13 @@ public class RollingAverage implements DataFilter {
 	@NonNull
 	@Override
 	public String toString(){
-		return values.toString();
+		StringBuilder builder = new StringBuilder("[");
+		for(int i = 0; i < count; i++){
+			if(i > 0){
+				builder.append(", ");
+			}
+			builder.append(buffer[(head + i) % buffer.length]);
+		}
+		return builder.append(']').toString();
 	}
 }
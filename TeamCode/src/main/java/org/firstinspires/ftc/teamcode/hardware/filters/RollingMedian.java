@@ -0,0 +1,37 @@
+package org.firstinspires.ftc.teamcode.hardware.filters;
+
+import org.firstinspires.ftc.teamcode.utilities.RollingPercentileWindow;
+
+/**
+ * Outputs the median of the most recent samples. Unlike an average, a single bad sample cannot move it, so it suits
+ * sensors that occasionally return garbage.
+ */
+public class RollingMedian implements DataFilter {
+	private final RollingPercentileWindow window;
+
+	public RollingMedian(int windowSize){
+		this.window = new RollingPercentileWindow(windowSize, 50);
+	}
+
+	@Override
+	public double compute(double value){
+		return window.compute(value);
+	}
+
+	/**
+	 * The median follows a step once more than half the window holds the new value.
+	 */
+	@Override
+	public int getSettlingSamples(){
+		return window.getMaxSize() / 2;
+	}
+
+	@Override
+	public void reset(){
+		window.reset();
+	}
+
+	public int getWindowSize(){
+		return window.getMaxSize();
+	}
+}
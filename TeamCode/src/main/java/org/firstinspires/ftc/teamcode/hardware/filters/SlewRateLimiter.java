@@ -0,0 +1,77 @@
+package org.firstinspires.ftc.teamcode.hardware.filters;
+
+import org.firstinspires.ftc.teamcode.hardware.TickClock;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * Limits how fast the output can change, in units per second, using the {@link TickClock} time between samples.
+ */
+public class SlewRateLimiter implements DataFilter {
+	private final DoubleSupplier maxRisePerSecond;
+	private final DoubleSupplier maxFallPerSecond;
+	private double output;
+	private long lastNanos;
+	private boolean initialized = false;
+
+	public SlewRateLimiter(double maxRatePerSecond){
+		this(() -> maxRatePerSecond, () -> maxRatePerSecond);
+	}
+
+	/**
+	 * @param maxRisePerSecond the fastest the output may increase.
+	 * @param maxFallPerSecond the fastest the output may decrease, as a positive number.
+	 */
+	public SlewRateLimiter(DoubleSupplier maxRisePerSecond, DoubleSupplier maxFallPerSecond){
+		this.maxRisePerSecond = maxRisePerSecond;
+		this.maxFallPerSecond = maxFallPerSecond;
+	}
+
+	@Override
+	public double compute(double value){
+		long now = TickClock.getTimestampNanos();
+		if(!initialized){
+			initialized = true;
+			output = value;
+			lastNanos = now;
+			return output;
+		}
+
+		double dt = (now - lastNanos) / 1e9;
+		// Samples within the same tick cannot move the output, and a clock that went back only restarts the timing
+		if(dt <= 0){
+			if(dt < 0){
+				lastNanos = now;
+			}
+			return output;
+		}
+		lastNanos = now;
+		double change = value - output;
+		double maxRise = Math.abs(maxRisePerSecond.getAsDouble()) * dt;
+		double maxFall = Math.abs(maxFallPerSecond.getAsDouble()) * dt;
+		output += Math.max(-maxFall, Math.min(maxRise, change));
+		return output;
+	}
+
+	@Override
+	public void reset(){
+		initialized = false;
+	}
+
+	/**
+	 * The lag depends on the size of the step rather than on the sample rate, see {@link #getSettlingTimeForStep(double)}.
+	 */
+	@Override
+	public int getSettlingSamples(){
+		return 0;
+	}
+
+	/**
+	 * @param step the size of a step in the input, positive for a rise.
+	 * @return how long the output takes to follow the step, in seconds.
+	 */
+	public double getSettlingTimeForStep(double step){
+		double rate = Math.abs(step >= 0 ? maxRisePerSecond.getAsDouble() : maxFallPerSecond.getAsDouble());
+		return rate == 0 ? Double.POSITIVE_INFINITY : Math.abs(step) / rate;
+	}
+}
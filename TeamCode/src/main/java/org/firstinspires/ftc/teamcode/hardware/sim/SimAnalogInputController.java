@@ -0,0 +1,63 @@
+package org.firstinspires.ftc.teamcode.hardware.sim;
+
+import com.qualcomm.robotcore.hardware.AnalogInputController;
+import com.qualcomm.robotcore.util.SerialNumber;
+
+/**
+ * Backs a simulated {@link com.qualcomm.robotcore.hardware.AnalogInput} with a voltage set by the scenario.
+ */
+public class SimAnalogInputController implements AnalogInputController {
+    private final String name;
+    private final double maxVoltage;
+    private volatile double voltage = 0;
+
+    SimAnalogInputController(String name, double maxVoltage) {
+        this.name = name;
+        this.maxVoltage = maxVoltage;
+    }
+
+    public void setVoltage(double voltage) {
+        this.voltage = Math.max(0, Math.min(maxVoltage, voltage));
+    }
+
+    @Override
+    public double getAnalogInputVoltage(int channel) {
+        return voltage;
+    }
+
+    @Override
+    public double getMaxAnalogInputVoltage() {
+        return maxVoltage;
+    }
+
+    @Override
+    public SerialNumber getSerialNumber() {
+        return SerialNumber.createFake();
+    }
+
+    @Override
+    public Manufacturer getManufacturer() {
+        return Manufacturer.Other;
+    }
+
+    @Override
+    public String getDeviceName() {
+        return "Simulated Analog Input";
+    }
+
+    @Override
+    public String getConnectionInfo() {
+        return "sim; analog; " + name;
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @Override
+    public void resetDeviceConfigurationForOpMode() {}
+
+    @Override
+    public void close() {}
+}
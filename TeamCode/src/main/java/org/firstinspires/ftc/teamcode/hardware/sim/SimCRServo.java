@@ -0,0 +1,78 @@
+package org.firstinspires.ftc.teamcode.hardware.sim;
+
+import com.qualcomm.robotcore.hardware.CRServo;
+import com.qualcomm.robotcore.hardware.ServoController;
+
+/**
+ * A simulated continuous rotation servo. It only records the commanded power.
+ */
+public class SimCRServo implements CRServo {
+    private final String name;
+    private final int port;
+    private Direction direction = Direction.FORWARD;
+    private double power = 0;
+
+    SimCRServo(String name, int port) {
+        this.name = name;
+        this.port = port;
+    }
+
+    @Override
+    public ServoController getController() {
+        return null;
+    }
+
+    @Override
+    public int getPortNumber() {
+        return port;
+    }
+
+    @Override
+    public void setDirection(Direction direction) {
+        this.direction = direction;
+    }
+
+    @Override
+    public Direction getDirection() {
+        return direction;
+    }
+
+    @Override
+    public void setPower(double power) {
+        this.power = Math.max(-1, Math.min(1, power));
+    }
+
+    @Override
+    public double getPower() {
+        return power;
+    }
+
+    @Override
+    public Manufacturer getManufacturer() {
+        return Manufacturer.Other;
+    }
+
+    @Override
+    public String getDeviceName() {
+        return "Simulated CR Servo";
+    }
+
+    @Override
+    public String getConnectionInfo() {
+        return "sim; port " + port + "; " + name;
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @Override
+    public void resetDeviceConfigurationForOpMode() {
+        direction = Direction.FORWARD;
+        power = 0;
+    }
+
+    @Override
+    public void close() {}
+}
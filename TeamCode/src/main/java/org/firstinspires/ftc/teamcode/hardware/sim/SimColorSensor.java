@@ -0,0 +1,111 @@
+package org.firstinspires.ftc.teamcode.hardware.sim;
+
+import com.qualcomm.robotcore.hardware.DistanceSensor;
+import com.qualcomm.robotcore.hardware.NormalizedColorSensor;
+import com.qualcomm.robotcore.hardware.NormalizedRGBA;
+import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
+
+/**
+ * A simulated color and distance sensor whose readings are set by the scenario.
+ * An optional read latency makes each read spin for a while, to stand in for the cost of a real I2C transaction.
+ */
+public class SimColorSensor implements NormalizedColorSensor, DistanceSensor {
+    private final String name;
+    private volatile float red = 0;
+    private volatile float green = 0;
+    private volatile float blue = 0;
+    private volatile float alpha = 0;
+    private volatile double distanceMm = DistanceSensor.distanceOutOfRange;
+    private volatile long readLatencyNanos = 0;
+    private float gain = 1;
+
+    SimColorSensor(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Sets the normalized color the sensor will report, each channel in the 0-1 range.
+     */
+    public void setColor(float red, float green, float blue, float alpha) {
+        this.red = red;
+        this.green = green;
+        this.blue = blue;
+        this.alpha = alpha;
+    }
+
+    public void setDistance(double distance, DistanceUnit unit) {
+        this.distanceMm = DistanceUnit.MM.fromUnit(unit, distance);
+    }
+
+    /**
+     * @param readLatencyNanos how long every color or distance read should take.
+     */
+    public void setReadLatencyNanos(long readLatencyNanos) {
+        this.readLatencyNanos = Math.max(0, readLatencyNanos);
+    }
+
+    private void simulateReadLatency() {
+        long latency = readLatencyNanos;
+        if (latency == 0) {
+            return;
+        }
+        long end = System.nanoTime() + latency;
+        //noinspection StatementWithEmptyBody
+        while (System.nanoTime() < end) {
+            // busy wait, like a blocking I2C read
+        }
+    }
+
+    @Override
+    public NormalizedRGBA getNormalizedColors() {
+        simulateReadLatency();
+        NormalizedRGBA colors = new NormalizedRGBA();
+        colors.red = Math.min(1f, red * gain);
+        colors.green = Math.min(1f, green * gain);
+        colors.blue = Math.min(1f, blue * gain);
+        colors.alpha = Math.min(1f, alpha * gain);
+        return colors;
+    }
+
+    @Override
+    public float getGain() {
+        return gain;
+    }
+
+    @Override
+    public void setGain(float newGain) {
+        this.gain = newGain;
+    }
+
+    @Override
+    public double getDistance(DistanceUnit unit) {
+        simulateReadLatency();
+        return unit.fromUnit(DistanceUnit.MM, distanceMm);
+    }
+
+    @Override
+    public Manufacturer getManufacturer() {
+        return Manufacturer.Other;
+    }
+
+    @Override
+    public String getDeviceName() {
+        return "Simulated Color Sensor";
+    }
+
+    @Override
+    public String getConnectionInfo() {
+        return "sim; i2c; " + name;
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @Override
+    public void resetDeviceConfigurationForOpMode() {}
+
+    @Override
+    public void close() {}
+}
@@ -0,0 +1,180 @@
+package org.firstinspires.ftc.teamcode.hardware.sim;
+
+import com.qualcomm.hardware.lynx.LynxModule;
+import com.qualcomm.robotcore.hardware.AnalogInput;
+import com.qualcomm.robotcore.hardware.HardwareDevice;
+import org.firstinspires.ftc.teamcode.hardware.Hardware;
+import org.firstinspires.ftc.teamcode.hardware.HardwareBackend;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * A {@link HardwareBackend} made of simulated devices, so the robot code can run on a desktop JVM without a Control Hub.
+ * <p>
+ * Register devices under the names the robot code asks for, then pass this backend to {@link Hardware#Hardware(HardwareBackend)}.
+ * Battery voltage sags with the total current drawn by the simulated motors. There are no Lynx hubs, so bulk caching is skipped.
+ * The Benchmarks module's {@code RobotLoopBenchmark} runs the whole robot loop this way.
+ */
+public class SimHardwareBackend implements HardwareBackend {
+    static final double NOMINAL_VOLTAGE = 12.0;
+
+    private final Map<String, HardwareDevice> devices = new HashMap<>();
+    private final List<SimMotor> motors = new ArrayList<>();
+    private final LongSupplier clock;
+    private final long startNanos;
+    private double restingVoltage = 12.8;
+    private double internalResistanceOhms = 0.03;
+    private int nextPort = 0;
+
+    public SimHardwareBackend() {
+        this(System::nanoTime);
+    }
+
+    /**
+     * @param clock the time source for motor physics, in nanoseconds. Pass a manually advanced clock for repeatable runs.
+     */
+    public SimHardwareBackend(LongSupplier clock) {
+        this.clock = clock;
+        this.startNanos = clock.getAsLong();
+    }
+
+    /**
+     * Creates a backend with every device the competition op modes look up, under the same names.
+     *
+     * @return the populated backend.
+     */
+    public static SimHardwareBackend withRobotDevices() {
+        return withRobotDevices(System::nanoTime);
+    }
+
+    /**
+     * Creates a backend with every device the competition op modes look up, running on the given clock.
+     *
+     * @param clock the time source for motor physics, in nanoseconds.
+     * @return the populated backend.
+     */
+    public static SimHardwareBackend withRobotDevices(LongSupplier clock) {
+        SimHardwareBackend backend = new SimHardwareBackend(clock);
+        backend.addMotor("launcherMotor", 2800, 0.25, 28);
+        backend.addMotor("turretMotor", 2500, 0.05, 8192);
+        backend.addMotor("indexerMotor", 2500, 0.05, 8192);
+        backend.addMotor("collectorMotor", 2800, 0.08, 28);
+        backend.addServo("hoodServo");
+        backend.addServo("leftFeedRampServo");
+        backend.addServo("rightFeedRampServo");
+        backend.addServo("leftLED");
+        backend.addServo("rightLED");
+        backend.addServo("frontLED");
+        backend.addServo("launcherLED");
+        backend.addCRServo("leftFeedServo");
+        backend.addCRServo("rightFeedServo");
+        backend.addColorSensor("frontColorSensor");
+        backend.addLimelight("limelight");
+        return backend;
+    }
+
+    /**
+     * @param maxTicksPerSecond the free speed of the motor at nominal voltage.
+     * @param timeConstantSec how quickly the motor reaches a new speed.
+     * @param ticksPerRevolution encoder ticks per output revolution, used for angular velocity conversions.
+     */
+    public SimMotor addMotor(String name, double maxTicksPerSecond, double timeConstantSec, double ticksPerRevolution) {
+        SimMotor motor = new SimMotor(this, name, nextPort++, maxTicksPerSecond, timeConstantSec, ticksPerRevolution);
+        motors.add(motor);
+        return register(name, motor);
+    }
+
+    public SimServo addServo(String name) {
+        return register(name, new SimServo(name, nextPort++));
+    }
+
+    public SimCRServo addCRServo(String name) {
+        return register(name, new SimCRServo(name, nextPort++));
+    }
+
+    public SimColorSensor addColorSensor(String name) {
+        return register(name, new SimColorSensor(name));
+    }
+
+    public SimTouchSensor addTouchSensor(String name) {
+        return register(name, new SimTouchSensor(name));
+    }
+
+    /**
+     * @return the controller used to set the voltage of the new analog input.
+     */
+    public SimAnalogInputController addAnalogInput(String name, double maxVoltage) {
+        SimAnalogInputController controller = new SimAnalogInputController(name, maxVoltage);
+        register(name, new AnalogInput(controller, 0));
+        return controller;
+    }
+
+    public SimLimelight3A addLimelight(String name) {
+        return register(name, new SimLimelight3A(this, name));
+    }
+
+    private <T extends HardwareDevice> T register(String name, T device) {
+        if (devices.containsKey(name)) {
+            throw new IllegalArgumentException("A simulated device named '" + name + "' already exists");
+        }
+        devices.put(name, device);
+        return device;
+    }
+
+    /**
+     * Gets a simulated device directly, to script its readings.
+     *
+     * @param type the simulation class of the device.
+     * @param name the name it was registered under.
+     */
+    public <T> T getSimulated(Class<T> type, String name) {
+        return get(type, name);
+    }
+
+    @Override
+    public <T> T get(Class<? extends T> type, String name) {
+        HardwareDevice device = devices.get(name);
+        if (device == null || !type.isInstance(device)) {
+            throw new IllegalArgumentException("Unable to find a simulated device with name '" + name + "' and type " + type.getSimpleName());
+        }
+        return type.cast(device);
+    }
+
+    @Override
+    public List<LynxModule> getHubs() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public double getBatteryVoltage() {
+        double totalAmps = 0;
+        for (int i = 0; i < motors.size(); i++) {
+            totalAmps += motors.get(i).getCurrentAmps();
+        }
+        return restingVoltage - totalAmps * internalResistanceOhms;
+    }
+
+    public void setRestingVoltage(double restingVoltage) {
+        this.restingVoltage = restingVoltage;
+    }
+
+    public void setInternalResistance(double internalResistanceOhms) {
+        this.internalResistanceOhms = Math.max(0, internalResistanceOhms);
+    }
+
+    long nanoTime() {
+        return clock.getAsLong();
+    }
+
+    /**
+     * @return seconds since this backend was created, according to its clock.
+     */
+    public double getElapsedSeconds() {
+        return (clock.getAsLong() - startNanos) / 1e9;
+    }
+}
@@ -0,0 +1,84 @@
+package org.firstinspires.ftc.teamcode.hardware.sim;
+
+import com.qualcomm.hardware.limelightvision.LLResult;
+import com.qualcomm.hardware.limelightvision.LLStatus;
+import com.qualcomm.hardware.limelightvision.Limelight3A;
+import com.qualcomm.robotcore.util.SerialNumber;
+
+import java.net.InetAddress;
+import java.util.function.DoubleFunction;
+import java.util.function.Supplier;
+
+/**
+ * A Limelight whose results come from a script instead of the network.
+ * The script receives the seconds since the backend was created and returns the result to report at that time,
+ * or null for no result. Nothing is started or polled, so no camera or network is needed.
+ */
+public class SimLimelight3A extends Limelight3A {
+    private final SimHardwareBackend backend;
+    private volatile DoubleFunction<LLResult> resultScript = time -> null;
+    private volatile Supplier<LLStatus> statusScript = () -> null;
+    private volatile boolean running = false;
+    private volatile int pipeline = 0;
+
+    SimLimelight3A(SimHardwareBackend backend, String name) {
+        super(SerialNumber.createFake(), name, InetAddress.getLoopbackAddress());
+        this.backend = backend;
+    }
+
+    /**
+     * @param resultScript maps the elapsed simulation time in seconds to the result to report.
+     */
+    public void setResultScript(DoubleFunction<LLResult> resultScript) {
+        this.resultScript = resultScript == null ? time -> null : resultScript;
+    }
+
+    public void setStatusScript(Supplier<LLStatus> statusScript) {
+        this.statusScript = statusScript == null ? () -> null : statusScript;
+    }
+
+    public int getPipeline() {
+        return pipeline;
+    }
+
+    @Override
+    public LLResult getLatestResult() {
+        return running ? resultScript.apply(backend.getElapsedSeconds()) : null;
+    }
+
+    @Override
+    public LLStatus getStatus() {
+        return statusScript.get();
+    }
+
+    @Override
+    public boolean pipelineSwitch(int index) {
+        this.pipeline = index;
+        return true;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public boolean isConnected() {
+        return true;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+    }
+}
@@ -0,0 +1,380 @@
+package org.firstinspires.ftc.teamcode.hardware.sim;
+
+import com.qualcomm.robotcore.hardware.DcMotorController;
+import com.qualcomm.robotcore.hardware.DcMotorEx;
+import com.qualcomm.robotcore.hardware.PIDCoefficients;
+import com.qualcomm.robotcore.hardware.PIDFCoefficients;
+import com.qualcomm.robotcore.hardware.configuration.typecontainers.MotorConfigurationType;
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.CurrentUnit;
+
+/**
+ * A simulated motor and encoder with first-order velocity response.
+ * <p>
+ * The shaft velocity approaches the commanded velocity with time constant {@code timeConstantSec}, and the encoder
+ * position integrates that velocity. Open-loop power is scaled by battery voltage, while {@link RunMode#RUN_USING_ENCODER}
+ * and {@link #setVelocity(double)} behave as an ideal velocity controller. The simulation advances lazily, whenever the
+ * motor is read or commanded, using the backend's clock.
+ */
+public class SimMotor implements DcMotorEx {
+    private static final double RUN_TO_POSITION_GAIN = 0.01;
+
+    private final SimHardwareBackend backend;
+    private final String name;
+    private final int port;
+    private final double maxTicksPerSecond;
+    private final double timeConstantSec;
+    private final double ticksPerRevolution;
+    private final double stallCurrentAmps;
+
+    private MotorConfigurationType motorType;
+    private Direction direction = Direction.FORWARD;
+    private ZeroPowerBehavior zeroPowerBehavior = ZeroPowerBehavior.BRAKE;
+    private RunMode mode = RunMode.RUN_WITHOUT_ENCODER;
+    private boolean enabled = true;
+    private boolean powerFloat = false;
+    private double power = 0;
+    private double targetVelocity = Double.NaN;
+    private int targetPosition = 0;
+    private int targetPositionTolerance = 5;
+    private double currentAlertAmps = 5;
+    private PIDFCoefficients velocityCoefficients = new PIDFCoefficients(10, 3, 0, 0);
+    private PIDFCoefficients positionCoefficients = new PIDFCoefficients(10, 0, 0, 0);
+
+    private double position = 0;
+    private double velocity = 0;
+    private double currentAmps = 0;
+    private long lastUpdateNanos;
+
+    SimMotor(SimHardwareBackend backend, String name, int port, double maxTicksPerSecond, double timeConstantSec, double ticksPerRevolution) {
+        this.backend = backend;
+        this.name = name;
+        this.port = port;
+        this.maxTicksPerSecond = maxTicksPerSecond;
+        this.timeConstantSec = Math.max(1e-4, timeConstantSec);
+        this.ticksPerRevolution = ticksPerRevolution;
+        this.stallCurrentAmps = 9.2;
+        this.lastUpdateNanos = backend.nanoTime();
+    }
+
+    /**
+     * Advances the simulation to the backend's current time.
+     */
+    void update() {
+        long now = backend.nanoTime();
+        double dt = (now - lastUpdateNanos) / 1e9;
+        lastUpdateNanos = now;
+        if (dt <= 0) {
+            return;
+        }
+
+        double commanded = getCommandedVelocity();
+        double tau = timeConstantSec;
+        if (commanded == 0 && (powerFloat || zeroPowerBehavior == ZeroPowerBehavior.FLOAT)) {
+            tau *= 4;
+        }
+        velocity += (commanded - velocity) * (1 - Math.exp(-dt / tau));
+        position += velocity * dt;
+        currentAmps = commanded == 0 && (powerFloat || !enabled)
+                ? 0
+                : Math.min(stallCurrentAmps, Math.abs(commanded - velocity) / maxTicksPerSecond * stallCurrentAmps);
+    }
+
+    private double getCommandedVelocity() {
+        if (!enabled || powerFloat) {
+            return 0;
+        }
+        switch (mode) {
+            case STOP_AND_RESET_ENCODER:
+                return 0;
+            case RUN_TO_POSITION: {
+                double error = targetPosition - getDirectionSignum() * position;
+                double limit = Math.abs(power);
+                double output = Math.max(-limit, Math.min(limit, error * RUN_TO_POSITION_GAIN));
+                return getDirectionSignum() * output * maxTicksPerSecond;
+            }
+            case RUN_USING_ENCODER:
+                if (!Double.isNaN(targetVelocity)) {
+                    return getDirectionSignum() * Math.max(-maxTicksPerSecond, Math.min(maxTicksPerSecond, targetVelocity));
+                }
+                return getDirectionSignum() * power * maxTicksPerSecond;
+            default:
+                double voltageScale = backend.getBatteryVoltage() / SimHardwareBackend.NOMINAL_VOLTAGE;
+                return getDirectionSignum() * power * voltageScale * maxTicksPerSecond;
+        }
+    }
+
+    private int getDirectionSignum() {
+        return direction == Direction.FORWARD ? 1 : -1;
+    }
+
+    /**
+     * @return the current draw in amps as of the last update, used for battery sag.
+     */
+    double getCurrentAmps() {
+        return currentAmps;
+    }
+
+    /**
+     * Moves the shaft to a given encoder position instantly, for setting up a scenario.
+     *
+     * @param ticks the new encoder position, before direction is applied.
+     */
+    public void setSimulatedPosition(double ticks) {
+        update();
+        position = ticks;
+    }
+
+    @Override
+    public MotorConfigurationType getMotorType() {
+        if (motorType == null) {
+            motorType = MotorConfigurationType.getUnspecifiedMotorType();
+        }
+        return motorType;
+    }
+
+    @Override
+    public void setMotorType(MotorConfigurationType motorType) {
+        this.motorType = motorType;
+    }
+
+    @Override
+    public DcMotorController getController() {
+        return null;
+    }
+
+    @Override
+    public int getPortNumber() {
+        return port;
+    }
+
+    @Override
+    public void setZeroPowerBehavior(ZeroPowerBehavior zeroPowerBehavior) {
+        update();
+        this.zeroPowerBehavior = zeroPowerBehavior;
+    }
+
+    @Override
+    public ZeroPowerBehavior getZeroPowerBehavior() {
+        return zeroPowerBehavior;
+    }
+
+    @Override
+    @Deprecated
+    public void setPowerFloat() {
+        update();
+        power = 0;
+        powerFloat = true;
+    }
+
+    @Override
+    public boolean getPowerFloat() {
+        return powerFloat;
+    }
+
+    @Override
+    public void setTargetPosition(int position) {
+        update();
+        this.targetPosition = position;
+    }
+
+    @Override
+    public int getTargetPosition() {
+        return targetPosition;
+    }
+
+    @Override
+    public boolean isBusy() {
+        return mode == RunMode.RUN_TO_POSITION && Math.abs(targetPosition - getCurrentPosition()) > targetPositionTolerance;
+    }
+
+    @Override
+    public int getCurrentPosition() {
+        update();
+        return (int) Math.round(getDirectionSignum() * position);
+    }
+
+    @Override
+    public void setMode(RunMode mode) {
+        update();
+        if (mode == RunMode.STOP_AND_RESET_ENCODER) {
+            position = 0;
+            velocity = 0;
+            power = 0;
+        }
+        targetVelocity = Double.NaN;
+        this.mode = mode;
+    }
+
+    @Override
+    public RunMode getMode() {
+        return mode;
+    }
+
+    @Override
+    public void setDirection(Direction direction) {
+        update();
+        this.direction = direction;
+    }
+
+    @Override
+    public Direction getDirection() {
+        return direction;
+    }
+
+    @Override
+    public void setPower(double power) {
+        update();
+        this.power = Math.max(-1, Math.min(1, power));
+        this.powerFloat = false;
+        this.targetVelocity = Double.NaN;
+    }
+
+    @Override
+    public double getPower() {
+        return power;
+    }
+
+    @Override
+    public Manufacturer getManufacturer() {
+        return Manufacturer.Other;
+    }
+
+    @Override
+    public String getDeviceName() {
+        return "Simulated Motor";
+    }
+
+    @Override
+    public String getConnectionInfo() {
+        return "sim; port " + port + "; " + name;
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @Override
+    public void resetDeviceConfigurationForOpMode() {
+        update();
+        direction = Direction.FORWARD;
+        zeroPowerBehavior = ZeroPowerBehavior.BRAKE;
+        power = 0;
+        targetVelocity = Double.NaN;
+    }
+
+    @Override
+    public void close() {}
+
+    @Override
+    public void setMotorEnable() {
+        update();
+        enabled = true;
+    }
+
+    @Override
+    public void setMotorDisable() {
+        update();
+        enabled = false;
+    }
+
+    @Override
+    public boolean isMotorEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setVelocity(double angularRate) {
+        update();
+        mode = RunMode.RUN_USING_ENCODER;
+        powerFloat = false;
+        targetVelocity = angularRate;
+    }
+
+    @Override
+    public void setVelocity(double angularRate, AngleUnit unit) {
+        double revolutionsPerSecond = unit == AngleUnit.DEGREES ? angularRate / 360.0 : angularRate / (2 * Math.PI);
+        setVelocity(revolutionsPerSecond * ticksPerRevolution);
+    }
+
+    @Override
+    public double getVelocity() {
+        update();
+        return getDirectionSignum() * velocity;
+    }
+
+    @Override
+    public double getVelocity(AngleUnit unit) {
+        double revolutionsPerSecond = getVelocity() / ticksPerRevolution;
+        return unit == AngleUnit.DEGREES ? revolutionsPerSecond * 360.0 : revolutionsPerSecond * 2 * Math.PI;
+    }
+
+    @Override
+    @Deprecated
+    public void setPIDCoefficients(RunMode mode, PIDCoefficients pidCoefficients) {
+        setPIDFCoefficients(mode, new PIDFCoefficients(pidCoefficients.p, pidCoefficients.i, pidCoefficients.d, 0));
+    }
+
+    @Override
+    public void setPIDFCoefficients(RunMode mode, PIDFCoefficients pidfCoefficients) {
+        if (mode == RunMode.RUN_TO_POSITION) {
+            positionCoefficients = pidfCoefficients;
+        } else {
+            velocityCoefficients = pidfCoefficients;
+        }
+    }
+
+    @Override
+    public void setVelocityPIDFCoefficients(double p, double i, double d, double f) {
+        setPIDFCoefficients(RunMode.RUN_USING_ENCODER, new PIDFCoefficients(p, i, d, f));
+    }
+
+    @Override
+    public void setPositionPIDFCoefficients(double p) {
+        setPIDFCoefficients(RunMode.RUN_TO_POSITION, new PIDFCoefficients(p, 0, 0, 0));
+    }
+
+    @Override
+    @Deprecated
+    public PIDCoefficients getPIDCoefficients(RunMode mode) {
+        PIDFCoefficients coefficients = getPIDFCoefficients(mode);
+        return new PIDCoefficients(coefficients.p, coefficients.i, coefficients.d);
+    }
+
+    @Override
+    public PIDFCoefficients getPIDFCoefficients(RunMode mode) {
+        return mode == RunMode.RUN_TO_POSITION ? positionCoefficients : velocityCoefficients;
+    }
+
+    @Override
+    public void setTargetPositionTolerance(int tolerance) {
+        this.targetPositionTolerance = tolerance;
+    }
+
+    @Override
+    public int getTargetPositionTolerance() {
+        return targetPositionTolerance;
+    }
+
+    @Override
+    public double getCurrent(CurrentUnit unit) {
+        update();
+        return unit == CurrentUnit.MILLIAMPS ? currentAmps * 1000 : currentAmps;
+    }
+
+    @Override
+    public double getCurrentAlert(CurrentUnit unit) {
+        return unit == CurrentUnit.MILLIAMPS ? currentAlertAmps * 1000 : currentAlertAmps;
+    }
+
+    @Override
+    public void setCurrentAlert(double current, CurrentUnit unit) {
+        this.currentAlertAmps = unit == CurrentUnit.MILLIAMPS ? current / 1000 : current;
+    }
+
+    @Override
+    public boolean isOverCurrent() {
+        return getCurrent(CurrentUnit.AMPS) > currentAlertAmps;
+    }
+}
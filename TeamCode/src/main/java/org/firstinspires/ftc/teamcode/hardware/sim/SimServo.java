@@ -0,0 +1,99 @@
+package org.firstinspires.ftc.teamcode.hardware.sim;
+
+import com.qualcomm.robotcore.hardware.Servo;
+import com.qualcomm.robotcore.hardware.ServoController;
+
+/**
+ * A simulated positional servo. Like the SDK servo, {@link #getPosition()} reports the last commanded position;
+ * {@link #getPulsePosition()} gives the position actually sent after range scaling and direction.
+ */
+public class SimServo implements Servo {
+    private final String name;
+    private final int port;
+    private Direction direction = Direction.FORWARD;
+    private double minPosition = MIN_POSITION;
+    private double maxPosition = MAX_POSITION;
+    private double position = 0;
+
+    SimServo(String name, int port) {
+        this.name = name;
+        this.port = port;
+    }
+
+    /**
+     * @return the position after range scaling and direction are applied, in the 0-1 range the servo would receive.
+     */
+    public double getPulsePosition() {
+        double directed = direction == Direction.FORWARD ? position : MAX_POSITION - position;
+        return minPosition + directed * (maxPosition - minPosition);
+    }
+
+    @Override
+    public ServoController getController() {
+        return null;
+    }
+
+    @Override
+    public int getPortNumber() {
+        return port;
+    }
+
+    @Override
+    public void setDirection(Direction direction) {
+        this.direction = direction;
+    }
+
+    @Override
+    public Direction getDirection() {
+        return direction;
+    }
+
+    @Override
+    public void setPosition(double position) {
+        this.position = Math.max(MIN_POSITION, Math.min(MAX_POSITION, position));
+    }
+
+    @Override
+    public double getPosition() {
+        return position;
+    }
+
+    @Override
+    public void scaleRange(double min, double max) {
+        if (min < MIN_POSITION || max > MAX_POSITION || min >= max) {
+            throw new IllegalArgumentException("Servo range must be within 0-1 and min must be less than max");
+        }
+        this.minPosition = min;
+        this.maxPosition = max;
+    }
+
+    @Override
+    public Manufacturer getManufacturer() {
+        return Manufacturer.Other;
+    }
+
+    @Override
+    public String getDeviceName() {
+        return "Simulated Servo";
+    }
+
+    @Override
+    public String getConnectionInfo() {
+        return "sim; port " + port + "; " + name;
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @Override
+    public void resetDeviceConfigurationForOpMode() {
+        direction = Direction.FORWARD;
+        minPosition = MIN_POSITION;
+        maxPosition = MAX_POSITION;
+    }
+
+    @Override
+    public void close() {}
+}
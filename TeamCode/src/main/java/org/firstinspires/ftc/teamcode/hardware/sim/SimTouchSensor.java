@@ -0,0 +1,55 @@
+package org.firstinspires.ftc.teamcode.hardware.sim;
+
+import com.qualcomm.robotcore.hardware.TouchSensor;
+
+/**
+ * A simulated touch sensor whose state is set by the scenario.
+ */
+public class SimTouchSensor implements TouchSensor {
+    private final String name;
+    private volatile boolean pressed = false;
+
+    SimTouchSensor(String name) {
+        this.name = name;
+    }
+
+    public void setPressed(boolean pressed) {
+        this.pressed = pressed;
+    }
+
+    @Override
+    public double getValue() {
+        return pressed ? 1 : 0;
+    }
+
+    @Override
+    public boolean isPressed() {
+        return pressed;
+    }
+
+    @Override
+    public Manufacturer getManufacturer() {
+        return Manufacturer.Other;
+    }
+
+    @Override
+    public String getDeviceName() {
+        return "Simulated Touch Sensor";
+    }
+
+    @Override
+    public String getConnectionInfo() {
+        return "sim; digital; " + name;
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @Override
+    public void resetDeviceConfigurationForOpMode() {}
+
+    @Override
+    public void close() {}
+}
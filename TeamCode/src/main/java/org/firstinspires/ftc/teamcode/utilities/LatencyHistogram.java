@@ -0,0 +1,259 @@
+package org.firstinspires.ftc.teamcode.utilities;
+
+import org.firstinspires.ftc.teamcode.hardware.filters.DataFilter;
+
+import java.util.Arrays;
+
+/**
+ * A log-bucketed histogram that estimates percentiles over every sample it has seen, in constant memory.
+ * <p>
+ * Bucket boundaries grow geometrically, so any percentile is reported within {@code relativeError} of a real sample
+ * between {@code lowestValue} and {@code highestValue}. Samples at or below {@code lowestValue} share the first bucket
+ * and samples above {@code highestValue} share the last one; the exact minimum and maximum are still tracked.
+ * Recording a sample is O(1) and does not allocate, while a percentile lookup walks the buckets.
+ * <p>
+ * Histograms with the same bucket layout can be merged, and {@link #serialize()} writes a compact string that
+ * {@link #deserialize(String)} reads back, for saving to {@link PersistentStorage}.
+ */
+public class LatencyHistogram implements DataFilter {
+    private static final int FORMAT_VERSION = 1;
+
+    private final double lowestValue;
+    private final double highestValue;
+    private final double relativeError;
+    private final double logGamma;
+    private final long[] counts;
+
+    private long totalCount = 0;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private double sum = 0;
+    private double trackedPercentile = 50;
+
+    /**
+     * Creates a histogram suited to timings in milliseconds, from 10 microseconds to a minute, within 1%.
+     */
+    public LatencyHistogram() {
+        this(0.01, 60000, 0.01);
+    }
+
+    /**
+     * @param lowestValue the smallest value that gets its own bucket. Must be positive.
+     * @param highestValue the largest value that gets its own bucket.
+     * @param relativeError the largest relative error of a reported percentile, between 0 and 1 exclusive.
+     */
+    public LatencyHistogram(double lowestValue, double highestValue, double relativeError) {
+        if (!(lowestValue > 0)) {
+            throw new IllegalArgumentException("lowestValue must be greater than 0");
+        }
+        if (!(highestValue > lowestValue)) {
+            throw new IllegalArgumentException("highestValue must be greater than lowestValue");
+        }
+        if (!(relativeError > 0 && relativeError < 1)) {
+            throw new IllegalArgumentException("relativeError must be between 0 and 1");
+        }
+        this.lowestValue = lowestValue;
+        this.highestValue = highestValue;
+        this.relativeError = relativeError;
+        this.logGamma = Math.log((1 + relativeError) / (1 - relativeError));
+        this.counts = new long[(int) Math.ceil(Math.log(highestValue / lowestValue) / logGamma) + 2];
+    }
+
+    private int bucketIndex(double value) {
+        if (value <= lowestValue) {
+            return 0;
+        }
+        int index = (int) Math.ceil(Math.log(value / lowestValue) / logGamma);
+        return Math.min(Math.max(index, 1), counts.length - 1);
+    }
+
+    /**
+     * @return the value that best represents a bucket, within {@code relativeError} of anything in it.
+     */
+    private double bucketValue(int index) {
+        if (index == 0) {
+            return lowestValue;
+        }
+        double gamma = Math.exp(logGamma);
+        return lowestValue * Math.exp(index * logGamma) * 2 / (gamma + 1);
+    }
+
+    public void record(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        counts[bucketIndex(value)]++;
+        totalCount++;
+        sum += value;
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    /**
+     * Records a sample and returns the tracked percentile over everything recorded so far.
+     */
+    @Override
+    public double compute(double newValue) {
+        record(newValue);
+        return getPercentile(trackedPercentile);
+    }
+
+    public double getTrackedPercentile() {
+        return trackedPercentile;
+    }
+
+    public void setTrackedPercentile(double trackedPercentile) {
+        this.trackedPercentile = trackedPercentile;
+    }
+
+    public double getPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0.0;
+        }
+        if (percentile <= 0) {
+            return min;
+        }
+        if (percentile >= 100) {
+            return max;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil((percentile / 100.0) * totalCount));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(max, Math.max(min, bucketValue(i)));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Looks up several percentiles without allocating.
+     *
+     * @param percentiles the percentiles to look up, from 0 to 100.
+     * @param out receives the result for each percentile, and must be at least as long as {@code percentiles}.
+     * @return {@code out}.
+     */
+    public double[] getPercentiles(double[] percentiles, double[] out) {
+        if (out.length < percentiles.length) {
+            throw new IllegalArgumentException("out must have room for every percentile");
+        }
+        for (int i = 0; i < percentiles.length; i++) {
+            out[i] = getPercentile(percentiles[i]);
+        }
+        return out;
+    }
+
+    public long getCount() {
+        return totalCount;
+    }
+
+    public double getMin() {
+        return totalCount == 0 ? 0.0 : min;
+    }
+
+    public double getMax() {
+        return totalCount == 0 ? 0.0 : max;
+    }
+
+    public double getMean() {
+        return totalCount == 0 ? 0.0 : sum / totalCount;
+    }
+
+    /**
+     * Adds every sample recorded by another histogram to this one.
+     *
+     * @param other a histogram created with the same lowest value, highest value and relative error.
+     */
+    public void merge(LatencyHistogram other) {
+        if (!hasSameLayout(other)) {
+            throw new IllegalArgumentException("Cannot merge histograms with different bucket layouts");
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    private boolean hasSameLayout(LatencyHistogram other) {
+        return lowestValue == other.lowestValue
+                && highestValue == other.highestValue
+                && relativeError == other.relativeError;
+    }
+
+    @Override
+    public void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        sum = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Writes the histogram as a compact string, listing only non-empty buckets.
+     */
+    public String serialize() {
+        StringBuilder builder = new StringBuilder()
+                .append(FORMAT_VERSION).append(';')
+                .append(lowestValue).append(';')
+                .append(highestValue).append(';')
+                .append(relativeError).append(';')
+                .append(totalCount).append(';')
+                .append(min).append(';')
+                .append(max).append(';')
+                .append(sum).append(';');
+        boolean first = true;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                continue;
+            }
+            if (!first) {
+                builder.append(',');
+            }
+            builder.append(i).append(':').append(counts[i]);
+            first = false;
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Reads a histogram written by {@link #serialize()}.
+     *
+     * @throws IllegalArgumentException if the string is not a serialized histogram.
+     */
+    public static LatencyHistogram deserialize(String serialized) {
+        String[] fields = serialized.split(";", -1);
+        if (fields.length != 9 || !String.valueOf(FORMAT_VERSION).equals(fields[0])) {
+            throw new IllegalArgumentException("Not a serialized LatencyHistogram: " + serialized);
+        }
+
+        try {
+            LatencyHistogram histogram = new LatencyHistogram(
+                    Double.parseDouble(fields[1]),
+                    Double.parseDouble(fields[2]),
+                    Double.parseDouble(fields[3]));
+            histogram.totalCount = Long.parseLong(fields[4]);
+            histogram.min = Double.parseDouble(fields[5]);
+            histogram.max = Double.parseDouble(fields[6]);
+            histogram.sum = Double.parseDouble(fields[7]);
+            if (!fields[8].isEmpty()) {
+                for (String bucket : fields[8].split(",")) {
+                    int separator = bucket.indexOf(':');
+                    histogram.counts[Integer.parseInt(bucket.substring(0, separator))] = Long.parseLong(bucket.substring(separator + 1));
+                }
+            }
+            return histogram;
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Not a serialized LatencyHistogram: " + serialized, e);
+        }
+    }
+}
@@ -23,6 +23,16 @@ public final class LiveMatchTuning {
     public static double maintenancePoseTrimInchesPerTouchpadUnit = 12.0;
     public static double manualAimDegreesPerSecond = 75.0;
     public static double manualAimStickDeadband = 0.08;
+    public static double outputMotorPowerDeadband = 0.005;
+    public static double outputServoPositionDeadband = 0.001;
+    public static boolean hardwareProfilerEnabled = false;
+    public static int hardwareProfilerTopN = 5;
+    public static double schedulerControlBudgetMs = 3;
+    public static double schedulerBackgroundBudgetMs = 2;
+    public static double schedulerIndicatorRateHz = 10;
+    public static double limelightStatusRefreshMs = 250;
+    public static double limelightExtraLatencyMs = 0;
+    public static double colorSensorDistanceDeadlineMs = 15;
 
     public static double farFiringTaskBaseBlueXIn = -55.5;
     public static double farFiringTaskBaseBlueYIn = -48;
@@ -51,6 +61,16 @@ public final class LiveMatchTuning {
     public static double redDepotX = 59;
     public static double redDepotY = -57;
     public static double fcsTurretToleranceDeg = 3;
+    public static boolean fcsUseShotTable = true;
+    public static boolean fcsShootOnTheMoveEnabled = false;
+    public static double fcsShootOnTheMoveMaxSpeedInPerSec = 30;
+    public static double fcsTurretLeadSec = 0.08;
+    public static double fcsTimeOfFlightBaseSec = 0.3;
+    public static double fcsTimeOfFlightPerMeterSec = 0.15;
+    public static boolean fcsLatencyCompensationEnabled = true;
+    public static int fcsAimHistorySize = 64;
+
+    public static boolean loadTunedGains = true;
 
     public static double turretKp = 0.02;
     public static double turretKi = 0;
@@ -60,6 +80,18 @@ public final class LiveMatchTuning {
     public static double turretTicksPerDegree = (8192.0 / 360.0) * (88.0 / 20.0);
     public static double turretMinAngleDeg = -90;
     public static double turretMaxAngleDeg = 90;
+    public static boolean turretGainScheduleEnabled = false;
+    public static double turretScheduleNearErrorDeg = 3;
+    public static double turretScheduleFarErrorDeg = 30;
+    public static double turretScheduleNearKpScale = 0.7;
+    public static double turretScheduleFarKpScale = 1.5;
+    public static double turretScheduleFarKiScale = 0;
+    public static boolean turretMotionProfileEnabled = false;
+    public static double turretProfileMaxVelocityDegPerSec = 360;
+    public static double turretProfileMaxAccelerationDegPerSec2 = 1500;
+    public static double turretProfileKs = 0;
+    public static double turretProfileKv = 0.002;
+    public static double turretProfileKa = 0;
 
     public static double launcherKp = 0.002;
     public static double launcherKi = 0;
@@ -69,6 +101,20 @@ public final class LiveMatchTuning {
     public static double launcherTolerance = 30;
     public static double launcherMaxVoltage = 14;
     public static double launcherTicksPerDegree = 112.0 / 360.0;
+    public static boolean launcherFeedforwardEnabled = false;
+    public static boolean launcherLoadPersistedFeedforward = true;
+    public static double launcherFeedforwardKs = 0.3;
+    public static double launcherFeedforwardKv = 0.003;
+    public static double launcherFeedforwardKa = 0.0003;
+    public static double launcherFeedforwardMaxAccelDegPerSec2 = 20000;
+    public static boolean launcherShotBoostEnabled = false;
+    public static boolean launcherLoadPersistedShotModel = true;
+    public static double launcherShotBoostPowerPerDegPerSec = 0.00025;
+    public static double launcherShotBoostLeadSec = 0.05;
+    public static double launcherShotLearningRate = 0.3;
+    public static double launcherShotMinDropDegPerSec = 60;
+    public static double launcherShotObserveWindowSec = 0.6;
+    public static double launcherExitVelocityRatio = 1;
 
     public static double indexerKp = 0.007;
     public static double indexerKi = 0;
@@ -78,6 +124,19 @@ public final class LiveMatchTuning {
     public static double indexerBusyToleranceDeg = 2.5;
     public static double indexerPoweredMovePower = 1;
     public static double indexerTicksPerDegree = 8192.0 / 360.0;
+    public static boolean indexerGainScheduleEnabled = false;
+    public static double indexerScheduleNearErrorDeg = 5;
+    public static double indexerScheduleFarErrorDeg = 60;
+    public static double indexerScheduleNearKpScale = 0.7;
+    public static double indexerScheduleFarKpScale = 1.5;
+    public static double indexerScheduleFarKiScale = 0;
+    public static boolean indexerMotionProfileEnabled = false;
+    public static double indexerProfileMaxVelocityDegPerSec = 720;
+    public static double indexerProfileMaxAccelerationDegPerSec2 = 4000;
+    public static double indexerProfileMaxJerkDegPerSec3 = 40000;
+    public static double indexerProfileKs = 0;
+    public static double indexerProfileKv = 0.001;
+    public static double indexerProfileKa = 0;
 
     public static double limelightLocalizerCameraX = 0;
     public static double limelightLocalizerCameraY = 0;
@@ -101,6 +160,9 @@ public final class LiveMatchTuning {
     public static int colorSensorHueFilterWindow = 0;
     public static int colorSensorSaturationFilterWindow = 0;
     public static int colorSensorValueFilterWindow = 0;
+    public static boolean colorSensorAsyncPolling = false;
+    public static double colorSensorPollRateHz = 50;
+    public static double colorSensorMaxReadingAgeMs = 100;
     public static int cameraColorSensorHueFilterWindow = 0;
     public static int cameraColorSensorSaturationFilterWindow = 0;
     public static int cameraColorSensorValueFilterWindow = 0;
@@ -2,16 +2,38 @@ package org.firstinspires.ftc.teamcode.utilities;
 
 import org.firstinspires.ftc.teamcode.hardware.filters.DataFilter;
 
-import java.util.ArrayDeque;
-import java.util.Arrays;
-
 /**
  * Maintains a rolling window of samples and computes percentiles on demand.
+ * <p>
+ * Samples are kept in arrival order in a ring buffer and, at the same time, in sorted order in an indexable skip list
+ * whose nodes are the ring slots themselves. Adding a sample, evicting the oldest one and looking up any percentile are
+ * O(log n) and do not allocate. The bottom level of the list is doubly linked, so the maximum is read in O(1).
  */
 public class RollingPercentileWindow implements DataFilter {
+    private static final int NIL = -1;
+
     private int maxSize;
     private double trackedPercentile;
-    private final ArrayDeque<Double> values;
+
+    private int capacity;
+    private int levels;
+    private int headNode;
+    private int oldest = 0;
+    private int count = 0;
+    private long nextSequence = 0;
+    private int randomState = 0x9E3779B9;
+
+    // Per ring slot
+    private double[] values;
+    private long[] sequences;
+    private int[] nodeLevels;
+    // Per skip list node, indexed [level][node]. The head sentinel is node 'capacity'.
+    private int[][] next;
+    private int[][] width;
+    private int[] previous;
+
+    private int[] update;
+    private int[] updateRank;
 
     public RollingPercentileWindow(int maxSize) {
         this(maxSize, 50);
@@ -23,18 +45,148 @@ public class RollingPercentileWindow implements DataFilter {
         }
         this.maxSize = maxSize;
         this.trackedPercentile = trackedPercentile;
-        this.values = new ArrayDeque<>(maxSize);
+        allocate(maxSize);
+    }
+
+    private void allocate(int newCapacity) {
+        capacity = newCapacity;
+        levels = 32 - Integer.numberOfLeadingZeros(newCapacity);
+        headNode = newCapacity;
+
+        values = new double[newCapacity];
+        sequences = new long[newCapacity];
+        nodeLevels = new int[newCapacity];
+        next = new int[levels][newCapacity + 1];
+        width = new int[levels][newCapacity + 1];
+        previous = new int[newCapacity + 1];
+        update = new int[levels];
+        updateRank = new int[levels];
+        reset();
+    }
+
+    /**
+     * Removes every sample from the window.
+     */
+    @Override
+    public void reset() {
+        oldest = 0;
+        count = 0;
+        for (int level = 0; level < levels; level++) {
+            next[level][headNode] = NIL;
+            width[level][headNode] = 1;
+        }
+        previous[headNode] = headNode;
     }
 
     public void add(double value) {
-        if (values.size() >= maxSize) {
-            values.pollFirst();
+        if (count >= maxSize) {
+            unlink(oldest);
+            oldest = (oldest + 1) % capacity;
+        }
+        int node = (oldest + count) % capacity;
+        values[node] = value;
+        sequences[node] = nextSequence++;
+        link(node);
+    }
+
+    /**
+     * Orders nodes by value, and by arrival for equal values, so every node has a unique position.
+     */
+    private boolean precedes(int node, double value, long sequence) {
+        int comparison = Double.compare(values[node], value);
+        return comparison < 0 || (comparison == 0 && sequences[node] < sequence);
+    }
+
+    /**
+     * Fills {@link #update} with the last node before the given key on every level, and {@link #updateRank} with the
+     * rank of those nodes, where the head is rank 0.
+     */
+    private void findPredecessors(double value, long sequence) {
+        int node = headNode;
+        int rank = 0;
+        for (int level = levels - 1; level >= 0; level--) {
+            int candidate = next[level][node];
+            while (candidate != NIL && precedes(candidate, value, sequence)) {
+                rank += width[level][node];
+                node = candidate;
+                candidate = next[level][node];
+            }
+            update[level] = node;
+            updateRank[level] = rank;
+        }
+    }
+
+    private void link(int node) {
+        findPredecessors(values[node], sequences[node]);
+        int nodeLevel = randomLevel();
+        int rank = updateRank[0] + 1;
+
+        for (int level = 0; level < levels; level++) {
+            int predecessor = update[level];
+            if (level < nodeLevel) {
+                // A width running off the end of a level counts the steps to one past the last node
+                next[level][node] = next[level][predecessor];
+                width[level][node] = updateRank[level] + width[level][predecessor] - rank + 1;
+                next[level][predecessor] = node;
+                width[level][predecessor] = rank - updateRank[level];
+            } else {
+                width[level][predecessor]++;
+            }
+        }
+
+        int successor = next[0][node];
+        previous[node] = update[0];
+        previous[successor == NIL ? headNode : successor] = node;
+        nodeLevels[node] = nodeLevel;
+        count++;
+    }
+
+    private void unlink(int node) {
+        findPredecessors(values[node], sequences[node]);
+        int nodeLevel = nodeLevels[node];
+
+        for (int level = 0; level < levels; level++) {
+            int predecessor = update[level];
+            if (level < nodeLevel) {
+                width[level][predecessor] += width[level][node] - 1;
+                next[level][predecessor] = next[level][node];
+            } else {
+                width[level][predecessor]--;
+            }
+        }
+
+        int successor = next[0][node];
+        previous[successor == NIL ? headNode : successor] = update[0];
+        count--;
+    }
+
+    private int randomLevel() {
+        // xorshift, so picking a level does not allocate or contend like java.util.Random
+        randomState ^= randomState << 13;
+        randomState ^= randomState >>> 17;
+        randomState ^= randomState << 5;
+        int level = Integer.numberOfTrailingZeros(randomState) + 1;
+        return Math.min(level, levels);
+    }
+
+    /**
+     * @param rank the 1-based position in sorted order.
+     * @return the node at that position.
+     */
+    private int select(int rank) {
+        int node = headNode;
+        int position = 0;
+        for (int level = levels - 1; level >= 0; level--) {
+            while (next[level][node] != NIL && position + width[level][node] <= rank) {
+                position += width[level][node];
+                node = next[level][node];
+            }
         }
-        values.addLast(value);
+        return node;
     }
 
     public int size() {
-        return values.size();
+        return count;
     }
 
     public int getMaxSize() {
@@ -49,13 +201,29 @@ public class RollingPercentileWindow implements DataFilter {
         this.trackedPercentile = trackedPercentile;
     }
 
+    /**
+     * Changes the window size. Shrinking evicts the oldest samples. Growing past the current capacity rebuilds the
+     * window into larger arrays, at least doubling them, so the rebuild cost amortizes over the added samples.
+     */
     public void setMaxSize(int newMaxSize) {
         if (newMaxSize <= 0) {
             throw new IllegalArgumentException("maxSize must be greater than 0");
         }
+        while (count > newMaxSize) {
+            unlink(oldest);
+            oldest = (oldest + 1) % capacity;
+        }
         this.maxSize = newMaxSize;
-        while (values.size() > maxSize) {
-            values.pollFirst();
+
+        if (newMaxSize > capacity) {
+            double[] retained = new double[count];
+            for (int i = 0; i < count; i++) {
+                retained[i] = values[(oldest + i) % capacity];
+            }
+            allocate(Math.max(newMaxSize, capacity * 2));
+            for (double value : retained) {
+                add(value);
+            }
         }
     }
 
@@ -66,66 +234,54 @@ public class RollingPercentileWindow implements DataFilter {
     }
 
     public double getPercentile(double percentile) {
-        if (values.isEmpty()) {
+        if (count == 0) {
             return 0.0;
         }
-        return percentileFromSorted(sortedSnapshot(), percentile);
-    }
-
-    public double[] getPercentiles(double... percentiles) {
-        double[] result = new double[percentiles.length];
-        if (values.isEmpty()) {
-            return result;
-        }
-        double[] sorted = sortedSnapshot();
-        for (int i = 0; i < percentiles.length; i++) {
-            result[i] = percentileFromSorted(sorted, percentiles[i]);
-        }
-        return result;
-    }
-
-    private double[] sortedSnapshot() {
-        double[] sorted = new double[values.size()];
-        int index = 0;
-        for (double value : values) {
-            sorted[index++] = value;
-        }
-        Arrays.sort(sorted);
-        return sorted;
-    }
-
-    private static double percentileFromSorted(double[] sorted, double percentile) {
         if (percentile <= 0) {
-            return sorted[0];
+            return values[next[0][headNode]];
         }
         if (percentile >= 100) {
-            return sorted[sorted.length - 1];
+            return values[previous[headNode]];
         }
 
-        double rank = (percentile / 100.0) * (sorted.length - 1);
+        double rank = (percentile / 100.0) * (count - 1);
         int lowerIndex = (int) Math.floor(rank);
-        int upperIndex = (int) Math.ceil(rank);
-        if (lowerIndex == upperIndex) {
-            return sorted[lowerIndex];
+        int lowerNode = select(lowerIndex + 1);
+        double lowerValue = values[lowerNode];
+        double blend = rank - lowerIndex;
+        if (blend == 0) {
+            return lowerValue;
         }
 
-        double lowerValue = sorted[lowerIndex];
-        double upperValue = sorted[upperIndex];
-        double blend = rank - lowerIndex;
+        double upperValue = values[next[0][lowerNode]];
         return lowerValue + ((upperValue - lowerValue) * blend);
     }
 
-    public double getMax() {
-        if (values.isEmpty()) {
-            return 0.0;
+    public double[] getPercentiles(double... percentiles) {
+        return getPercentiles(percentiles, new double[percentiles.length]);
+    }
+
+    /**
+     * Looks up several percentiles without allocating.
+     *
+     * @param percentiles the percentiles to look up, from 0 to 100.
+     * @param out receives the result for each percentile, and must be at least as long as {@code percentiles}.
+     * @return {@code out}.
+     */
+    public double[] getPercentiles(double[] percentiles, double[] out) {
+        if (out.length < percentiles.length) {
+            throw new IllegalArgumentException("out must have room for every percentile");
+        }
+        for (int i = 0; i < percentiles.length; i++) {
+            out[i] = getPercentile(percentiles[i]);
         }
+        return out;
+    }
 
-        double max = Double.NEGATIVE_INFINITY;
-        for (double value : values) {
-            if (value > max) {
-                max = value;
-            }
+    public double getMax() {
+        if (count == 0) {
+            return 0.0;
         }
-        return max;
+        return values[previous[headNode]];
     }
 }
@@ -0,0 +1,133 @@
+package org.firstinspires.ftc.teamcode.utilities;
+
+/**
+ * The recent values of one signal with the time each was read, for looking up what the signal was at a past moment.
+ * <p>
+ * Samples go into a ring buffer of primitive arrays, so adding one and looking one up do not allocate. A lookup finds
+ * the two samples either side of the requested time with a binary search and interpolates linearly between them;
+ * times before the oldest sample or after the newest give that sample. Samples must be added in time order.
+ * <p>
+ * An angular history keeps angles continuous across the wrap: each angle is stored as the one nearest the previous
+ * sample, so 359 followed by 1 is stored as 361 and halfway between them reads as 360, not 180.
+ */
+public class TimestampedHistory {
+    private final double[] times;
+    private final double[] values;
+    private final boolean angularDegrees;
+    private int oldest = 0;
+    private int count = 0;
+
+    public TimestampedHistory(int capacity) {
+        this(capacity, false);
+    }
+
+    /**
+     * @param angularDegrees whether the values are angles in degrees that wrap around.
+     */
+    public TimestampedHistory(int capacity, boolean angularDegrees) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("capacity must be at least 2");
+        }
+        this.times = new double[capacity];
+        this.values = new double[capacity];
+        this.angularDegrees = angularDegrees;
+    }
+
+    /**
+     * Adds a sample, replacing the oldest one when the history is full. A sample at the same time as the newest one
+     * replaces it, and one older than the newest is ignored.
+     */
+    public void add(double timeSec, double value) {
+        if (Double.isNaN(timeSec) || Double.isNaN(value)) {
+            return;
+        }
+        if (count > 0) {
+            int newest = slot(count - 1);
+            if (timeSec < times[newest]) {
+                return;
+            }
+            if (angularDegrees) {
+                double step = (value - values[newest]) % 360;
+                if (step > 180) {
+                    step -= 360;
+                } else if (step < -180) {
+                    step += 360;
+                }
+                value = values[newest] + step;
+            }
+            if (timeSec == times[newest]) {
+                values[newest] = value;
+                return;
+            }
+        }
+        if (count < times.length) {
+            times[slot(count)] = timeSec;
+            values[slot(count)] = value;
+            count++;
+        } else {
+            times[oldest] = timeSec;
+            values[oldest] = value;
+            oldest = (oldest + 1) % times.length;
+        }
+    }
+
+    /**
+     * @return the value at {@code timeSec}, interpolated between the samples around it, or NaN when the history is
+     * empty. An angular history can return angles outside [0, 360).
+     */
+    public double getAt(double timeSec) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        int last = count - 1;
+        if (Double.isNaN(timeSec) || timeSec >= times[slot(last)]) {
+            return values[slot(last)];
+        }
+        if (timeSec <= times[oldest]) {
+            return values[oldest];
+        }
+
+        // Newest sample at or before the requested time, counted from the oldest
+        int low = 0, high = last;
+        while (high - low > 1) {
+            int mid = (low + high) >>> 1;
+            if (times[slot(mid)] <= timeSec) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        int before = slot(low);
+        int after = slot(high);
+        double t = (timeSec - times[before]) / (times[after] - times[before]);
+        return values[before] + t * (values[after] - values[before]);
+    }
+
+    /**
+     * @return the latest value, or NaN when the history is empty.
+     */
+    public double getLatest() {
+        return count == 0 ? Double.NaN : values[slot(count - 1)];
+    }
+
+    public double getOldestTimeSeconds() {
+        return count == 0 ? Double.NaN : times[oldest];
+    }
+
+    public double getLatestTimeSeconds() {
+        return count == 0 ? Double.NaN : times[slot(count - 1)];
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public void clear() {
+        oldest = 0;
+        count = 0;
+    }
+
+    private int slot(int index) {
+        return (oldest + index) % times.length;
+    }
+}
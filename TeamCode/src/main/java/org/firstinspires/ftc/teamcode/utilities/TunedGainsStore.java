@@ -0,0 +1,118 @@
+package org.firstinspires.ftc.teamcode.utilities;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Saves PID gains chosen by the auto-tuner, and loads them over the {@link LiveMatchTuning} defaults at init.
+ * <p>
+ * Each mechanism calls {@link #applySaved(Axis)} when it is created, so later retuning through Panels still works.
+ */
+public final class TunedGainsStore {
+    private static final String KEY_PREFIX = "tuned_gains_v1_";
+
+    private TunedGainsStore() {}
+
+    public enum Axis {
+        TURRET,
+        INDEXER,
+        LAUNCHER
+    }
+
+    public static final class TunedGains {
+        public double kP;
+        public double kI;
+        public double kD;
+        public double kF;
+        public String rule;
+        public long savedAtUnixMs;
+    }
+
+    public static boolean save(Axis axis, double kP, double kI, double kD, double kF, String rule) {
+        if (!PersistentStorage.isInitialized()) {
+            return false;
+        }
+        TunedGains gains = new TunedGains();
+        gains.kP = kP;
+        gains.kI = kI;
+        gains.kD = kD;
+        gains.kF = kF;
+        gains.rule = rule;
+        gains.savedAtUnixMs = System.currentTimeMillis();
+        PersistentStorage.saveObject(KEY_PREFIX + axis.name().toLowerCase(), gains);
+        return true;
+    }
+
+    @Nullable
+    public static TunedGains load(Axis axis) {
+        if (!PersistentStorage.isInitialized()) {
+            return null;
+        }
+        try {
+            return PersistentStorage.getObject(KEY_PREFIX + axis.name().toLowerCase(), TunedGains.class);
+        } catch (Exception ignored) {
+            // Treat unreadable gains as never saved
+            return null;
+        }
+    }
+
+    public static void clear(Axis axis) {
+        if (PersistentStorage.isInitialized()) {
+            PersistentStorage.remove(KEY_PREFIX + axis.name().toLowerCase());
+        }
+    }
+
+    /**
+     * Copies the saved gains for {@code axis} into {@link LiveMatchTuning}, if there are any and loading is enabled.
+     *
+     * @return whether saved gains were applied.
+     */
+    public static boolean applySaved(Axis axis) {
+        if (!LiveMatchTuning.loadTunedGains) {
+            return false;
+        }
+        TunedGains gains = load(axis);
+        if (gains == null) {
+            return false;
+        }
+        setLiveGains(axis, gains.kP, gains.kI, gains.kD, gains.kF);
+        return true;
+    }
+
+    public static void setLiveGains(Axis axis, double kP, double kI, double kD, double kF) {
+        switch (axis) {
+            case TURRET:
+                LiveMatchTuning.turretKp = kP;
+                LiveMatchTuning.turretKi = kI;
+                LiveMatchTuning.turretKd = kD;
+                LiveMatchTuning.turretKf = kF;
+                break;
+            case INDEXER:
+                LiveMatchTuning.indexerKp = kP;
+                LiveMatchTuning.indexerKi = kI;
+                LiveMatchTuning.indexerKd = kD;
+                LiveMatchTuning.indexerKf = kF;
+                break;
+            case LAUNCHER:
+                LiveMatchTuning.launcherKp = kP;
+                LiveMatchTuning.launcherKi = kI;
+                LiveMatchTuning.launcherKd = kD;
+                LiveMatchTuning.launcherKf = kF;
+                break;
+        }
+    }
+
+    /**
+     * @return the live kP, kI, kD and kF for {@code axis}, in that order.
+     */
+    public static double[] getLiveGains(Axis axis) {
+        switch (axis) {
+            case TURRET:
+                return new double[]{ LiveMatchTuning.turretKp, LiveMatchTuning.turretKi, LiveMatchTuning.turretKd, LiveMatchTuning.turretKf };
+            case INDEXER:
+                return new double[]{ LiveMatchTuning.indexerKp, LiveMatchTuning.indexerKi, LiveMatchTuning.indexerKd, LiveMatchTuning.indexerKf };
+            case LAUNCHER:
+            default:
+                return new double[]{ LiveMatchTuning.launcherKp, LiveMatchTuning.launcherKi, LiveMatchTuning.launcherKd, LiveMatchTuning.launcherKf };
+        }
+    }
+}